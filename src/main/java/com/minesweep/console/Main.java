@@ -201,17 +201,16 @@ public class Main {
             
             // 打印每行的格子
             for (int c = 0; c < cols; c++) {
-                Cell cell = board.getCell(r, c);
-                if (cell.isRevealed()) { // 已揭示优先
-                    if (cell.isMine()) {
+                if (board.isRevealed(r, c)) { // 已揭示优先
+                    if (board.isMine(r, c)) {
                         System.out.print("* ");
                     } else {
-                        int neighborCount = cell.getNeighborMineCount();
+                        int neighborCount = board.getNeighborMineCount(r, c);
                         System.out.print(neighborCount == 0 ? "  " : neighborCount + " ");
                     }
-                } else if (cell.isFlagged()) { // 未揭示才显示标记
+                } else if (board.isFlagged(r, c)) { // 未揭示才显示标记
                     System.out.print("F ");
-                } else if (cell.isQuestioned()) {
+                } else if (board.getMarkState(r, c) == Cell.MarkState.QUESTIONED) {
                     System.out.print("? ");
                 } else {
                     System.out.print(". ");
@@ -1,49 +1,194 @@
 package com.minesweep.console;
 
-import com.minesweep.core.logic.MapGenerator;
+import com.minesweep.core.logic.SeededMapGenerator;
 import com.minesweep.core.model.Board;
-import com.minesweep.core.model.Cell;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 /**
- * RandomMapGenerator 实现 MapGenerator 接口，用于在控制台游戏中生成随机地图。
+ * RandomMapGenerator 实现 SeededMapGenerator 接口，用于在控制台游戏中生成随机地图。
+ * <p>
+ * 首次点击位置及其周围 3x3 范围不放雷，其余格子中均匀随机选出 totalMines 个放雷。
+ * 选取使用 Floyd 抽样，不会因为重复或落在安全区而重试。雷很稀疏时只抽取雷的序号，时间和内存与雷数成正比，
+ * 与棋盘大小无关；否则在位图中抽样并扫描整个棋盘，雷数超过可选格子的一半时改为抽取不放雷的格子。
+ * 两种方式对同一个种子选出相同的雷。
+ * 格子数超过 int 范围的棋盘（例如 OFF_HEAP、MAPPED）逐个放雷。
+ * 如果安全区以外的格子不够放雷，安全区缩小为只保护点击的格子。
+ * <p>
+ * 每张地图由一个 64 位种子决定。种子来自以根种子为起点的 {@link SplittableRandom} 种子树：
+ * 每个线程第一次取种子时从根上分裂出自己的流，之后各线程互不竞争。
+ * 同一个根种子在单线程下产生的种子序列是确定的；多线程时各线程得到哪条流取决于分裂的先后，
+ * 但每张地图仍可以用它自己的种子重新生成。
  */
-public class RandomMapGenerator implements MapGenerator {
-    private final Random random = new Random();
+public class RandomMapGenerator implements SeededMapGenerator {
+    // 雷数不超过可选格子数的 1/SPARSE_RATIO 时用哈希表抽样，哈希表不会比位图大
+    private static final int SPARSE_RATIO = 256;
+    // 只在分裂时访问，由自身加锁保护
+    private final SplittableRandom root;
+    private final ThreadLocal<SplittableRandom> streams = ThreadLocal.withInitial(this::split);
+
+    /**
+     * 创建一个根种子随机的生成器。
+     */
+    public RandomMapGenerator() {
+        this.root = new SplittableRandom();
+    }
+
+    /**
+     * 创建一个使用指定根种子的生成器。
+     *
+     * @param seed 根种子
+     */
+    public RandomMapGenerator(long seed) {
+        this.root = new SplittableRandom(seed);
+    }
+
+    private SplittableRandom split() {
+        synchronized (root) {
+            return root.split();
+        }
+    }
 
     @Override
-    public void generate(Board board, int firstRow, int firstCol) {
-        try {
-            java.lang.reflect.Method setMineMethod = Cell.class.getDeclaredMethod("setMine", boolean.class);
-            setMineMethod.setAccessible(true);
-
-            int rows = board.getRows();
-            int cols = board.getCols();
-            int totalMines = board.getTotalMines();
-            int placedMines = 0;
-
-            // 确保首次点击位置及其周围不是雷
-            boolean[][] safeZone = new boolean[rows][cols];
-            for (int r = Math.max(0, firstRow - 1); r <= Math.min(rows - 1, firstRow + 1); r++) {
-                for (int c = Math.max(0, firstCol - 1); c <= Math.min(cols - 1, firstCol + 1); c++) {
-                    safeZone[r][c] = true;
+    public long nextSeed() {
+        return streams.get().nextLong();
+    }
+
+    @Override
+    public void generate(Board board, int firstRow, int firstCol, long seed) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int totalMines = board.getTotalMines();
+        long area = (long) rows * cols;
+
+        // 安全区内的格子索引，按升序排列
+        long[] safe = safeZone(rows, cols, firstRow, firstCol);
+        if (totalMines > area - safe.length) {
+            safe = new long[] {(long) firstRow * cols + firstCol};
+        }
+        long eligible = area - safe.length;
+        SplittableRandom random = new SplittableRandom(seed);
+
+        // 格子数在 int 范围内时收集下标后批量放雷，否则逐个放雷
+        int[] mines = area <= Integer.MAX_VALUE ? new int[totalMines] : null;
+        int placed = 0;
+        boolean pickMines = totalMines <= eligible / 2;
+        if (totalMines <= eligible / SPARSE_RATIO) {
+            // 只抽取放雷的序号并排序，逐个跳过安全区映射到格子索引，代价与雷数成正比
+            long[] ranks = sampleRanks(random, eligible, totalMines);
+            Arrays.sort(ranks);
+            int s = 0;
+            for (long rank : ranks) {
+                while (s < safe.length && safe[s] <= rank + s) {
+                    s++;
                 }
+                placed = place(board, mines, placed, rank + s);
             }
+        } else {
+            // 雷多时抽取不放雷的格子，抽样次数不超过可选格子的一半；位图路径要扫描所有可选格子，
+            // 雷的密度不低于 1/SPARSE_RATIO 时扫描的代价仍与雷数同阶
+            long[] picked = sampleBitmap(random, eligible, pickMines ? totalMines : eligible - totalMines);
+            int s = 0;
+            long index = 0;
+            for (long rank = 0; rank < eligible; rank++, index++) {
+                // 跳过安全区，把序号映射到格子索引
+                while (s < safe.length && safe[s] == index) {
+                    s++;
+                    index++;
+                }
+                if (((picked[(int) (rank >>> 6)] & (1L << rank)) != 0) == pickMines) {
+                    placed = place(board, mines, placed, index);
+                }
+            }
+        }
+        if (mines != null) {
+            board.placeMines(mines);
+        }
+    }
 
-            // 随机放置雷
-            while (placedMines < totalMines) {
-                int r = random.nextInt(rows);
-                int c = random.nextInt(cols);
+    private static int place(Board board, int[] mines, int placed, long index) {
+        if (mines != null) {
+            mines[placed] = (int) index;
+        } else {
+            board.placeMine((int) (index / board.getCols()), (int) (index % board.getCols()));
+        }
+        return placed + 1;
+    }
 
-                // 跳过安全区
-                if (!safeZone[r][c] && !board.getCell(r, c).isMine()) {
-                    setMineMethod.invoke(board.getCell(r, c), true);
-                    placedMines++;
+    private static long[] safeZone(int rows, int cols, int firstRow, int firstCol) {
+        int top = Math.max(0, firstRow - 1);
+        int bottom = Math.min(rows - 1, firstRow + 1);
+        int left = Math.max(0, firstCol - 1);
+        int right = Math.min(cols - 1, firstCol + 1);
+        long[] safe = new long[(bottom - top + 1) * (right - left + 1)];
+        int n = 0;
+        for (int r = top; r <= bottom; r++) {
+            for (int c = left; c <= right; c++) {
+                safe[n++] = (long) r * cols + c;
+            }
+        }
+        return safe;
+    }
+
+    /**
+     * 用 Floyd 算法从 [0, n) 中均匀选出 k 个不同的序号，已选的序号放在开放寻址的哈希表中，
+     * 占用与 k 成正比。
+     *
+     * @return 选中的序号，未排序
+     */
+    private static long[] sampleRanks(SplittableRandom random, long n, int k) {
+        long[] ranks = new long[k];
+        // 装载因子不超过 1/2，-1 表示空槽
+        long[] table = new long[Math.max(2, Integer.highestOneBit(Math.max(1, k)) << 2)];
+        Arrays.fill(table, -1L);
+        int mask = table.length - 1;
+        int picked = 0;
+        for (long j = n - k; j < n; j++) {
+            long t = nextRank(random, j + 1);
+            int slot = slot(t, mask);
+            while (table[slot] != -1L && table[slot] != t) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == t) {
+                // j 本身一定还没有被选中
+                t = j;
+                slot = slot(t, mask);
+                while (table[slot] != -1L) {
+                    slot = (slot + 1) & mask;
                 }
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating map", e);
+            table[slot] = t;
+            ranks[picked++] = t;
         }
+        return ranks;
+    }
+
+    private static int slot(long rank, int mask) {
+        return (int) ((rank * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * 用 Floyd 算法从 [0, n) 中均匀选出 k 个不同的序号，每个序号只抽一次随机数。
+     *
+     * @return 选中序号的位图
+     */
+    private static long[] sampleBitmap(SplittableRandom random, long n, long k) {
+        long[] picked = new long[(int) ((n + 63) >>> 6)];
+        for (long j = n - k; j < n; j++) {
+            long t = nextRank(random, j + 1);
+            if ((picked[(int) (t >>> 6)] & (1L << t)) != 0) {
+                t = j;
+            }
+            picked[(int) (t >>> 6)] |= 1L << t;
+        }
+        return picked;
+    }
+
+    /**
+     * 返回 [0, bound) 内的随机数。bound 在 int 范围内时用 nextInt，与只支持 int 下标时的种子保持相同的地图。
+     */
+    private static long nextRank(SplittableRandom random, long bound) {
+        return bound <= Integer.MAX_VALUE ? random.nextInt((int) bound) : random.nextLong(bound);
     }
 }
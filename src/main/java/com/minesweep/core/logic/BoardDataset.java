@@ -0,0 +1,396 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.core.model.Board;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * BoardDataset 是批量生成的地图数据集，存放在可以直接映射的二进制文件中。
+ * <p>
+ * 文件由 64 字节的头部和定长记录组成。每条记录是 8 字节的种子加上雷的位图
+ * （按 row * cols + col 编号，每 64 格一个 long），第 i 条记录的位置可以直接算出，不需要单独的索引。
+ * 映射按 1GB 左右分段，每段包含整数条记录，记录不会跨段。所有地图使用同一个首次点击位置，记录在头部。
+ * <p>
+ * {@link #generate} 在线程池上并行生成，第 i 条记录的种子由根种子和 i 派生，文件内容与线程数无关。
+ * {@link #open(Path)} 以只读方式映射文件，读取记录时直接按位图放雷，不需要解析。
+ */
+public final class BoardDataset {
+    static final int MAGIC = 0x4D534453; // "MSDS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    private static final long SEGMENT_SIZE = 1L << 30;
+    // 每个生成任务写入的字节数，大棋盘的记录超过该值时一个任务只写一条
+    private static final long BATCH_BYTES = 8L << 20;
+
+    // 头部字段的偏移量
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int ROWS_OFFSET = 8;
+    private static final int COLS_OFFSET = 12;
+    private static final int MINES_OFFSET = 16;
+    private static final int FIRST_ROW_OFFSET = 20;
+    private static final int FIRST_COL_OFFSET = 24;
+    private static final int RECORD_SIZE_OFFSET = 28;
+    private static final int COUNT_OFFSET = 32;
+
+    private final int rows;
+    private final int cols;
+    private final int totalMines;
+    private final int firstRow;
+    private final int firstCol;
+    private final int recordSize;
+    private final long recordsPerSegment;
+    private final long count;
+    private final ByteBuffer[] segments;
+
+    private BoardDataset(ByteBuffer header, ByteBuffer[] segments) {
+        this.rows = header.getInt(ROWS_OFFSET);
+        this.cols = header.getInt(COLS_OFFSET);
+        this.totalMines = header.getInt(MINES_OFFSET);
+        this.firstRow = header.getInt(FIRST_ROW_OFFSET);
+        this.firstCol = header.getInt(FIRST_COL_OFFSET);
+        this.recordSize = header.getInt(RECORD_SIZE_OFFSET);
+        this.count = header.getLong(COUNT_OFFSET);
+        this.recordsPerSegment = SEGMENT_SIZE / recordSize;
+        this.segments = segments;
+    }
+
+    /**
+     * 使用公共 ForkJoinPool 生成数据集，已存在的文件会被覆盖。
+     *
+     * @see #generate(Path, int, int, int, int, int, long, SeededMapGenerator, long, ForkJoinPool)
+     */
+    public static void generate(Path file, int rows, int cols, int totalMines, int firstRow, int firstCol,
+                                long count, SeededMapGenerator generator, long seed) throws IOException {
+        generate(file, rows, cols, totalMines, firstRow, firstCol, count, generator, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定的 ForkJoinPool 上并行生成 count 张地图并写入文件，已存在的文件会被覆盖。
+     *
+     * @param file 数据集文件路径
+     * @param rows 棋盘的行数，必须大于 0
+     * @param cols 棋盘的列数，必须大于 0
+     * @param totalMines 雷的总数，必须大于等于 0 且小于 rows * cols
+     * @param firstRow 所有地图共用的首次点击行坐标
+     * @param firstCol 所有地图共用的首次点击列坐标
+     * @param count 地图数量
+     * @param generator 地图生成器，每张地图用派生出的种子调用一次
+     * @param seed 根种子
+     * @param pool 执行生成的线程池
+     * @throws IOException 如果文件无法写入
+     * @throws IllegalArgumentException 如果棋盘尺寸或雷数不合法，或者 count 小于 0
+     * @throws IndexOutOfBoundsException 如果首次点击位置超出棋盘范围
+     * @throws NullPointerException 如果 file、generator 或 pool 为 null
+     */
+    public static void generate(Path file, int rows, int cols, int totalMines, int firstRow, int firstCol,
+                                long count, SeededMapGenerator generator, long seed, ForkJoinPool pool)
+            throws IOException {
+        if (file == null || generator == null || pool == null) {
+            throw new NullPointerException("File, generator and pool cannot be null");
+        }
+        if (rows <= 0 || cols <= 0 || totalMines < 0 || totalMines >= (long) rows * cols
+                || (long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid board: " + rows + "x" + cols + ", " + totalMines + " mines");
+        }
+        if (firstRow < 0 || firstRow >= rows || firstCol < 0 || firstCol >= cols) {
+            throw new IndexOutOfBoundsException("First click out of bounds: " + firstRow + "," + firstCol);
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative: " + count);
+        }
+        int words = (rows * cols + 63) >>> 6;
+        int recordSize = 8 + words * 8;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(ROWS_OFFSET, rows);
+            header.putInt(COLS_OFFSET, cols);
+            header.putInt(MINES_OFFSET, totalMines);
+            header.putInt(FIRST_ROW_OFFSET, firstRow);
+            header.putInt(FIRST_COL_OFFSET, firstCol);
+            header.putInt(RECORD_SIZE_OFFSET, recordSize);
+            header.putLong(COUNT_OFFSET, count);
+            writeFully(channel, header, 0);
+
+            // 每个任务写一段连续的记录，位置不重叠，可以并发写入同一个 FileChannel
+            long batchSize = Math.max(1, BATCH_BYTES / recordSize);
+            AtomicBoolean failed = new AtomicBoolean();
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (long start = 0; start < count; start += batchSize) {
+                long first = start;
+                int batch = (int) Math.min(batchSize, count - start);
+                tasks.add(pool.submit(() -> {
+                    // 已有任务失败时跳过尚未开始的任务
+                    if (failed.get()) {
+                        return;
+                    }
+                    try {
+                        writeBatch(channel, first, batch, recordSize, words, rows, cols, totalMines,
+                                firstRow, firstCol, generator, seed);
+                    } catch (RuntimeException | Error e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }));
+            }
+            // 等所有任务结束再关闭通道，然后抛出第一个失败
+            Throwable failure = null;
+            for (ForkJoinTask<?> task : tasks) {
+                try {
+                    task.join();
+                } catch (RuntimeException | Error e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) failure).getCause();
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure != null) {
+                throw (Error) failure;
+            }
+        }
+    }
+
+    private static void writeBatch(FileChannel channel, long first, int batch, int recordSize, int words,
+                                   int rows, int cols, int totalMines, int firstRow, int firstCol,
+                                   SeededMapGenerator generator, long seed) {
+        ByteBuffer buffer = ByteBuffer.allocate(batch * recordSize);
+        long[] bits = new long[words];
+        for (long index = first; index < first + batch; index++) {
+            long boardSeed = recordSeed(seed, index);
+            Board board = new Board(rows, cols, totalMines, Board.StorageMode.PACKED);
+            generator.generate(board, firstRow, firstCol, boardSeed);
+            encode(board, bits);
+            buffer.putLong(boardSeed);
+            for (long word : bits) {
+                buffer.putLong(word);
+            }
+        }
+        buffer.flip();
+        try {
+            writeFully(channel, buffer, HEADER_SIZE + first * recordSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 以只读方式映射已有的数据集文件。
+     *
+     * @param file 数据集文件路径
+     * @return 数据集
+     * @throws IOException 如果文件无法读取、映射，或不是有效的数据集文件
+     */
+    public static BoardDataset open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a dataset file: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Not a dataset file: " + file);
+            }
+            int rows = header.getInt(ROWS_OFFSET);
+            int cols = header.getInt(COLS_OFFSET);
+            int totalMines = header.getInt(MINES_OFFSET);
+            int recordSize = header.getInt(RECORD_SIZE_OFFSET);
+            long count = header.getLong(COUNT_OFFSET);
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE
+                    || totalMines < 0 || totalMines >= rows * cols
+                    || recordSize != 8 + ((rows * cols + 63) >>> 6) * 8 || count < 0
+                    || channel.size() < HEADER_SIZE + count * recordSize) {
+                throw new IOException("Corrupted dataset file: " + file);
+            }
+
+            long recordsPerSegment = SEGMENT_SIZE / recordSize;
+            ByteBuffer[] segments = new ByteBuffer[(int) ((count + recordsPerSegment - 1) / recordsPerSegment)];
+            for (int i = 0; i < segments.length; i++) {
+                long first = i * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, count - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * recordSize,
+                        records * recordSize);
+            }
+            return new BoardDataset(header, segments);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void encode(Board board, long[] bits) {
+        int cols = board.getCols();
+        Arrays.fill(bits, 0L);
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < cols; col++) {
+                if (board.isMine(row, col)) {
+                    int index = row * cols + col;
+                    bits[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    // SplitMix64 的混合函数，让相邻记录的种子互不相关
+    private static long recordSeed(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 获取地图数量。
+     *
+     * @return 地图数量
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * 获取棋盘的行数。
+     *
+     * @return 行数
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * 获取棋盘的列数。
+     *
+     * @return 列数
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * 获取每张地图的雷数。
+     *
+     * @return 雷数
+     */
+    public int getTotalMines() {
+        return totalMines;
+    }
+
+    /**
+     * 获取生成地图时的首次点击行坐标。
+     *
+     * @return 行坐标
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * 获取生成地图时的首次点击列坐标。
+     *
+     * @return 列坐标
+     */
+    public int getFirstCol() {
+        return firstCol;
+    }
+
+    /**
+     * 获取第 index 张地图的种子，用同一个生成器和首次点击可以重新生成这张地图。
+     *
+     * @param index 地图序号，从 0 开始
+     * @return 种子
+     * @throws IndexOutOfBoundsException 如果 index 超出范围
+     */
+    public long getSeed(long index) {
+        return segment(index).getLong(offset(index));
+    }
+
+    /**
+     * 直接从映射的位图判断第 index 张地图的指定位置是否是雷。
+     *
+     * @param index 地图序号，从 0 开始
+     * @param row 行索引
+     * @param col 列索引
+     * @return 如果是雷返回 true
+     * @throws IndexOutOfBoundsException 如果 index、row 或 col 超出范围
+     */
+    public boolean isMine(long index, int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Square out of bounds: " + row + "," + col);
+        }
+        int square = row * cols + col;
+        long word = segment(index).getLong(offset(index) + 8 + (square >>> 6) * 8);
+        return (word & (1L << square)) != 0;
+    }
+
+    /**
+     * 创建第 index 张地图的 PACKED 棋盘，雷已放好、数字已计算。
+     *
+     * @see #getBoard(long, Board.StorageMode)
+     */
+    public Board getBoard(long index) {
+        return getBoard(index, Board.StorageMode.PACKED);
+    }
+
+    /**
+     * 创建第 index 张地图的棋盘，雷已放好、数字已计算，所有格子都未揭示。
+     *
+     * @param index 地图序号，从 0 开始
+     * @param storageMode 棋盘的存储模式
+     * @return 新棋盘
+     * @throws IndexOutOfBoundsException 如果 index 超出范围
+     * @throws IllegalArgumentException 如果 storageMode 不能直接创建（MAPPED、CHUNKED、COPY_ON_WRITE）
+     */
+    public Board getBoard(long index, Board.StorageMode storageMode) {
+        ByteBuffer segment = segment(index);
+        int position = offset(index) + 8;
+        int[] mines = new int[totalMines];
+        int placed = 0;
+        int words = (recordSize - 8) >>> 3;
+        for (int i = 0; i < words && placed < totalMines; i++) {
+            long word = segment.getLong(position + i * 8);
+            while (word != 0 && placed < totalMines) {
+                mines[placed++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        Board board = new Board(rows, cols, totalMines, storageMode);
+        board.placeMines(placed == totalMines ? mines : Arrays.copyOf(mines, placed));
+        board.calculateNumbers();
+        return board;
+    }
+
+    private ByteBuffer segment(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Board index out of bounds: " + index);
+        }
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    private int offset(long index) {
+        return (int) (index % recordsPerSegment) * recordSize;
+    }
+}
@@ -0,0 +1,114 @@
+package com.minesweep.core.logic;
+
+import java.util.Arrays;
+
+/**
+ * ChangeSet 记录一次操作中可见状态发生变化的格子，以及操作后的游戏状态。
+ * <p>
+ * 由 {@link GameEngine#reveal(int, int, ChangeSet)} 等方法填充，每次调用前清空。
+ * 同一个实例可以在多次操作之间复用，容量只增不减，稳定后不再分配内存。
+ * 格子按变化顺序记录，每格在一次操作中最多出现一次。该类不是线程安全的。
+ */
+public final class ChangeSet {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // 按 row, col 交替存放
+    private int[] squares;
+    private int size;
+    private GameState state;
+
+    /**
+     * 创建一个空的 ChangeSet。
+     */
+    public ChangeSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 创建一个空的 ChangeSet，预留指定数量格子的空间。
+     *
+     * @param initialCapacity 初始容量
+     * @throws IllegalArgumentException 如果 initialCapacity 小于 0
+     */
+    public ChangeSet(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative: " + initialCapacity);
+        }
+        this.squares = new int[initialCapacity * 2];
+    }
+
+    /**
+     * 获取发生变化的格子数量。
+     *
+     * @return 发生变化的格子数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 判断是否没有格子发生变化。
+     *
+     * @return 如果没有格子发生变化返回 true
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取第 index 个变化格子的行索引。
+     *
+     * @param index 变化序号，从 0 开始
+     * @return 行索引
+     * @throws IndexOutOfBoundsException 如果 index 超出范围
+     */
+    public int getRow(int index) {
+        checkIndex(index);
+        return squares[index * 2];
+    }
+
+    /**
+     * 获取第 index 个变化格子的列索引。
+     *
+     * @param index 变化序号，从 0 开始
+     * @return 列索引
+     * @throws IndexOutOfBoundsException 如果 index 超出范围
+     */
+    public int getCol(int index) {
+        checkIndex(index);
+        return squares[index * 2 + 1];
+    }
+
+    /**
+     * 获取操作完成后的游戏状态。
+     *
+     * @return 游戏状态；尚未记录过任何操作时返回 null
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Change index out of bounds: " + index);
+        }
+    }
+
+    void clear() {
+        size = 0;
+        state = null;
+    }
+
+    void setState(GameState state) {
+        this.state = state;
+    }
+
+    void add(int row, int col) {
+        if (size * 2 == squares.length) {
+            squares = Arrays.copyOf(squares, Math.max(DEFAULT_CAPACITY * 2, squares.length * 2));
+        }
+        squares[size * 2] = row;
+        squares[size * 2 + 1] = col;
+        size++;
+    }
+}
@@ -0,0 +1,36 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.core.model.Board;
+
+/**
+ * ChunkedMapGenerator 为 CHUNKED 棋盘设定布雷种子。
+ * <p>
+ * 该生成器不会立即放置任何雷，只把种子和首次点击位置交给棋盘，各区块在第一次被访问时
+ * 由种子和区块坐标确定性地生成雷位。相同的种子和首次点击总是得到相同的地图。
+ */
+public class ChunkedMapGenerator implements MapGenerator {
+    private final long seed;
+
+    /**
+     * 创建一个新的 ChunkedMapGenerator 实例。
+     *
+     * @param seed 布雷种子
+     */
+    public ChunkedMapGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 获取布雷种子。
+     *
+     * @return 布雷种子
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public void generate(Board board, int firstRow, int firstCol) {
+        board.seedChunks(seed, firstRow, firstCol);
+    }
+}
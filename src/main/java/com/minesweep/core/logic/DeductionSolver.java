@@ -0,0 +1,243 @@
+package com.minesweep.core.logic;
+
+import java.util.Arrays;
+
+/**
+ * DeductionSolver 判断一个布局能否从首次点击开始只靠推理解开，不需要猜测。
+ * <p>
+ * 求解器只看玩家能看到的信息，反复应用三条规则直到所有安全格都被揭示，或者没有规则可用：
+ * <ol>
+ *   <li>单格规则：数字减去周围已确定的雷等于 0 时，其余未知邻居都安全；等于未知邻居数时全是雷。</li>
+ *   <li>子集规则：数字 A 的未知邻居是数字 B 的未知邻居的子集时，B 多出来的格子里恰好有
+ *       两者剩余雷数之差个雷，差为 0 或等于多出的格子数时可以确定这些格子。</li>
+ *   <li>总雷数规则：剩余雷数为 0 时所有未知格都安全。</li>
+ * </ol>
+ * 实例保存可复用的工作数组，每个线程使用自己的实例，不是线程安全的。
+ */
+final class DeductionSolver {
+    private static final byte UNKNOWN = 0;
+    private static final byte OPEN = 1;
+    private static final byte MINE = 2;
+
+    private final int rows;
+    private final int cols;
+    private final byte[] counts;
+    private final byte[] status;
+    private final int[] stack;
+    private boolean[] mines;
+    private int opened;
+    private int flagged;
+
+    DeductionSolver(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.counts = new byte[rows * cols];
+        this.status = new byte[rows * cols];
+        this.stack = new int[rows * cols];
+    }
+
+    /**
+     * 判断布局能否不靠猜测解开。
+     *
+     * @param mines 每格是否是雷，按 row * cols + col 排列
+     * @param totalMines 雷的总数
+     * @param firstRow 首次点击的行坐标，该格必须不是雷
+     * @param firstCol 首次点击的列坐标
+     * @return 如果只靠推理就能揭示所有安全格返回 true
+     */
+    boolean solve(boolean[] mines, int totalMines, int firstRow, int firstCol) {
+        this.mines = mines;
+        countNeighbors();
+        Arrays.fill(status, UNKNOWN);
+        opened = 0;
+        flagged = 0;
+        int safeSquares = rows * cols - totalMines;
+
+        open(firstRow * cols + firstCol);
+        while (opened < safeSquares) {
+            if (applySingleRule() || applySubsetRule()) {
+                continue;
+            }
+            if (totalMines == flagged) {
+                // 剩下的未知格都安全
+                for (int index = 0; index < status.length; index++) {
+                    open(index);
+                }
+                continue;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void countNeighbors() {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int count = 0;
+                for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                        if (mines[r * cols + c]) {
+                            count++;
+                        }
+                    }
+                }
+                counts[row * cols + col] = (byte) count;
+            }
+        }
+    }
+
+    /**
+     * 揭示一个推理出的安全格，数字为 0 时连同周围一起展开。
+     */
+    private void open(int start) {
+        if (status[start] != UNKNOWN) {
+            return;
+        }
+        if (mines[start]) {
+            throw new IllegalStateException("Deduced a mine as safe at index " + start);
+        }
+        int top = 0;
+        status[start] = OPEN;
+        stack[top++] = start;
+        while (top > 0) {
+            int index = stack[--top];
+            opened++;
+            if (counts[index] != 0) {
+                continue;
+            }
+            int row = index / cols;
+            int col = index - row * cols;
+            for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                    int neighbor = r * cols + c;
+                    if (status[neighbor] == UNKNOWN) {
+                        status[neighbor] = OPEN;
+                        stack[top++] = neighbor;
+                    }
+                }
+            }
+        }
+    }
+
+    private void flag(int index) {
+        if (status[index] == UNKNOWN) {
+            status[index] = MINE;
+            flagged++;
+        }
+    }
+
+    private int unknownNeighbors(int row, int col) {
+        int unknown = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if (status[r * cols + c] == UNKNOWN) {
+                    unknown++;
+                }
+            }
+        }
+        return unknown;
+    }
+
+    // 数字减去周围已确定的雷
+    private int remainingMines(int row, int col) {
+        int remaining = counts[row * cols + col];
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if (status[r * cols + c] == MINE) {
+                    remaining--;
+                }
+            }
+        }
+        return remaining;
+    }
+
+    private boolean applySingleRule() {
+        boolean progress = false;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int index = row * cols + col;
+                if (status[index] != OPEN || counts[index] == 0) {
+                    continue;
+                }
+                int unknown = unknownNeighbors(row, col);
+                if (unknown == 0) {
+                    continue;
+                }
+                int remaining = remainingMines(row, col);
+                if (remaining == 0 || remaining == unknown) {
+                    resolveNeighbors(row, col, remaining == 0, -1, -1);
+                    progress = true;
+                }
+            }
+        }
+        return progress;
+    }
+
+    private boolean applySubsetRule() {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int index = row * cols + col;
+                if (status[index] != OPEN || counts[index] == 0) {
+                    continue;
+                }
+                int unknown = unknownNeighbors(row, col);
+                if (unknown == 0) {
+                    continue;
+                }
+                // 与 A 共享未知格的数字 B 只可能在 5x5 范围内
+                for (int r = Math.max(0, row - 2); r <= Math.min(rows - 1, row + 2); r++) {
+                    for (int c = Math.max(0, col - 2); c <= Math.min(cols - 1, col + 2); c++) {
+                        int other = r * cols + c;
+                        if (other == index || status[other] != OPEN || counts[other] == 0
+                                || !unknownsWithin(row, col, r, c)) {
+                            continue;
+                        }
+                        int extra = unknownNeighbors(r, c) - unknown;
+                        if (extra == 0) {
+                            continue;
+                        }
+                        int extraMines = remainingMines(r, c) - remainingMines(row, col);
+                        if (extraMines == 0 || extraMines == extra) {
+                            resolveNeighbors(r, c, extraMines == 0, row, col);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // (row, col) 的未知邻居是否都在 (otherRow, otherCol) 的 3x3 范围内
+    private boolean unknownsWithin(int row, int col, int otherRow, int otherCol) {
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if (status[r * cols + c] == UNKNOWN
+                        && (Math.abs(r - otherRow) > 1 || Math.abs(c - otherCol) > 1)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 把 (row, col) 的未知邻居全部揭示或全部标雷，跳过与 (exceptRow, exceptCol) 相邻的格子。
+     */
+    private void resolveNeighbors(int row, int col, boolean safe, int exceptRow, int exceptCol) {
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                int index = r * cols + c;
+                if (status[index] != UNKNOWN
+                        || (exceptRow >= 0 && Math.abs(r - exceptRow) <= 1 && Math.abs(c - exceptCol) <= 1)) {
+                    continue;
+                }
+                if (safe) {
+                    open(index);
+                } else {
+                    flag(index);
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,39 @@
 package com.minesweep.core.logic;
 
 import com.minesweep.core.model.Board;
+import com.minesweep.core.model.BoardSnapshot;
 import com.minesweep.core.model.Cell;
-import com.minesweep.core.model.Position;
-import java.util.ArrayDeque;
 
 /**
  * GameEngine 类是扫雷游戏的核心引擎，管理游戏状态和逻辑。
  */
 public class GameEngine {
+    /**
+     * 批量命令的操作码：揭示格子，见 {@link #reveal(int, int)}。
+     */
+    public static final int OP_REVEAL = 0;
+    /**
+     * 批量命令的操作码：循环切换标记，见 {@link #cycleMark(int, int)}。
+     */
+    public static final int OP_CYCLE_MARK = 1;
+    /**
+     * 批量命令的操作码：Chord，见 {@link #chord(int, int)}。
+     */
+    public static final int OP_CHORD = 2;
+
+    /**
+     * 批量命令的结果：命令执行并改变了棋盘。
+     */
+    public static final byte OUTCOME_CHANGED = 1;
+    /**
+     * 批量命令的结果：命令合法但没有改变棋盘，例如揭示已揭示的格子。
+     */
+    public static final byte OUTCOME_UNCHANGED = 0;
+    /**
+     * 批量命令的结果：命令不合法（坐标越界或当前状态下不允许），未执行。
+     */
+    public static final byte OUTCOME_REJECTED = -1;
+
     private final Board board;
     private GameState state;
     private final MapGenerator generator;
@@ -17,6 +42,24 @@ public class GameEngine {
     private long endTime;
     private int flaggedMinesCount;
     private boolean questionMarkEnabled;
+    private long moveCount;
+    // 地图由 SeededMapGenerator 生成时使用的种子
+    private boolean seeded;
+    private long seed;
+    // 首次点击的位置，带种子的地图要配合它才能重新生成
+    private int firstRow;
+    private int firstCol;
+    // 重放日志时指定的种子，开局时代替生成器自己选择的种子
+    private boolean fixedSeed;
+    // 最近一次发布的快照，供其他线程读取；null 表示未启用快照
+    private volatile BoardSnapshot snapshot;
+    // 操作日志；null 表示未启用
+    private GameJournal journal;
+    // 撤销历史；null 表示未启用
+    private UndoHistory history;
+    // 当前操作接收变化的缓冲区；null 表示不记录
+    private ChangeSet changes;
+    private final Board.ChangeListener changeListener = this::squareChanged;
 
     /**
      * 创建一个新的 GameEngine 实例。
@@ -31,6 +74,10 @@ public class GameEngine {
 
     /**
      * 创建一个新的 GameEngine 实例。
+     * <p>
+     * 如果棋盘是用 {@link Board#openMapped} 重新打开、已经布好雷的 MAPPED 棋盘（见 {@link Board#hasSavedLayout()}），
+     * 引擎不再调用地图生成器，而是继续上次的一局：已有雷被揭示时为 LOST，所有非雷格子都已揭示时为 WON，
+     * 否则为 PLAYING。剩余雷数由保存的标记计数恢复，计时从创建引擎时重新开始，游戏结果不带种子。
      *
      * @param board 游戏棋盘
      * @param generator 地图生成器
@@ -52,6 +99,27 @@ public class GameEngine {
         this.startTime = -1;
         this.endTime = -1;
         this.flaggedMinesCount = 0;
+        if (board.hasSavedLayout()) {
+            resumeSavedGame();
+        }
+    }
+
+    /**
+     * 从重新打开的 MAPPED 棋盘恢复游戏状态，不重新生成地图。
+     */
+    private void resumeSavedGame() {
+        firstClickPending = false;
+        flaggedMinesCount = board.getFlaggedCount();
+        startTime = System.currentTimeMillis();
+        if (board.hasSavedRevealedMine()) {
+            state = GameState.LOST;
+            endTime = startTime;
+        } else if (checkWin()) {
+            state = GameState.WON;
+            endTime = startTime;
+        } else {
+            state = GameState.PLAYING;
+        }
     }
 
 
@@ -67,6 +135,273 @@ public class GameEngine {
         return board;
     }
 
+    /**
+     * 启用棋盘快照，并立即发布当前状态的快照。
+     * <p>
+     * 启用后每次 reveal、chord、cycleMark 成功返回前都会发布一个新的 {@link BoardSnapshot}，
+     * 只复制本步修改过的瓦片。该方法必须在执行游戏操作的线程中调用。
+     *
+     * @throws IllegalStateException 如果棋盘不支持快照
+     */
+    public void enableSnapshots() {
+        if (snapshot == null) {
+            snapshot = board.snapshot(moveCount);
+        }
+    }
+
+    /**
+     * 获取最近一次发布的棋盘快照。
+     * <p>
+     * 可以在任意线程中调用，不需要加锁；返回的快照不可变，版本号等于发布时的 {@link #getMoveCount()}。
+     *
+     * @return 最近一次发布的棋盘快照
+     * @throws IllegalStateException 如果尚未调用 {@link #enableSnapshots()}
+     */
+    public BoardSnapshot getSnapshot() {
+        BoardSnapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Snapshots are not enabled");
+        }
+        return current;
+    }
+
+    /**
+     * 获取已完成的操作数，每次 reveal、chord、cycleMark、undo、redo 成功返回计为一步。
+     *
+     * @return 已完成的操作数
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * 开始记录操作日志，地图生成器应当是 {@link SeededMapGenerator}，种子在开局时写入日志。
+     *
+     * @return 新的操作日志
+     * @throws IllegalStateException 如果已经执行过操作或已经启用了日志
+     * @see #enableJournal(long)
+     */
+    public GameJournal enableJournal() {
+        return enableJournal(0L);
+    }
+
+    /**
+     * 开始记录操作日志，之后每次 reveal、chord、cycleMark 成功返回时追加一条记录。
+     * <p>
+     * 地图生成器是 {@link SeededMapGenerator} 时，开局时引擎取得的种子会覆盖 seed 写入日志；
+     * 其他生成器的种子引擎无从知道，由调用者传入，重放时据此重建同一张地图。
+     * 日志必须在第一步操作之前启用，否则无法从空白棋盘重放。已经启用了撤销时，日志的第一条记录
+     * 就是启用撤销，重放时同样先启用撤销。
+     *
+     * @param seed 地图生成器使用的种子，生成器带种子时被开局时的种子取代
+     * @return 新的操作日志
+     * @throws IllegalStateException 如果已经执行过操作或已经启用了日志
+     */
+    public GameJournal enableJournal(long seed) {
+        if (journal != null) {
+            throw new IllegalStateException("Journal is already enabled");
+        }
+        if (moveCount != 0 || !firstClickPending) {
+            throw new IllegalStateException("Journal must be enabled before the first move");
+        }
+        journal = new GameJournal(board, questionMarkEnabled, seed);
+        if (history != null) {
+            journal.recordEnableUndo();
+        }
+        return journal;
+    }
+
+    /**
+     * 重放日志时指定开局使用的种子，只对 {@link SeededMapGenerator} 有效。
+     */
+    void useSeed(long seed) {
+        this.seed = seed;
+        this.fixedSeed = true;
+    }
+
+    /**
+     * 获取操作日志。
+     *
+     * @return 操作日志
+     * @throws IllegalStateException 如果尚未调用 {@link #enableJournal(long)}
+     */
+    public GameJournal getJournal() {
+        if (journal == null) {
+            throw new IllegalStateException("Journal is not enabled");
+        }
+        return journal;
+    }
+
+    /**
+     * 派生一个状态与当前引擎相同、此后互不影响的新引擎，用于前瞻搜索。
+     * <p>
+     * 新引擎的棋盘由 {@link Board#fork()} 得到，与当前棋盘写时复制地共享瓦片。第一次从非 COPY_ON_WRITE
+     * 棋盘派生时要把整个棋盘编码为瓦片，代价为 O(rows * cols)，并开始跟踪当前棋盘修改过的瓦片；
+     * 之后每次派生只重新编码自上次派生以来修改过的瓦片，再复制瓦片指针。新引擎共享地图生成器，继承游戏状态、
+     * 计时、标记计数和步数，但不继承快照、操作日志和撤销历史。
+     *
+     * @return 新引擎
+     * @throws IllegalStateException 如果棋盘是 CHUNKED 模式
+     */
+    public GameEngine fork() {
+        GameEngine fork = new GameEngine(board.fork(), generator, questionMarkEnabled);
+        fork.state = state;
+        fork.firstClickPending = firstClickPending;
+        fork.startTime = startTime;
+        fork.endTime = endTime;
+        fork.flaggedMinesCount = flaggedMinesCount;
+        fork.moveCount = moveCount;
+        fork.seeded = seeded;
+        fork.seed = seed;
+        fork.firstRow = firstRow;
+        fork.firstCol = firstCol;
+        fork.fixedSeed = fixedSeed;
+        return fork;
+    }
+
+    /**
+     * 启用撤销和重做，之后每次 reveal、chord、cycleMark 成功返回都可以撤销。
+     * <p>
+     * 每一步只记录被修改的格子及其前后状态，占用与被修改的格子数成正比。开局的第一步会生成地图，
+     * 不能撤销。启用后引擎会一直占用棋盘的 {@link Board#setChangeListener 变化回调}，
+     * 洪水填充因此不再并行执行。重复调用没有效果。
+     */
+    public void enableUndo() {
+        if (history != null) {
+            return;
+        }
+        history = new UndoHistory();
+        board.setChangeListener(changeListener);
+        if (journal != null) {
+            journal.recordEnableUndo();
+        }
+    }
+
+    /**
+     * 判断是否有可以撤销的步。
+     *
+     * @return 如果可以撤销返回 true
+     */
+    public boolean canUndo() {
+        return history != null && history.canUndo();
+    }
+
+    /**
+     * 判断是否有可以重做的步。
+     *
+     * @return 如果可以重做返回 true
+     */
+    public boolean canRedo() {
+        return history != null && history.canRedo();
+    }
+
+    /**
+     * 撤销最近一步，恢复该步修改过的格子、各计数和游戏状态，已结束的游戏也可以撤销。
+     * <p>
+     * 没有修改任何格子的操作（例如揭示已揭示的格子、没有效果的 Chord）不会留下撤销记录，
+     * 撤销跳过它们，直接撤销之前真正改变了棋盘的一步。
+     * 撤销本身计为一步，步数只增不减，以保证快照版本号单调递增。
+     *
+     * @throws IllegalStateException 如果未启用撤销或没有可以撤销的步
+     */
+    public void undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        board.setChangeListener(null);
+        UndoHistory.Move move = history.undo(board);
+        board.setChangeListener(changeListener);
+        board.restoreCounts(move.revealedBefore, move.flaggedBefore);
+        flaggedMinesCount = move.flaggedMinesBefore;
+        state = move.stateBefore;
+        startTime = move.startTimeBefore;
+        endTime = move.endTimeBefore;
+        completeMove(null);
+        if (journal != null) {
+            journal.recordUndo();
+        }
+    }
+
+    /**
+     * 重做最近一次撤销的步。
+     *
+     * @throws IllegalStateException 如果未启用撤销或没有可以重做的步
+     */
+    public void redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        board.setChangeListener(null);
+        UndoHistory.Move move = history.redo(board);
+        board.setChangeListener(changeListener);
+        board.restoreCounts(move.revealedAfter, move.flaggedAfter);
+        flaggedMinesCount = move.flaggedMinesAfter;
+        state = move.stateAfter;
+        startTime = move.startTimeAfter;
+        endTime = move.endTimeAfter;
+        completeMove(null);
+        if (journal != null) {
+            journal.recordRedo();
+        }
+    }
+
+    private void squareChanged(int row, int col, Cell.MarkState previousMark) {
+        if (changes != null) {
+            changes.add(row, col);
+        }
+        if (history != null) {
+            history.squareChanged(row, col, previousMark);
+        }
+    }
+
+    /**
+     * 一步操作开始前调用：启用撤销时记录操作前的计数和状态。开局的一步不记录。
+     */
+    private UndoHistory.Move beginMove() {
+        if (history == null || firstClickPending) {
+            return null;
+        }
+        history.begin();
+        UndoHistory.Move move = new UndoHistory.Move();
+        move.revealedBefore = board.getRevealedCount();
+        move.flaggedBefore = board.getFlaggedCount();
+        move.flaggedMinesBefore = flaggedMinesCount;
+        move.stateBefore = state;
+        move.startTimeBefore = startTime;
+        move.endTimeBefore = endTime;
+        return move;
+    }
+
+    /**
+     * 一步操作完成后调用：提交撤销记录（没有修改任何格子的一步不记录），增加步数，并在启用快照时发布新快照。
+     */
+    private void completeMove(UndoHistory.Move move) {
+        recordMove(move);
+        publishSnapshot();
+    }
+
+    /**
+     * 提交撤销记录并增加步数，不发布快照。
+     */
+    private void recordMove(UndoHistory.Move move) {
+        if (move != null) {
+            move.revealedAfter = board.getRevealedCount();
+            move.flaggedAfter = board.getFlaggedCount();
+            move.flaggedMinesAfter = flaggedMinesCount;
+            move.stateAfter = state;
+            move.startTimeAfter = startTime;
+            move.endTimeAfter = endTime;
+            history.commit(board, move);
+        }
+        moveCount++;
+    }
+
+    private void publishSnapshot() {
+        if (snapshot != null) {
+            snapshot = board.snapshot(moveCount);
+        }
+    }
+
     /**
      * 获取当前游戏状态。
      *
@@ -125,8 +460,23 @@ public class GameEngine {
         // 记录开始时间
         startTime = System.currentTimeMillis();
         
-        // 调用生成器生成地图
-        generator.generate(board, firstRow, firstCol);
+        // 调用生成器生成地图，带种子的生成器同时返回种子，以便记入游戏结果
+        if (generator instanceof SeededMapGenerator) {
+            SeededMapGenerator seededGenerator = (SeededMapGenerator) generator;
+            if (fixedSeed) {
+                seededGenerator.generate(board, firstRow, firstCol, seed);
+            } else {
+                seed = seededGenerator.generateNext(board, firstRow, firstCol);
+            }
+            seeded = true;
+            this.firstRow = firstRow;
+            this.firstCol = firstCol;
+            if (journal != null) {
+                journal.recordSeed(seed);
+            }
+        } else {
+            generator.generate(board, firstRow, firstCol);
+        }
         
         // 验证首次点击保护：首次点击位置及其邻居不是雷
         verifyFirstClickProtection(firstRow, firstCol);
@@ -142,7 +492,8 @@ public class GameEngine {
     /**
      * 验证首次点击保护机制。
      * <p>
-     * 确保首次点击位置及其周围8个邻居不是雷。
+     * 确保首次点击位置及其周围8个邻居不是雷。如果首次点击周围 3x3 范围以外的格子放不下所有雷，
+     * 只要求首次点击位置不是雷，与生成器缩小安全区的规则一致。
      *
      * @param firstRow 首次点击的行坐标
      * @param firstCol 首次点击的列坐标
@@ -150,25 +501,16 @@ public class GameEngine {
      */
     private void verifyFirstClickProtection(int firstRow, int firstCol) {
         // 检查首次点击位置不是雷
-        if (board.getCell(firstRow, firstCol).isMine()) {
+        if (board.isMine(firstRow, firstCol)) {
             throw new IllegalStateException("First click position cannot be a mine");
         }
         
-        // 检查周围8个邻居不是雷
-        try {
-            java.lang.reflect.Method getNeighborsMethod = Board.class.getDeclaredMethod("getNeighbors", int.class, int.class);
-            getNeighborsMethod.setAccessible(true);
-            java.util.List<?> neighbors = (java.util.List<?>) getNeighborsMethod.invoke(board, firstRow, firstCol);
-            for (Object neighbor : neighbors) {
-                if (neighbor instanceof com.minesweep.core.model.Cell) {
-                    com.minesweep.core.model.Cell cell = (com.minesweep.core.model.Cell) neighbor;
-                    if (cell.isMine()) {
-                        throw new IllegalStateException("First click neighbor cannot be a mine");
-                    }
-                }
-            }
-        } catch (Exception e) {
-            throw new IllegalStateException("Error verifying first click protection", e);
+        // 检查周围8个邻居不是雷，安全区外放不下所有雷时不检查
+        int zoneRows = Math.min(board.getRows() - 1, firstRow + 1) - Math.max(0, firstRow - 1) + 1;
+        int zoneCols = Math.min(board.getCols() - 1, firstCol + 1) - Math.max(0, firstCol - 1) + 1;
+        long outside = (long) board.getRows() * board.getCols() - zoneRows * zoneCols;
+        if (board.getTotalMines() <= outside && board.countAdjacentMines(firstRow, firstCol) != 0) {
+            throw new IllegalStateException("First click neighbor cannot be a mine");
         }
     }
 
@@ -184,16 +526,69 @@ public class GameEngine {
      * @throws IndexOutOfBoundsException 如果坐标超出棋盘范围
      */
     public boolean reveal(int row, int col) {
+        UndoHistory.Move move = beginMove();
+        boolean revealed = revealSquare(row, col);
+        if (revealed) {
+            updateWon();
+        }
+        completeMove(move);
+        if (journal != null) {
+            journal.record(OP_REVEAL, row, col);
+        }
+        return revealed;
+    }
+
+    /**
+     * 揭示格子，并把可见状态发生变化的格子和操作后的游戏状态写入 changes。
+     * <p>
+     * 语义与 {@link #reveal(int, int)} 相同。客户端可以只重绘 changes 中的格子，
+     * 而不必重绘整个棋盘。操作期间引擎会占用棋盘的 {@link Board#setChangeListener 变化回调}。
+     *
+     * @param row 行坐标
+     * @param col 列坐标
+     * @param changes 接收变化的缓冲区，调用前会被清空
+     * @return 是否成功揭示（如果格子已经揭示或标记，则返回 false）
+     * @throws NullPointerException 如果 changes 为 null
+     * @throws IllegalStateException 如果游戏状态不是 PLAYING
+     * @throws IndexOutOfBoundsException 如果坐标超出棋盘范围
+     */
+    public boolean reveal(int row, int col, ChangeSet changes) {
+        startRecording(changes);
+        try {
+            return reveal(row, col);
+        } finally {
+            finishRecording(changes);
+        }
+    }
+
+    private void startRecording(ChangeSet changes) {
+        if (changes == null) {
+            throw new NullPointerException("ChangeSet cannot be null");
+        }
+        changes.clear();
+        this.changes = changes;
+        board.setChangeListener(changeListener);
+    }
+
+    private void finishRecording(ChangeSet changes) {
+        this.changes = null;
+        if (history == null) {
+            board.setChangeListener(null);
+        }
+        changes.setState(state);
+    }
+
+    /**
+     * 揭示格子，不计步数，也不检查胜利。
+     */
+    private boolean revealSquare(int row, int col) {
         // 如果是首次点击，先开始游戏
         if (firstClickPending) {
             startGame(row, col);
         }
         
-        // 边界检查
-        Cell cell = board.getCell(row, col);
-        
-        // 如果单元格已经揭示或标记，直接返回 false
-        if (cell.isRevealed() || cell.isFlagged()) {
+        // 如果单元格已经揭示或标记，直接返回 false（同时完成边界检查）
+        if (board.isRevealed(row, col) || board.isFlagged(row, col)) {
             return false;
         }
         
@@ -202,97 +597,58 @@ public class GameEngine {
             throw new IllegalStateException("Game is not in PLAYING state");
         }
         
+        openSquare(row, col);
+        return true;
+    }
+
+    /**
+     * 揭示一个未揭示、未插旗的格子，调用者已经检查过游戏状态和格子状态。
+     * <p>
+     * 踩雷时游戏结束；不检查胜利，由调用者在整步操作完成后调用 {@link #updateWon()} 检查一次。
+     */
+    private void openSquare(int row, int col) {
         // 检查是否是雷
-        if (cell.isMine()) {
+        if (board.isMine(row, col)) {
             // 揭示雷，游戏结束，玩家输
-            cell.reveal();
+            board.revealCell(row, col);
             board.incrementRevealedCount();
             state = GameState.LOST;
             // 记录结束时间
             endTime = System.currentTimeMillis();
-            return true;
+            return;
         }
         
         // 如果是空白格子（周围无雷），则进行洪水填充
-        if (cell.getNeighborMineCount() == 0) {
+        if (board.getNeighborMineCount(row, col) == 0) {
             floodFill(row, col);
         } else {
             // 如果是数字格子，直接揭示
-            cell.reveal();
+            board.revealCell(row, col);
             board.incrementRevealedCount();
         }
-        
-        // 检查是否胜利
-        if (checkWin()) {
-            state = GameState.WON;
-            // 记录结束时间
-            endTime = System.currentTimeMillis();
-            return true;
-        }
-        
-        return true;
     }
 
     /**
      * 洪水填充算法，用于自动揭示空白格子及其周围的格子。
      * <p>
-     * 使用 BFS 算法，确保每个格子最多处理一次。
+     * 委托给 {@link Board#floodReveal(int, int)}，确保每个格子最多处理一次。
      *
      * @param row 起始行坐标
      * @param col 起始列坐标
      */
     private void floodFill(int row, int col) {
-        // 使用 ArrayDeque 作为队列，实现 BFS
-        ArrayDeque<Position> queue = new ArrayDeque<>();
-        queue.offer(Position.of(row, col));
-        
-        while (!queue.isEmpty()) {
-            Position pos = queue.poll();
-            int currentRow = pos.getRow();
-            int currentCol = pos.getCol();
-            
-            // 获取当前位置的单元格
-            Cell currentCell = board.getCell(currentRow, currentCol);
-            
-            // 如果单元格已经揭示或标记，跳过
-            if (currentCell.isRevealed() || currentCell.isFlagged()) {
-                continue;
-            }
-            
-            // 揭示单元格
-            currentCell.reveal();
-            board.incrementRevealedCount();
-            
-            // 如果当前单元格是空白格子（周围无雷），则将其邻居加入队列
-            if (currentCell.getNeighborMineCount() == 0) {
-                // 遍历所有 8 个方向的邻居
-                int[] dr = {-1, -1, -1, 0, 0, 1, 1, 1};
-                int[] dc = {-1, 0, 1, -1, 1, -1, 0, 1};
-                
-                for (int i = 0; i < 8; i++) {
-                    int neighborRow = currentRow + dr[i];
-                    int neighborCol = currentCol + dc[i];
-                    
-                    // 检查邻居位置是否有效
-                    if (neighborRow >= 0 && neighborRow < board.getRows() && 
-                        neighborCol >= 0 && neighborCol < board.getCols()) {
-                        
-                        Cell neighborCell = board.getCell(neighborRow, neighborCol);
-                        
-                        // 如果邻居未揭示且未标记，则加入队列
-                        if (!neighborCell.isRevealed() && !neighborCell.isFlagged()) {
-                            queue.offer(Position.of(neighborRow, neighborCol));
-                        }
-                    }
-                }
-            }
-        }
-        
-        // 洪水填充完成后检查是否胜利
-        if (checkWin()) {
+        // 由棋盘按自身布局展开，计数器已在其中更新
+        board.floodReveal(row, col);
+    }
+
+    /**
+     * 揭示了格子的一步操作完成后调用：游戏仍在进行且所有非雷格子都已揭示时判定胜利。
+     */
+    private void updateWon() {
+        if (state == GameState.PLAYING && checkWin()) {
             state = GameState.WON;
             // 记录结束时间
-            startTime = System.currentTimeMillis() - startTime;
+            endTime = System.currentTimeMillis();
         }
     }
 
@@ -304,8 +660,8 @@ public class GameEngine {
      * @return 如果游戏胜利，返回 true；否则返回 false
      */
     private boolean checkWin() {
-        int totalCells = board.getRows() * board.getCols();
-        int nonMineCells = totalCells - board.getTotalMines();
+        long totalCells = (long) board.getRows() * board.getCols();
+        long nonMineCells = totalCells - board.getTotalMines();
         return board.getRevealedCount() == nonMineCells;
     }
 
@@ -318,39 +674,72 @@ public class GameEngine {
      * @throws IndexOutOfBoundsException 如果坐标超出棋盘范围
      */
     public void cycleMark(int row, int col) {
+        UndoHistory.Move move = beginMove();
+        
         // 检查游戏状态
         if (state != GameState.PLAYING) {
             throw new IllegalStateException("Game is not in PLAYING state");
         }
         
-        // 边界检查
-        Cell cell = board.getCell(row, col);
-        
-        // 禁止标记已揭示格子
-        if (cell.isRevealed()) {
+        // 禁止标记已揭示格子（同时完成边界检查）
+        if (board.isRevealed(row, col)) {
             throw new IllegalStateException("Cannot cycle mark on revealed cell");
         }
         
+        markSquare(row, col);
+        completeMove(move);
+        if (journal != null) {
+            journal.record(OP_CYCLE_MARK, row, col);
+        }
+    }
+
+    /**
+     * 循环切换一个未揭示格子的标记并更新标记计数，调用者已经检查过游戏状态和格子状态。
+     */
+    private void markSquare(int row, int col) {
         // 记录之前的标记状态
-        boolean wasFlagged = cell.isFlagged();
+        boolean wasFlagged = board.isFlagged(row, col);
         
         // 循环切换标记状态
-        cell.cycleMark(questionMarkEnabled);
+        board.cycleMark(row, col, questionMarkEnabled);
+        boolean isFlagged = board.isFlagged(row, col);
         
         // 根据结果更新标记计数
-        if (!wasFlagged && cell.isFlagged()) {
+        if (!wasFlagged && isFlagged) {
             // 新增标记
             board.incrementFlaggedCount();
             flaggedMinesCount++;
-        } else if (wasFlagged && !cell.isFlagged()) {
+        } else if (wasFlagged && !isFlagged) {
             // 取消标记
             board.decrementFlaggedCount();
             flaggedMinesCount--;
         }
     }
 
+    /**
+     * 循环切换格子的标记状态，并把发生变化的格子和操作后的游戏状态写入 changes。
+     *
+     * @param row 行坐标
+     * @param col 列坐标
+     * @param changes 接收变化的缓冲区，调用前会被清空
+     * @throws NullPointerException 如果 changes 为 null
+     * @throws IllegalStateException 如果游戏状态不是 PLAYING，或者格子已经揭示
+     * @throws IndexOutOfBoundsException 如果坐标超出棋盘范围
+     */
+    public void cycleMark(int row, int col, ChangeSet changes) {
+        startRecording(changes);
+        try {
+            cycleMark(row, col);
+        } finally {
+            finishRecording(changes);
+        }
+    }
+
     /**
      * 获取游戏结果。
+     * <p>
+     * 结果带有雷的布局哈希，计算时要扫描整个棋盘；地图由 {@link SeededMapGenerator} 生成时还带有种子、
+     * 棋盘尺寸、雷数和首次点击位置，足以重新生成同一局。
      *
      * @return 游戏结果
      * @throws IllegalStateException 如果游戏状态不是 WON 或 LOST
@@ -365,11 +754,13 @@ public class GameEngine {
         int remainingMines = board.getTotalMines() - board.getFlaggedCount();
         
         // 根据游戏状态创建结果
-        if (state == GameState.WON) {
-            return GameResult.victory(startTime, remainingMines, board.getRevealedCount());
-        } else {
-            return GameResult.defeat(startTime, remainingMines, board.getRevealedCount());
+        boolean won = state == GameState.WON;
+        long boardHash = board.mineLayoutHash();
+        if (seeded) {
+            return new GameResult(won, startTime, remainingMines, board.getRevealedCount(), board.getRows(),
+                    board.getCols(), board.getTotalMines(), firstRow, firstCol, seed, boardHash);
         }
+        return new GameResult(won, startTime, remainingMines, board.getRevealedCount(), boardHash);
     }
 
     /**
@@ -382,6 +773,134 @@ public class GameEngine {
      * @throws IndexOutOfBoundsException 如果坐标超出棋盘范围
      */
     public boolean chord(int row, int col) {
+        UndoHistory.Move move = beginMove();
+        boolean revealed = chordSquare(row, col);
+        if (revealed) {
+            updateWon();
+        }
+        completeMove(move);
+        if (journal != null) {
+            journal.record(OP_CHORD, row, col);
+        }
+        return revealed;
+    }
+
+    /**
+     * Chord 操作，并把可见状态发生变化的格子和操作后的游戏状态写入 changes。
+     *
+     * @param row 行坐标
+     * @param col 列坐标
+     * @param changes 接收变化的缓冲区，调用前会被清空
+     * @return 是否触发了揭示操作
+     * @throws NullPointerException 如果 changes 为 null
+     * @throws IllegalStateException 如果游戏状态不是 PLAYING，或者目标格未揭示、是雷、数字为 0
+     * @throws IndexOutOfBoundsException 如果坐标超出棋盘范围
+     */
+    public boolean chord(int row, int col, ChangeSet changes) {
+        startRecording(changes);
+        try {
+            return chord(row, col);
+        } finally {
+            finishRecording(changes);
+        }
+    }
+
+    /**
+     * 依次执行一批命令，游戏结束时停止。
+     * <p>
+     * commands 中每三个 int 为一条命令：操作码（{@link #OP_REVEAL}、{@link #OP_CYCLE_MARK}、
+     * {@link #OP_CHORD}）、行坐标、列坐标。每条命令的结果写入 outcomes 的对应位置，取值为
+     * {@link #OUTCOME_CHANGED}、{@link #OUTCOME_UNCHANGED} 或 {@link #OUTCOME_REJECTED}。
+     * 单条命令不合法时不会抛出异常，而是记为 OUTCOME_REJECTED 并继续执行下一条，不计步数。
+     * 执行过的每条合法命令与单独调用对应方法的效果相同，各计为一步，可以单独撤销，也各自写入操作日志。
+     * <p>
+     * 每条命令的合法性只检查一次，之后直接执行，不再经过公开方法重复的状态检查；胜利只在改变了棋盘的命令之后检查一次。
+     * 启用快照时只在整批执行完后发布一次快照。
+     *
+     * @param commands 按 (操作码, 行, 列) 排列的命令
+     * @param outcomes 接收每条命令结果的缓冲区，长度不少于命令数
+     * @return 实际执行的命令数；游戏结束后的命令不执行，结果位置保持不变
+     * @throws NullPointerException 如果 commands 或 outcomes 为 null
+     * @throws IllegalArgumentException 如果 commands 的长度不是 3 的倍数、outcomes 太短或包含未知的操作码
+     */
+    public int executeBatch(int[] commands, byte[] outcomes) {
+        if (commands == null) {
+            throw new NullPointerException("Commands cannot be null");
+        }
+        if (outcomes == null) {
+            throw new NullPointerException("Outcomes cannot be null");
+        }
+        if (commands.length % 3 != 0) {
+            throw new IllegalArgumentException("Commands length must be a multiple of 3: " + commands.length);
+        }
+        int count = commands.length / 3;
+        if (outcomes.length < count) {
+            throw new IllegalArgumentException("Outcomes buffer is too small: " + outcomes.length + " < " + count);
+        }
+        // 先校验所有操作码，保证不会执行到一半才失败
+        for (int i = 0; i < commands.length; i += 3) {
+            if (commands[i] < OP_REVEAL || commands[i] > OP_CHORD) {
+                throw new IllegalArgumentException("Unknown opcode: " + commands[i]);
+            }
+        }
+
+        int executed = 0;
+        long movesBefore = moveCount;
+        while (executed < count && !state.isFinished()) {
+            int offset = executed * 3;
+            outcomes[executed++] = execute(commands[offset], commands[offset + 1], commands[offset + 2]);
+        }
+        if (moveCount != movesBefore) {
+            publishSnapshot();
+        }
+        return executed;
+    }
+
+    /**
+     * 执行一条批量命令；单独调用时会抛出异常的情况事先检查并返回 OUTCOME_REJECTED，
+     * 检查通过后直接调用内部的揭示、标记和 Chord 路径。
+     */
+    private byte execute(int opcode, int row, int col) {
+        if (row < 0 || row >= board.getRows() || col < 0 || col >= board.getCols()) {
+            return OUTCOME_REJECTED;
+        }
+        if (opcode == OP_REVEAL) {
+            if (!firstClickPending && state != GameState.PLAYING) {
+                return OUTCOME_REJECTED;
+            }
+        } else if (state != GameState.PLAYING || (opcode == OP_CHORD) != board.isRevealed(row, col)
+                || (opcode == OP_CHORD && board.isMine(row, col))) {
+            // 标记和 Chord 都要求已经开局
+            return OUTCOME_REJECTED;
+        }
+
+        UndoHistory.Move move = beginMove();
+        boolean changed;
+        if (opcode == OP_REVEAL) {
+            if (firstClickPending) {
+                startGame(row, col);
+            }
+            changed = !board.isRevealed(row, col) && !board.isFlagged(row, col);
+            if (changed) {
+                openSquare(row, col);
+            }
+        } else if (opcode == OP_CYCLE_MARK) {
+            markSquare(row, col);
+            changed = true;
+        } else {
+            changed = chordNeighbors(row, col);
+        }
+        if (changed && opcode != OP_CYCLE_MARK) {
+            updateWon();
+        }
+        recordMove(move);
+        if (journal != null) {
+            journal.record(opcode, row, col);
+        }
+        return changed ? OUTCOME_CHANGED : OUTCOME_UNCHANGED;
+    }
+
+    private boolean chordSquare(int row, int col) {
         // 如果是首次点击，先开始游戏
         if (firstClickPending) {
             startGame(row, col);
@@ -392,71 +911,44 @@ public class GameEngine {
             throw new IllegalStateException("Game is not in PLAYING state");
         }
         
-        // 边界检查
-        Cell targetCell = board.getCell(row, col);
-        
-        // 验证目标格状态：已揭示、非雷
-        if (!targetCell.isRevealed()) {
+        // 验证目标格状态：已揭示、非雷（同时完成边界检查）
+        if (!board.isRevealed(row, col)) {
             throw new IllegalStateException("Target cell must be revealed");
         }
-        if (targetCell.isMine()) {
+        if (board.isMine(row, col)) {
             throw new IllegalStateException("Target cell cannot be a mine");
         }
         
-        // 计算周围标记数
-        int flagCount = 0;
-        // 遍历所有 8 个方向的邻居
-        int[] dr = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dc = {-1, 0, 1, -1, 1, -1, 0, 1};
-        
-        // 第一次遍历：计算周围标记数
-        for (int i = 0; i < 8; i++) {
-            int neighborRow = row + dr[i];
-            int neighborCol = col + dc[i];
-            
-            // 检查邻居位置是否有效
-            if (neighborRow >= 0 && neighborRow < board.getRows() && 
-                neighborCol >= 0 && neighborCol < board.getCols()) {
-                
-                Cell neighborCell = board.getCell(neighborRow, neighborCol);
-                if (neighborCell.isFlagged()) {
-                    flagCount++;
-                }
-            }
-        }
-        
+        return chordNeighbors(row, col);
+    }
+
+    /**
+     * 揭示已揭示数字格周围未标记未揭示的邻居，调用者已经检查过游戏状态和目标格；不检查胜利。
+     */
+    private boolean chordNeighbors(int row, int col) {
         // 如果周围标记数不等于目标格的数字，则不执行任何操作
-        if (flagCount != targetCell.getNeighborMineCount()) {
+        if (board.countFlaggedNeighbors(row, col) != board.getNeighborMineCount(row, col)) {
             return false;
         }
         
-        // 第二次遍历：批量揭示未标记未揭示的邻居
+        // 批量揭示未标记未揭示的邻居，按行优先顺序访问，与 Board.forEachNeighbor 一致
         boolean hasRevealed = false;
-        for (int i = 0; i < 8; i++) {
-            int neighborRow = row + dr[i];
-            int neighborCol = col + dc[i];
-            
-            // 检查邻居位置是否有效
-            if (neighborRow >= 0 && neighborRow < board.getRows() && 
-                neighborCol >= 0 && neighborCol < board.getCols()) {
-                
-                Cell neighborCell = board.getCell(neighborRow, neighborCol);
-                
-                // 如果邻居未揭示且未标记，则揭示
-                if (!neighborCell.isRevealed() && !neighborCell.isFlagged()) {
-                    // 调用 reveal 方法进行揭示
-                    if (reveal(neighborRow, neighborCol)) {
-                        hasRevealed = true;
-                    }
-                    
-                    // 如果揭示后游戏状态变为 LOST（踩雷），则立即返回
-                    if (state == GameState.LOST) {
-                        return true;
-                    }
+        int bottom = Math.min(board.getRows() - 1, row + 1);
+        int right = Math.min(board.getCols() - 1, col + 1);
+        for (int neighborRow = Math.max(0, row - 1); neighborRow <= bottom; neighborRow++) {
+            for (int neighborCol = Math.max(0, col - 1); neighborCol <= right; neighborCol++) {
+                // 踩雷后不再揭示剩余的邻居
+                if (state == GameState.LOST) {
+                    return hasRevealed;
+                }
+                if ((neighborRow != row || neighborCol != col)
+                        && !board.isRevealed(neighborRow, neighborCol) && !board.isFlagged(neighborRow, neighborCol)) {
+                    openSquare(neighborRow, neighborCol);
+                    hasRevealed = true;
                 }
             }
         }
-        
+
         return hasRevealed;
     }
 }
\ No newline at end of file
@@ -0,0 +1,359 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.core.model.Board;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * GameJournal 按顺序记录一局游戏的所有操作，可以据此精确重放整局游戏。
+ * <p>
+ * 日志只保存棋盘参数、地图的种子和操作序列（包括撤销和重做），不保存任何棋盘状态。
+ * 地图生成器是 {@link SeededMapGenerator} 时，种子取开局时引擎实际使用的种子，重放时用它重新生成同一张地图；
+ * 否则种子由调用者在 {@link GameEngine#enableJournal(long)} 时提供。
+ * 每条操作编码为三个变长整数：行坐标相对上一条操作的差值与操作码合并为一个，列坐标差值一个，
+ * 距上一条操作的毫秒数一个，相邻操作通常只占 3 到 4 个字节。操作时间不影响重放，
+ * 可以用 {@link #readCommandTimes(byte[])} 读出供分析。日志由 {@link GameEngine#enableJournal(long)}
+ * 创建，只能在执行游戏操作的线程中使用。
+ * <p>
+ * 编码格式：魔数 "MJ"、格式版本、行数、列数、雷数（变长整数）、存储方式、CHUNKED 棋盘的每区块雷数
+ * （变长整数，仅 CHUNKED 模式）、标志位（bit0 为启用问号，bit1 为种子来自带种子的生成器）、8 字节种子，
+ * 之后是操作序列直到末尾。
+ */
+public final class GameJournal {
+    private static final byte MAGIC_0 = 'M';
+    private static final byte MAGIC_1 = 'J';
+    private static final byte VERSION = 1;
+    private static final int OPCODE_BITS = 3;
+    // 不带坐标的操作，紧接在 GameEngine 的操作码之后
+    private static final int UNDO = 3;
+    private static final int REDO = 4;
+    private static final int ENABLE_UNDO = 5;
+    private static final int FLAG_QUESTION_MARK = 1;
+    private static final int FLAG_ENGINE_SEED = 2;
+
+    private long seed;
+    // 标志位和种子在头部中的位置，开局时写入引擎使用的种子
+    private final int flagsOffset;
+    private final int seedOffset;
+    private byte[] data;
+    private int size;
+    private int commandCount;
+    private int lastRow;
+    private int lastCol;
+    private long lastTime;
+
+    GameJournal(Board board, boolean questionMarkEnabled, long seed) {
+        this.seed = seed;
+        this.data = new byte[64];
+        this.lastTime = System.currentTimeMillis();
+        writeByte(MAGIC_0);
+        writeByte(MAGIC_1);
+        writeByte(VERSION);
+        writeVarint(board.getRows());
+        writeVarint(board.getCols());
+        writeVarint(board.getTotalMines());
+        writeByte(board.getStorageMode().ordinal());
+        if (board.getStorageMode() == Board.StorageMode.CHUNKED) {
+            writeVarint(board.getMinesPerChunk());
+        }
+        flagsOffset = size;
+        writeByte(questionMarkEnabled ? FLAG_QUESTION_MARK : 0);
+        seedOffset = size;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (seed >>> shift));
+        }
+    }
+
+    /**
+     * 获取地图的种子。生成器带种子时，开局之后返回引擎实际使用的种子。
+     *
+     * @return 种子
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 获取已记录的操作数。
+     *
+     * @return 已记录的操作数
+     */
+    public int getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * 获取日志编码后的字节数。
+     *
+     * @return 字节数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 返回日志编码后的副本，可以交给 {@link #replay(byte[], LongFunction)} 重放。
+     *
+     * @return 编码后的日志
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    /**
+     * 用引擎开局时从 {@link SeededMapGenerator} 取得的种子替换头部中的种子。
+     */
+    void recordSeed(long seed) {
+        this.seed = seed;
+        data[flagsOffset] |= FLAG_ENGINE_SEED;
+        for (int i = 0; i < 8; i++) {
+            data[seedOffset + i] = (byte) (seed >>> (56 - i * 8));
+        }
+    }
+
+    void recordUndo() {
+        record(UNDO, lastRow, lastCol);
+    }
+
+    void recordRedo() {
+        record(REDO, lastRow, lastCol);
+    }
+
+    void recordEnableUndo() {
+        record(ENABLE_UNDO, lastRow, lastCol);
+    }
+
+    void record(int opcode, int row, int col) {
+        long now = System.currentTimeMillis();
+        writeVarint(zigzag(row - lastRow) << OPCODE_BITS | opcode);
+        writeVarint(zigzag(col - lastCol));
+        writeVarint(Math.max(0, now - lastTime));
+        lastRow = row;
+        lastCol = col;
+        lastTime = now;
+        commandCount++;
+    }
+
+    /**
+     * 按日志重建棋盘并依次重放所有操作，返回重放后的游戏引擎。
+     * <p>
+     * 重放时用 generatorFactory 根据日志中的种子创建地图生成器，该生成器必须与记录时使用的生成器
+     * 对相同种子产生相同的地图。如果记录时使用的是 {@link SeededMapGenerator}，创建的生成器也必须是，
+     * 重放直接用日志中的种子生成地图。MAPPED 和 COPY_ON_WRITE 棋盘重放到 PACKED 棋盘上，格子语义相同。
+     * 重放得到的引擎的步数、棋盘状态和游戏状态与记录时一致，但开始和结束时间取重放时的时间。
+     *
+     * @param journal 编码后的日志
+     * @param generatorFactory 根据种子创建地图生成器
+     * @return 重放后的游戏引擎
+     * @throws NullPointerException 如果 journal 或 generatorFactory 为 null
+     * @throws IllegalArgumentException 如果日志格式不正确，或者日志需要带种子的生成器而创建的生成器不是
+     */
+    public static GameEngine replay(byte[] journal, LongFunction<MapGenerator> generatorFactory) {
+        if (journal == null) {
+            throw new NullPointerException("Journal cannot be null");
+        }
+        if (generatorFactory == null) {
+            throw new NullPointerException("Generator factory cannot be null");
+        }
+        Reader reader = new Reader(journal);
+        Header header = Header.read(reader);
+
+        Board board = header.createBoard();
+        MapGenerator generator = generatorFactory.apply(header.seed);
+        GameEngine engine = new GameEngine(board, generator, header.questionMarkEnabled);
+        if (header.engineSeed) {
+            if (!(generator instanceof SeededMapGenerator)) {
+                throw new IllegalArgumentException("Journal was recorded with a SeededMapGenerator");
+            }
+            engine.useSeed(header.seed);
+        }
+        int row = 0;
+        int col = 0;
+        while (reader.hasRemaining()) {
+            long head = reader.readVarint();
+            int opcode = (int) (head & ((1 << OPCODE_BITS) - 1));
+            row += unzigzag(head >>> OPCODE_BITS);
+            col += unzigzag(reader.readVarint());
+            // 操作时间不影响重放，由 readCommandTimes 读出
+            reader.readVarint();
+            switch (opcode) {
+                case GameEngine.OP_REVEAL:
+                    engine.reveal(row, col);
+                    break;
+                case GameEngine.OP_CYCLE_MARK:
+                    engine.cycleMark(row, col);
+                    break;
+                case GameEngine.OP_CHORD:
+                    engine.chord(row, col);
+                    break;
+                case UNDO:
+                    engine.undo();
+                    break;
+                case REDO:
+                    engine.redo();
+                    break;
+                case ENABLE_UNDO:
+                    engine.enableUndo();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown opcode: " + opcode);
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * 读出日志中每条操作的记录时间，即距日志创建时的毫秒数，按操作顺序排列。
+     *
+     * @param journal 编码后的日志
+     * @return 每条操作的记录时间
+     * @throws NullPointerException 如果 journal 为 null
+     * @throws IllegalArgumentException 如果日志格式不正确
+     */
+    public static long[] readCommandTimes(byte[] journal) {
+        if (journal == null) {
+            throw new NullPointerException("Journal cannot be null");
+        }
+        Reader reader = new Reader(journal);
+        Header.read(reader);
+        long[] times = new long[16];
+        int count = 0;
+        long time = 0;
+        while (reader.hasRemaining()) {
+            reader.readVarint();
+            reader.readVarint();
+            time += reader.readVarint();
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+            }
+            times[count++] = time;
+        }
+        return Arrays.copyOf(times, count);
+    }
+
+    private static long zigzag(int value) {
+        return ((long) value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    private void writeByte(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, size * 2);
+        }
+        data[size++] = (byte) value;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    /**
+     * 日志头部中的棋盘参数和种子。
+     */
+    private static final class Header {
+        private int rows;
+        private int cols;
+        private int totalMines;
+        private Board.StorageMode mode;
+        private int minesPerChunk;
+        private boolean questionMarkEnabled;
+        private boolean engineSeed;
+        private long seed;
+
+        static Header read(Reader reader) {
+            if (reader.readByte() != MAGIC_0 || reader.readByte() != MAGIC_1) {
+                throw new IllegalArgumentException("Not a game journal");
+            }
+            int version = reader.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported journal version: " + version);
+            }
+            Header header = new Header();
+            header.rows = reader.readInt();
+            header.cols = reader.readInt();
+            header.totalMines = reader.readInt();
+            int mode = reader.readByte();
+            if (mode >= Board.StorageMode.values().length) {
+                throw new IllegalArgumentException("Unknown storage mode: " + mode);
+            }
+            header.mode = Board.StorageMode.values()[mode];
+            if (header.mode == Board.StorageMode.CHUNKED) {
+                header.minesPerChunk = reader.readInt();
+            }
+            int flags = reader.readByte();
+            header.questionMarkEnabled = (flags & FLAG_QUESTION_MARK) != 0;
+            header.engineSeed = (flags & FLAG_ENGINE_SEED) != 0;
+            for (int i = 0; i < 8; i++) {
+                header.seed = header.seed << 8 | reader.readByte();
+            }
+            return header;
+        }
+
+        Board createBoard() {
+            try {
+                switch (mode) {
+                    case MAPPED:
+                    case COPY_ON_WRITE:
+                        return new Board(rows, cols, totalMines, Board.StorageMode.PACKED);
+                    case CHUNKED:
+                        return Board.chunked(rows, cols, minesPerChunk);
+                    default:
+                        return new Board(rows, cols, totalMines, mode);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid board parameters in journal", e);
+            }
+        }
+    }
+
+    /**
+     * 顺序读取编码后的日志，越界或变长整数过长时抛出 IllegalArgumentException。
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        boolean hasRemaining() {
+            return position < data.length;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated journal");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in journal");
+        }
+
+        int readInt() {
+            long value = readVarint();
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range in journal: " + value);
+            }
+            return (int) value;
+        }
+    }
+}
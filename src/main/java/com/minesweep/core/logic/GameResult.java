@@ -2,12 +2,24 @@ package com.minesweep.core.logic;
 
 /**
  * GameResult 类表示扫雷游戏的结果，是一个不可变的值对象。
+ * <p>
+ * 由 {@link SeededMapGenerator} 生成的游戏还带有地图种子、棋盘尺寸、雷数和首次点击位置，
+ * 仅凭结果就能用 {@link SeededMapGenerator#generate(com.minesweep.core.model.Board, int, int, long)}
+ * 重新生成同一局，再用布局哈希（{@link com.minesweep.core.model.Board#mineLayoutHash()}）校验。
  */
 public class GameResult {
     private final boolean isWin;
     private final long durationMillis;
     private final int remainingMines;
     private final int totalRevealed;
+    private final boolean seeded;
+    private final long seed;
+    private final int rows;
+    private final int cols;
+    private final int totalMines;
+    private final int firstRow;
+    private final int firstCol;
+    private final long boardHash;
 
     /**
      * 创建一个新的 GameResult 实例。
@@ -18,10 +30,57 @@ public class GameResult {
      * @param totalRevealed 揭示的格子数
      */
     public GameResult(boolean isWin, long durationMillis, int remainingMines, int totalRevealed) {
+        this(isWin, durationMillis, remainingMines, totalRevealed, false, 0, 0, 0, 0, 0, 0L, 0L);
+    }
+
+    /**
+     * 创建一个不带种子、带布局哈希的 GameResult 实例。
+     *
+     * @param isWin 是否胜利
+     * @param durationMillis 游戏耗时毫秒
+     * @param remainingMines 剩余雷数
+     * @param totalRevealed 揭示的格子数
+     * @param boardHash 雷的布局哈希
+     */
+    public GameResult(boolean isWin, long durationMillis, int remainingMines, int totalRevealed, long boardHash) {
+        this(isWin, durationMillis, remainingMines, totalRevealed, false, 0, 0, 0, 0, 0, 0L, boardHash);
+    }
+
+    /**
+     * 创建一个带种子和布局哈希的 GameResult 实例，同时记录重新生成地图所需的棋盘参数。
+     *
+     * @param isWin 是否胜利
+     * @param durationMillis 游戏耗时毫秒
+     * @param remainingMines 剩余雷数
+     * @param totalRevealed 揭示的格子数
+     * @param rows 棋盘行数
+     * @param cols 棋盘列数
+     * @param totalMines 总雷数
+     * @param firstRow 首次点击的行坐标
+     * @param firstCol 首次点击的列坐标
+     * @param seed 地图种子
+     * @param boardHash 雷的布局哈希
+     */
+    public GameResult(boolean isWin, long durationMillis, int remainingMines, int totalRevealed, int rows, int cols,
+                      int totalMines, int firstRow, int firstCol, long seed, long boardHash) {
+        this(isWin, durationMillis, remainingMines, totalRevealed, true, rows, cols, totalMines, firstRow, firstCol,
+                seed, boardHash);
+    }
+
+    private GameResult(boolean isWin, long durationMillis, int remainingMines, int totalRevealed, boolean seeded,
+                       int rows, int cols, int totalMines, int firstRow, int firstCol, long seed, long boardHash) {
         this.isWin = isWin;
         this.durationMillis = durationMillis;
         this.remainingMines = remainingMines;
         this.totalRevealed = totalRevealed;
+        this.seeded = seeded;
+        this.rows = rows;
+        this.cols = cols;
+        this.totalMines = totalMines;
+        this.firstRow = firstRow;
+        this.firstCol = firstCol;
+        this.seed = seed;
+        this.boardHash = boardHash;
     }
 
     /**
@@ -84,10 +143,101 @@ public class GameResult {
         return totalRevealed;
     }
 
+    /**
+     * 判断结果是否带有地图种子。
+     *
+     * @return 如果地图由 SeededMapGenerator 生成返回 true
+     */
+    public boolean hasSeed() {
+        return seeded;
+    }
+
+    /**
+     * 获取生成地图使用的种子。
+     *
+     * @return 地图种子
+     * @throws IllegalStateException 如果结果不带种子
+     */
+    public long getSeed() {
+        checkSeeded();
+        return seed;
+    }
+
+    /**
+     * 获取棋盘行数。
+     *
+     * @return 棋盘行数
+     * @throws IllegalStateException 如果结果不带种子
+     */
+    public int getRows() {
+        checkSeeded();
+        return rows;
+    }
+
+    /**
+     * 获取棋盘列数。
+     *
+     * @return 棋盘列数
+     * @throws IllegalStateException 如果结果不带种子
+     */
+    public int getCols() {
+        checkSeeded();
+        return cols;
+    }
+
+    /**
+     * 获取总雷数。
+     *
+     * @return 总雷数
+     * @throws IllegalStateException 如果结果不带种子
+     */
+    public int getTotalMines() {
+        checkSeeded();
+        return totalMines;
+    }
+
+    /**
+     * 获取首次点击的行坐标，生成地图时在它周围避开雷。
+     *
+     * @return 首次点击的行坐标
+     * @throws IllegalStateException 如果结果不带种子
+     */
+    public int getFirstRow() {
+        checkSeeded();
+        return firstRow;
+    }
+
+    /**
+     * 获取首次点击的列坐标。
+     *
+     * @return 首次点击的列坐标
+     * @throws IllegalStateException 如果结果不带种子
+     */
+    public int getFirstCol() {
+        checkSeeded();
+        return firstCol;
+    }
+
+    private void checkSeeded() {
+        if (!seeded) {
+            throw new IllegalStateException("Game was not generated from a seed");
+        }
+    }
+
+    /**
+     * 获取雷的布局哈希，见 {@link com.minesweep.core.model.Board#mineLayoutHash()}。
+     *
+     * @return 布局哈希；未记录时为 0
+     */
+    public long getBoardHash() {
+        return boardHash;
+    }
+
     @Override
     public String toString() {
         String result = isWin ? "WIN" : "LOSS";
         double durationSeconds = durationMillis / 1000.0;
-        return "GameResult[" + result + ", time=" + String.format("%.1f", durationSeconds) + "s, revealed=" + totalRevealed + "]";
+        String origin = seeded ? ", seed=" + Long.toHexString(seed) : "";
+        return "GameResult[" + result + ", time=" + String.format("%.1f", durationSeconds) + "s, revealed=" + totalRevealed + origin + "]";
     }
 }
\ No newline at end of file
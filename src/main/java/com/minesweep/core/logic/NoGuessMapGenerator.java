@@ -0,0 +1,269 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.core.model.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * NoGuessMapGenerator 只生成从首次点击开始不需要猜测就能解开的地图。
+ * <p>
+ * 候选布局由另一个 {@link SeededMapGenerator} 生成，第 i 个候选使用由种子和 i 派生的子种子。
+ * {@link #generateNext(Board, int, int)} 取得种子后，线程池中的每个线程各自取下一个候选编号，
+ * 用内置的推理求解器检查，最终采用通过检查的候选中编号最小的一个。
+ * <p>
+ * 时间预算用完仍没有候选通过时，采用第 0 个候选（需要猜测的普通地图）并计入超时次数。
+ * 搜索结果与时间有关，所以 generateNext 返回的是采用的候选自己的子种子，而不是搜索用的种子；
+ * {@link #generate(Board, int, int, long)} 把种子当作候选的子种子直接交给候选生成器，不再搜索，
+ * 因此 {@link GameResult} 或操作日志里记录的种子总能重新生成同一张地图。
+ * 生成器累计尝试、淘汰和超时次数，通过 {@link #getStatistics()} 读取。
+ * 求解器每一轮都扫描整个棋盘，适合高级（16x30）以内的棋盘。
+ */
+public class NoGuessMapGenerator implements SeededMapGenerator {
+    private final SeededMapGenerator candidates;
+    private final long timeBudgetNanos;
+    private final ForkJoinPool pool;
+    private final LongAdder boards = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * 创建一个在公共 ForkJoinPool 上并行尝试的生成器。
+     *
+     * @param candidates 候选布局的生成器
+     * @param timeBudgetMillis 每张地图的时间预算，毫秒
+     * @throws NullPointerException 如果 candidates 为 null
+     * @throws IllegalArgumentException 如果 timeBudgetMillis 小于等于 0
+     */
+    public NoGuessMapGenerator(SeededMapGenerator candidates, long timeBudgetMillis) {
+        this(candidates, timeBudgetMillis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 创建一个在指定线程池上并行尝试的生成器，并行的候选数等于线程池的并行度。
+     *
+     * @param candidates 候选布局的生成器
+     * @param timeBudgetMillis 每张地图的时间预算，毫秒
+     * @param pool 执行尝试的线程池
+     * @throws NullPointerException 如果 candidates 或 pool 为 null
+     * @throws IllegalArgumentException 如果 timeBudgetMillis 小于等于 0
+     */
+    public NoGuessMapGenerator(SeededMapGenerator candidates, long timeBudgetMillis, ForkJoinPool pool) {
+        if (candidates == null) {
+            throw new NullPointerException("Candidate generator cannot be null");
+        }
+        if (pool == null) {
+            throw new NullPointerException("Pool cannot be null");
+        }
+        if (timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive: " + timeBudgetMillis);
+        }
+        this.candidates = candidates;
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        this.pool = pool;
+    }
+
+    @Override
+    public long nextSeed() {
+        return candidates.nextSeed();
+    }
+
+    /**
+     * 按候选的子种子生成地图，不做搜索。
+     * <p>
+     * 种子应当是 {@link #generateNext(Board, int, int)} 返回的种子，此时生成的地图与当初搜索采用的候选相同。
+     */
+    @Override
+    public void generate(Board board, int firstRow, int firstCol, long seed) {
+        candidates.generate(board, firstRow, firstCol, seed);
+    }
+
+    /**
+     * 在时间预算内搜索不需要猜测的地图，返回采用的候选的子种子。
+     */
+    @Override
+    public long generateNext(Board board, int firstRow, int firstCol) {
+        long seed = nextSeed();
+        Search search = new Search(board.getRows(), board.getCols(), board.getTotalMines(), firstRow, firstCol, seed,
+                System.nanoTime() + timeBudgetNanos);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            tasks.add(pool.submit(search::run));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        boards.increment();
+        int[] layout = search.bestLayout();
+        if (layout != null) {
+            board.placeMines(layout);
+            return attemptSeed(seed, search.bestAttempt);
+        }
+        timeouts.increment();
+        long fallback = attemptSeed(seed, 0);
+        candidates.generate(board, firstRow, firstCol, fallback);
+        return fallback;
+    }
+
+    /**
+     * 获取到目前为止的累计统计。
+     *
+     * @return 统计快照
+     */
+    public Statistics getStatistics() {
+        return new Statistics(boards.sum(), attempts.sum(), rejections.sum(), timeouts.sum());
+    }
+
+    // SplitMix64 的混合函数，让相邻编号的子种子互不相关
+    private static long attemptSeed(long seed, int attempt) {
+        long z = seed + (attempt + 1L) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 一次生成的共享状态，各线程通过它领取候选编号和提交结果。
+     */
+    private final class Search {
+        private final int rows;
+        private final int cols;
+        private final int totalMines;
+        private final int firstRow;
+        private final int firstCol;
+        private final long seed;
+        private final long deadline;
+        private final AtomicInteger nextAttempt = new AtomicInteger();
+        // 通过检查的最小编号，写入由 this 加锁保护
+        private volatile int bestAttempt = Integer.MAX_VALUE;
+        private int[] bestLayout;
+
+        Search(int rows, int cols, int totalMines, int firstRow, int firstCol, long seed, long deadline) {
+            this.rows = rows;
+            this.cols = cols;
+            this.totalMines = totalMines;
+            this.firstRow = firstRow;
+            this.firstCol = firstCol;
+            this.seed = seed;
+            this.deadline = deadline;
+        }
+
+        void run() {
+            DeductionSolver solver = new DeductionSolver(rows, cols);
+            boolean[] mines = new boolean[rows * cols];
+            while (System.nanoTime() - deadline < 0) {
+                int attempt = nextAttempt.getAndIncrement();
+                // 更小的编号都已被领取，更大的编号不可能被采用
+                if (attempt < 0 || attempt > bestAttempt) {
+                    return;
+                }
+                Board candidate = new Board(rows, cols, totalMines, Board.StorageMode.PACKED);
+                candidates.generate(candidate, firstRow, firstCol, attemptSeed(seed, attempt));
+                int[] layout = new int[totalMines];
+                int placed = 0;
+                for (int row = 0; row < rows; row++) {
+                    for (int col = 0; col < cols; col++) {
+                        boolean mine = candidate.isMine(row, col);
+                        mines[row * cols + col] = mine;
+                        if (mine && placed < totalMines) {
+                            layout[placed++] = row * cols + col;
+                        }
+                    }
+                }
+
+                attempts.increment();
+                if (!mines[firstRow * cols + firstCol] && solver.solve(mines, totalMines, firstRow, firstCol)) {
+                    offer(attempt, layout);
+                } else {
+                    rejections.increment();
+                }
+            }
+        }
+
+        private synchronized void offer(int attempt, int[] layout) {
+            if (attempt < bestAttempt) {
+                bestAttempt = attempt;
+                bestLayout = layout;
+            }
+        }
+
+        synchronized int[] bestLayout() {
+            return bestLayout;
+        }
+    }
+
+    /**
+     * Statistics 是生成器累计统计的不可变快照。
+     */
+    public static final class Statistics {
+        private final long boards;
+        private final long attempts;
+        private final long rejections;
+        private final long timeouts;
+
+        Statistics(long boards, long attempts, long rejections, long timeouts) {
+            this.boards = boards;
+            this.attempts = attempts;
+            this.rejections = rejections;
+            this.timeouts = timeouts;
+        }
+
+        /**
+         * 获取生成的地图数，包括超时后退回普通地图的次数。
+         *
+         * @return 地图数
+         */
+        public long getBoards() {
+            return boards;
+        }
+
+        /**
+         * 获取检查过的候选布局数。
+         *
+         * @return 候选数
+         */
+        public long getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * 获取因需要猜测而被淘汰的候选数。
+         *
+         * @return 淘汰数
+         */
+        public long getRejections() {
+            return rejections;
+        }
+
+        /**
+         * 获取时间预算用完仍没有候选通过的次数。
+         *
+         * @return 超时次数
+         */
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        /**
+         * 获取被淘汰的候选所占比例。
+         *
+         * @return 淘汰率；尚未检查过候选时为 0
+         */
+        public double getRejectionRate() {
+            return attempts == 0 ? 0.0 : (double) rejections / attempts;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics[boards=" + boards + ", attempts=" + attempts + ", rejections=" + rejections
+                    + ", timeouts=" + timeouts + "]";
+        }
+    }
+}
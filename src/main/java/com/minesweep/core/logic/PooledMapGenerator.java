@@ -0,0 +1,328 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.core.model.Board;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PooledMapGenerator 在后台为每种难度预先生成布局，首次点击时只需把安全区里的雷移走。
+ * <p>
+ * 池中的布局是不考虑首次点击的均匀随机布局。生成地图时取出一个布局，把首次点击周围 3x3 范围内的雷
+ * 逐个移到安全区外均匀随机选出的空格上。原布局在所有格子上均匀，移动后的布局在安全区外的格子上
+ * 仍然均匀，分布与 {@link SeededMapGenerator} 直接生成的地图相同。首次点击的代价只有移动和放置雷，
+ * 与 O(雷数) 成正比；安全区外的空格不到一半时改为扫描棋盘选取目标格。
+ * <p>
+ * 每个布局由一个种子决定，移动使用的随机数也由同一个种子派生，因此
+ * {@link #generate(Board, int, int, long)} 总能重新生成池中取出的同一张地图。
+ * 池中的布局被取出后，在给定的 Executor 上补充到容量；某种难度第一次被请求时同步生成，
+ * 之后才开始在后台预热，可以用 {@link #prepare(int, int, int)} 提前预热。
+ */
+public class PooledMapGenerator implements SeededMapGenerator {
+    private final SplittableRandom seeds;
+    private final int capacity;
+    private final Executor executor;
+    private final ConcurrentHashMap<Difficulty, Pool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * 创建一个根种子随机、在公共 ForkJoinPool 上补充布局的生成器。
+     *
+     * @param capacity 每种难度预先生成的布局数
+     * @throws IllegalArgumentException 如果 capacity 小于等于 0
+     */
+    public PooledMapGenerator(int capacity) {
+        this(new SplittableRandom(), capacity, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 创建一个使用指定根种子和 Executor 的生成器。
+     *
+     * @param seed 根种子
+     * @param capacity 每种难度预先生成的布局数
+     * @param executor 在后台补充布局的 Executor
+     * @throws IllegalArgumentException 如果 capacity 小于等于 0
+     * @throws NullPointerException 如果 executor 为 null
+     */
+    public PooledMapGenerator(long seed, int capacity, Executor executor) {
+        this(new SplittableRandom(seed), capacity, executor);
+    }
+
+    private PooledMapGenerator(SplittableRandom seeds, int capacity, Executor executor) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (executor == null) {
+            throw new NullPointerException("Executor cannot be null");
+        }
+        this.seeds = seeds;
+        this.capacity = capacity;
+        this.executor = executor;
+    }
+
+    /**
+     * 开始在后台为指定难度生成布局，重复调用没有额外效果。
+     *
+     * @param rows 棋盘的行数
+     * @param cols 棋盘的列数
+     * @param totalMines 雷的总数
+     * @throws IllegalArgumentException 如果参数不能构成合法的棋盘
+     */
+    public void prepare(int rows, int cols, int totalMines) {
+        if (rows <= 0 || cols <= 0 || totalMines < 0 || totalMines >= (long) rows * cols
+                || (long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid difficulty: " + rows + "x" + cols + ", " + totalMines + " mines");
+        }
+        poolFor(new Difficulty(rows, cols, totalMines)).refill();
+    }
+
+    /**
+     * 获取指定难度当前可用的预生成布局数。
+     *
+     * @param rows 棋盘的行数
+     * @param cols 棋盘的列数
+     * @param totalMines 雷的总数
+     * @return 可用的布局数
+     */
+    public int getPooledCount(int rows, int cols, int totalMines) {
+        Pool pool = pools.get(new Difficulty(rows, cols, totalMines));
+        return pool == null ? 0 : pool.size.get();
+    }
+
+    @Override
+    public synchronized long nextSeed() {
+        return seeds.nextLong();
+    }
+
+    /**
+     * 从池中取出一个布局生成地图，池为空时同步生成，随后在后台补充池。
+     *
+     * @return 所用布局的种子
+     */
+    @Override
+    public long generateNext(Board board, int firstRow, int firstCol) {
+        Pool pool = poolFor(new Difficulty(board.getRows(), board.getCols(), board.getTotalMines()));
+        Layout layout = pool.take();
+        pool.refill();
+        if (layout == null) {
+            layout = new Layout(board.getRows(), board.getCols(), board.getTotalMines(), nextSeed());
+        }
+        layout.place(board, firstRow, firstCol);
+        return layout.seed;
+    }
+
+    @Override
+    public void generate(Board board, int firstRow, int firstCol, long seed) {
+        new Layout(board.getRows(), board.getCols(), board.getTotalMines(), seed).place(board, firstRow, firstCol);
+    }
+
+    private Pool poolFor(Difficulty difficulty) {
+        return pools.computeIfAbsent(difficulty, Pool::new);
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * 用 Floyd 算法从 [0, n) 中均匀选出 k 个不同的序号。
+     */
+    private static long[] sample(SplittableRandom random, int n, int k) {
+        long[] picked = new long[(n + 63) >>> 6];
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            if (isSet(picked, t)) {
+                t = j;
+            }
+            set(picked, t);
+        }
+        return picked;
+    }
+
+    private static final class Difficulty {
+        private final int rows;
+        private final int cols;
+        private final int totalMines;
+
+        Difficulty(int rows, int cols, int totalMines) {
+            this.rows = rows;
+            this.cols = cols;
+            this.totalMines = totalMines;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Difficulty)) {
+                return false;
+            }
+            Difficulty other = (Difficulty) o;
+            return rows == other.rows && cols == other.cols && totalMines == other.totalMines;
+        }
+
+        @Override
+        public int hashCode() {
+            return (rows * 31 + cols) * 31 + totalMines;
+        }
+    }
+
+    /**
+     * 一种难度的布局池。同一时间最多有一个补充任务在运行。
+     */
+    private final class Pool {
+        private final Difficulty difficulty;
+        private final ConcurrentLinkedQueue<Layout> layouts = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+
+        Pool(Difficulty difficulty) {
+            this.difficulty = difficulty;
+        }
+
+        Layout take() {
+            Layout layout = layouts.poll();
+            if (layout != null) {
+                size.decrementAndGet();
+            }
+            return layout;
+        }
+
+        void refill() {
+            if (size.get() >= capacity || !refilling.compareAndSet(false, true)) {
+                return;
+            }
+            executor.execute(() -> {
+                try {
+                    while (size.get() < capacity) {
+                        layouts.add(new Layout(difficulty.rows, difficulty.cols, difficulty.totalMines, nextSeed()));
+                        size.incrementAndGet();
+                    }
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * 由种子决定的布局，雷均匀分布在所有格子上。
+     */
+    private static final class Layout {
+        private final int rows;
+        private final int cols;
+        private final long seed;
+        // 雷的下标和对应的位图
+        private final int[] mines;
+        private final long[] bits;
+
+        Layout(int rows, int cols, int totalMines, long seed) {
+            long area = (long) rows * cols;
+            if (area > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Board is too large for pooled generation: " + rows + "x" + cols);
+            }
+            this.rows = rows;
+            this.cols = cols;
+            this.seed = seed;
+            int squares = (int) area;
+            // 雷多时抽取空格，再取补集
+            boolean pickMines = totalMines <= squares / 2;
+            long[] picked = sample(new SplittableRandom(seed).split(), squares,
+                    pickMines ? totalMines : squares - totalMines);
+            if (!pickMines) {
+                for (int i = 0; i < picked.length; i++) {
+                    picked[i] = ~picked[i];
+                }
+                if ((squares & 63) != 0) {
+                    picked[picked.length - 1] &= (1L << squares) - 1;
+                }
+            }
+            this.bits = picked;
+            this.mines = new int[totalMines];
+            int placed = 0;
+            for (int i = 0; i < bits.length; i++) {
+                long word = bits[i];
+                while (word != 0) {
+                    mines[placed++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+        }
+
+        /**
+         * 把安全区里的雷移到安全区外的空格上，再放到棋盘上。布局本身不被修改。
+         */
+        void place(Board board, int firstRow, int firstCol) {
+            int squares = rows * cols;
+            int top = Math.max(0, firstRow - 1);
+            int bottom = Math.min(rows - 1, firstRow + 1);
+            int left = Math.max(0, firstCol - 1);
+            int right = Math.min(cols - 1, firstCol + 1);
+            if (mines.length > squares - (bottom - top + 1) * (right - left + 1)) {
+                // 安全区外放不下所有雷时只保护点击的格子
+                top = bottom = firstRow;
+                left = right = firstCol;
+            }
+            int zone = (bottom - top + 1) * (right - left + 1);
+
+            int[] placed = mines.clone();
+            int moved = 0;
+            for (int i = 0; i < placed.length; i++) {
+                int row = placed[i] / cols;
+                int col = placed[i] - row * cols;
+                if (row >= top && row <= bottom && col >= left && col <= right) {
+                    placed[i] = -1;
+                    moved++;
+                }
+            }
+            if (moved > 0) {
+                SplittableRandom base = new SplittableRandom(seed);
+                base.split();
+                SplittableRandom random = base.split();
+                long[] occupied = bits.clone();
+                int free = squares - zone - (mines.length - moved);
+                int[] targets = new int[moved];
+                if (free * 2 >= squares) {
+                    // 空格占多数，拒绝采样期望不超过两次
+                    for (int n = 0; n < moved; ) {
+                        int index = random.nextInt(squares);
+                        int row = index / cols;
+                        int col = index - row * cols;
+                        if (!isSet(occupied, index) && (row < top || row > bottom || col < left || col > right)) {
+                            set(occupied, index);
+                            targets[n++] = index;
+                        }
+                    }
+                } else {
+                    // 按序号选出空格，再扫描棋盘映射到下标
+                    long[] picked = sample(random, free, moved);
+                    int rank = 0;
+                    int n = 0;
+                    for (int index = 0; index < squares && n < moved; index++) {
+                        int row = index / cols;
+                        int col = index - row * cols;
+                        if (isSet(occupied, index) || (row >= top && row <= bottom && col >= left && col <= right)) {
+                            continue;
+                        }
+                        if (isSet(picked, rank++)) {
+                            targets[n++] = index;
+                        }
+                    }
+                }
+                int n = 0;
+                for (int i = 0; i < placed.length; i++) {
+                    if (placed[i] < 0) {
+                        placed[i] = targets[n++];
+                    }
+                }
+            }
+            board.placeMines(placed);
+        }
+    }
+}
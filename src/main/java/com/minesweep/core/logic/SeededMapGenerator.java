@@ -0,0 +1,54 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.core.model.Board;
+
+/**
+ * SeededMapGenerator 是由 64 位种子完全决定地图的生成器。
+ * <p>
+ * 同一个种子、同样大小的棋盘和同一个首次点击位置总是生成相同的地图。
+ * {@link GameEngine} 开局时调用 {@link #generateNext(Board, int, int)} 生成地图并取得它的种子，
+ * 把种子记入 {@link GameResult}，之后可以用 {@link #generate(Board, int, int, long)} 重新生成同一局。
+ */
+public interface SeededMapGenerator extends MapGenerator {
+    /**
+     * 取得下一局使用的种子。
+     *
+     * @return 种子
+     */
+    long nextSeed();
+
+    /**
+     * 按指定种子生成扫雷游戏地图。
+     *
+     * @param board 游戏棋盘
+     * @param firstRow 首次点击的行坐标
+     * @param firstCol 首次点击的列坐标
+     * @param seed 种子
+     */
+    void generate(Board board, int firstRow, int firstCol, long seed);
+
+    /**
+     * 用生成器自己选择的种子生成地图，并返回这个种子。
+     * <p>
+     * 默认实现用 {@link #nextSeed()} 取得种子再生成。预先准备好地图的生成器可以覆盖该方法，
+     * 直接使用准备好的地图，只要返回的种子能通过 {@link #generate(Board, int, int, long)} 重新生成它。
+     *
+     * @param board 游戏棋盘
+     * @param firstRow 首次点击的行坐标
+     * @param firstCol 首次点击的列坐标
+     * @return 地图的种子
+     */
+    default long generateNext(Board board, int firstRow, int firstCol) {
+        long seed = nextSeed();
+        generate(board, firstRow, firstCol, seed);
+        return seed;
+    }
+
+    /**
+     * 用 {@link #generateNext(Board, int, int)} 生成地图。
+     */
+    @Override
+    default void generate(Board board, int firstRow, int firstCol) {
+        generateNext(board, firstRow, firstCol);
+    }
+}
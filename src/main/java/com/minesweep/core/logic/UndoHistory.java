@@ -0,0 +1,134 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.core.model.Board;
+import com.minesweep.core.model.Cell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * UndoHistory 按步记录每个被修改的格子在修改前后的状态，以及各计数和游戏状态在该步前后的值。
+ * <p>
+ * 格子按 (行, 列, 状态) 三个 int 连续存放在 squares 中，占用只与被修改的格子数有关，与棋盘大小无关。
+ * 状态的低 2 位是修改前的标记（修改前总是未揭示），第 2 位是修改后是否已揭示，第 3-4 位是修改后的标记。
+ * 前 {@code done} 步可以撤销，其后的步可以重做；撤销后执行新的操作会丢弃可重做的步。
+ */
+final class UndoHistory {
+    private static final int AFTER_REVEALED = 1 << 2;
+    private static final int AFTER_MARK_SHIFT = 3;
+    private static final Cell.MarkState[] MARK_STATES = Cell.MarkState.values();
+
+    private int[] squares = new int[48];
+    private int size;
+    private final List<Move> moves = new ArrayList<>();
+    private int done;
+
+    /**
+     * 一步操作前后的计数和游戏状态，squares 中 [start, end) 是该步修改的格子。
+     */
+    static final class Move {
+        int start;
+        int end;
+        int revealedBefore;
+        int revealedAfter;
+        int flaggedBefore;
+        int flaggedAfter;
+        int flaggedMinesBefore;
+        int flaggedMinesAfter;
+        GameState stateBefore;
+        GameState stateAfter;
+        long startTimeBefore;
+        long startTimeAfter;
+        long endTimeBefore;
+        long endTimeAfter;
+    }
+
+    boolean canUndo() {
+        return done > 0;
+    }
+
+    boolean canRedo() {
+        return done < moves.size();
+    }
+
+    /**
+     * 开始记录新的一步，丢弃上一步中未提交的格子。新格子追加在所有已记录的步之后，
+     * 提交前不会覆盖可重做的步。
+     */
+    void begin() {
+        size = endOf(moves.size());
+    }
+
+    // 前 count 步占用的 squares 长度
+    private int endOf(int count) {
+        return count == 0 ? 0 : moves.get(count - 1).end;
+    }
+
+    void squareChanged(int row, int col, Cell.MarkState previousMark) {
+        if (size + 3 > squares.length) {
+            squares = Arrays.copyOf(squares, squares.length * 2);
+        }
+        squares[size++] = row;
+        squares[size++] = col;
+        squares[size++] = previousMark.ordinal();
+    }
+
+    /**
+     * 提交当前这一步：补全格子修改后的状态，并丢弃可重做的步。
+     * <p>
+     * 没有修改任何格子的一步（揭示已揭示的格子、没有效果的 Chord 等）不记录，可重做的步也保留。
+     * 计数和游戏状态只会随格子的修改而变化，因此这样的一步不会改变任何状态。
+     */
+    void commit(Board board, Move move) {
+        int pending = endOf(moves.size());
+        if (size == pending) {
+            return;
+        }
+        for (int i = pending; i < size; i += 3) {
+            int row = squares[i];
+            int col = squares[i + 1];
+            if (board.isRevealed(row, col)) {
+                squares[i + 2] |= AFTER_REVEALED;
+            }
+            squares[i + 2] |= board.getMarkState(row, col).ordinal() << AFTER_MARK_SHIFT;
+        }
+        while (moves.size() > done) {
+            moves.remove(moves.size() - 1);
+        }
+        // 丢弃可重做的步后，把本步的格子移到已完成的步之后
+        int start = endOf(done);
+        if (start != pending) {
+            System.arraycopy(squares, pending, squares, start, size - pending);
+            size = start + (size - pending);
+        }
+        move.start = start;
+        move.end = size;
+        moves.add(move);
+        done++;
+    }
+
+    /**
+     * 把最近一步修改的格子按相反顺序恢复为修改前的状态，返回该步。
+     */
+    Move undo(Board board) {
+        Move move = moves.get(--done);
+        for (int i = move.end - 3; i >= move.start; i -= 3) {
+            board.restoreSquare(squares[i], squares[i + 1], false, MARK_STATES[squares[i + 2] & 3]);
+        }
+        return move;
+    }
+
+    /**
+     * 把下一个可重做的步修改的格子恢复为修改后的状态，返回该步。
+     */
+    Move redo(Board board) {
+        Move move = moves.get(done++);
+        for (int i = move.start; i < move.end; i += 3) {
+            int state = squares[i + 2];
+            board.restoreSquare(squares[i], squares[i + 1], (state & AFTER_REVEALED) != 0,
+                    MARK_STATES[(state >>> AFTER_MARK_SHIFT) & 3]);
+        }
+        return move;
+    }
+}
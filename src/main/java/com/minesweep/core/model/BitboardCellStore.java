@@ -0,0 +1,193 @@
+package com.minesweep.core.model;
+
+/**
+ * BitboardCellStore 把格子状态拆成若干 long[] 位平面，每行占 wordsPerRow 个 long。
+ * <p>
+ * 第 col 列对应该行第 col / 64 个 long 的第 col % 64 位。周围雷数以 4 个位平面按位切片存放，
+ * 因此 calculateNumbers 可以用移位和加法器一次处理 64 列，已揭示和插旗数可以用 popcount 统计。
+ */
+final class BitboardCellStore extends CellStore {
+    private final int wordsPerRow;
+    private final long lastWordMask;
+    private final long[] mines;
+    private final long[] revealed;
+    private final long[] flagged;
+    private final long[] questioned;
+    // 周围雷数的第 0-3 位
+    private final long[] count0;
+    private final long[] count1;
+    private final long[] count2;
+    private final long[] count3;
+
+    BitboardCellStore(int rows, int cols) {
+        super(rows, cols);
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.lastWordMask = (cols & 63) == 0 ? -1L : (1L << (cols & 63)) - 1;
+        int words = rows * wordsPerRow;
+        this.mines = new long[words];
+        this.revealed = new long[words];
+        this.flagged = new long[words];
+        this.questioned = new long[words];
+        this.count0 = new long[words];
+        this.count1 = new long[words];
+        this.count2 = new long[words];
+        this.count3 = new long[words];
+    }
+
+    private int word(int row, int col) {
+        return row * wordsPerRow + (col >>> 6);
+    }
+
+    private static int bit(long[] plane, int word, int col) {
+        return (int) (plane[word] >>> col) & 1;
+    }
+
+    private static void put(long[] plane, int word, int col, boolean value) {
+        if (value) {
+            plane[word] |= 1L << col;
+        } else {
+            plane[word] &= ~(1L << col);
+        }
+    }
+
+    @Override
+    int get(int row, int col) {
+        int w = word(row, col);
+        int mark = bit(flagged, w, col) | (bit(questioned, w, col) << 1);
+        int count = bit(count0, w, col)
+                | (bit(count1, w, col) << 1)
+                | (bit(count2, w, col) << 2)
+                | (bit(count3, w, col) << 3);
+        return bit(mines, w, col)
+                | (bit(revealed, w, col) << 1)
+                | (mark << MARK_SHIFT)
+                | (count << COUNT_SHIFT);
+    }
+
+    @Override
+    void set(int row, int col, int value) {
+        int w = word(row, col);
+        int mark = (value & MARK_MASK) >>> MARK_SHIFT;
+        int count = countOf(value);
+        put(mines, w, col, (value & MINE_BIT) != 0);
+        put(revealed, w, col, (value & REVEALED_BIT) != 0);
+        put(flagged, w, col, (mark & 1) != 0);
+        put(questioned, w, col, (mark & 2) != 0);
+        put(count0, w, col, (count & 1) != 0);
+        put(count1, w, col, (count & 2) != 0);
+        put(count2, w, col, (count & 4) != 0);
+        put(count3, w, col, (count & 8) != 0);
+    }
+
+    @Override
+    boolean isMine(int row, int col) {
+        return bit(mines, word(row, col), col) != 0;
+    }
+
+    @Override
+    boolean isRevealed(int row, int col) {
+        return bit(revealed, word(row, col), col) != 0;
+    }
+
+    @Override
+    Cell.MarkState getMarkState(int row, int col) {
+        int w = word(row, col);
+        if (bit(flagged, w, col) != 0) {
+            return Cell.MarkState.FLAGGED;
+        }
+        return bit(questioned, w, col) != 0 ? Cell.MarkState.QUESTIONED : Cell.MarkState.NONE;
+    }
+
+    @Override
+    void setMine(int row, int col, boolean isMine) {
+        put(mines, word(row, col), col, isMine);
+    }
+
+    /**
+     * 按字并行计算周围雷数。
+     * <p>
+     * 对每个 64 列的字，取上、中、下三行的雷位平面左右各移一位，得到 8 个邻居位平面，
+     * 再用按位全加器把它们累加进 4 个计数位平面。雷格的计数清零，与逐格计算的结果一致。
+     */
+    @Override
+    void calculateNumbers(int fromRow, int toRow) {
+        for (int row = fromRow; row < toRow; row++) {
+            int base = row * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                // 上一行：左、中、右三个邻居，用全加器压成 2 位
+                long upLeft = shiftedLeft(row - 1, w);
+                long upCenter = wordAt(row - 1, w);
+                long upRight = shiftedRight(row - 1, w);
+                long up1 = upLeft ^ upCenter ^ upRight;
+                long up2 = (upLeft & upCenter) | (upRight & (upLeft ^ upCenter));
+
+                // 下一行同理
+                long downLeft = shiftedLeft(row + 1, w);
+                long downCenter = wordAt(row + 1, w);
+                long downRight = shiftedRight(row + 1, w);
+                long down1 = downLeft ^ downCenter ^ downRight;
+                long down2 = (downLeft & downCenter) | (downRight & (downLeft ^ downCenter));
+
+                // 本行：只有左、右两个邻居
+                long midLeft = shiftedLeft(row, w);
+                long midRight = shiftedRight(row, w);
+                long mid1 = midLeft ^ midRight;
+                long mid2 = midLeft & midRight;
+
+                // 三个 2 位数相加得到 4 位计数
+                long s0 = up1 ^ mid1 ^ down1;
+                long carryA = (up1 & mid1) | (down1 & (up1 ^ mid1));
+                long t = up2 ^ mid2 ^ down2;
+                long carryB = (up2 & mid2) | (down2 & (up2 ^ mid2));
+                long s1 = t ^ carryA;
+                long carryC = t & carryA;
+                long s2 = carryB ^ carryC;
+                long s3 = carryB & carryC;
+
+                long keep = ~mines[base + w];
+                if (w == wordsPerRow - 1) {
+                    keep &= lastWordMask;
+                }
+                count0[base + w] = s0 & keep;
+                count1[base + w] = s1 & keep;
+                count2[base + w] = s2 & keep;
+                count3[base + w] = s3 & keep;
+            }
+        }
+    }
+
+    private long wordAt(int row, int w) {
+        if (row < 0 || row >= rows || w < 0 || w >= wordsPerRow) {
+            return 0L;
+        }
+        return mines[row * wordsPerRow + w];
+    }
+
+    // 把第 col - 1 列的雷移到第 col 位
+    private long shiftedLeft(int row, int w) {
+        return (wordAt(row, w) << 1) | (wordAt(row, w - 1) >>> 63);
+    }
+
+    // 把第 col + 1 列的雷移到第 col 位
+    private long shiftedRight(int row, int w) {
+        return (wordAt(row, w) >>> 1) | (wordAt(row, w + 1) << 63);
+    }
+
+    @Override
+    int countRevealed() {
+        return popCount(revealed);
+    }
+
+    @Override
+    int countFlagged() {
+        return popCount(flagged);
+    }
+
+    private static int popCount(long[] plane) {
+        int count = 0;
+        for (long word : plane) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
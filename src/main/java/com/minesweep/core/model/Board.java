@@ -1,21 +1,155 @@
 package com.minesweep.core.model;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Board 类表示扫雷游戏的棋盘。
  * <p>
  * 该类管理游戏棋盘的状态，包括网格大小、雷的数量以及已揭示和已标记的单元格数量。
- * 棋盘由 Cell 对象的二维数组组成，每个 Cell 可以包含雷或安全区域。
+ * 默认情况下棋盘由 Cell 对象的二维数组组成；其他 {@link StorageMode} 把格子状态存放在
+ * 紧凑的存储后端中，Cell 仅作为只读视图按需创建。
  */
 public class Board {
+    /**
+     * 棋盘格子状态的存储方式。
+     */
+    public enum StorageMode {
+        /**
+         * 每格一个 Cell 对象
+         */
+        OBJECT,
+
+        /**
+         * 整个网格存放在一个 byte[] 中，每格一个字节
+         */
+        PACKED,
+
+        /**
+         * 雷、揭示、标记和周围雷数分别存放在按行排列的 long[] 位平面中，每格约一个字节，
+         * 数字计算一次处理 64 列
+         */
+        BITBOARD,
+
+        /**
+         * 每格一个字节，存放在堆外的 direct ByteBuffer 中，堆占用与棋盘大小无关
+         */
+        OFF_HEAP,
+
+        /**
+         * 每格一个字节，存放在映射到文件的 MappedByteBuffer 中，进程重启后可重新打开，
+         * 通过 {@link Board#mapped(Path, int, int, int)} 创建
+         */
+        MAPPED,
+
+        /**
+         * 按 64x64 区块按需创建，雷位由种子和区块坐标确定性生成，内存随探索面积增长，
+         * 通过 {@link Board#chunked(int, int, int)} 创建
+         */
+        CHUNKED,
+
+        /**
+         * 按 64x64 瓦片存放，与派生出它的棋盘共享未修改的瓦片，第一次写入时才复制，
+         * 通过 {@link Board#fork()} 创建
+         */
+        COPY_ON_WRITE
+    }
+
+    /**
+     * 洪水填充的展开方式，两种方式揭示的格子完全相同。
+     */
+    public enum FloodFillStrategy {
+        /**
+         * 逐格展开，每个空白格检查 8 个邻居
+         */
+        NEIGHBOR,
+
+        /**
+         * 按行扫描，一次揭示一整段相连的空白格，再扫描上下两行的相邻区间，适合大片空白区域
+         */
+        SCANLINE,
+
+        /**
+         * 在公共 ForkJoinPool 上按层并行展开，见 {@link Board#floodRevealParallel(int, int, ForkJoinPool)}
+         */
+        PARALLEL
+    }
+
+    /**
+     * 邻居访问回调，用于 {@link #forEachNeighbor(int, int, NeighborVisitor)}。
+     * <p>
+     * 回调只接收坐标，调用方复用同一个实例即可在遍历时不产生任何对象。
+     */
+    @FunctionalInterface
+    public interface NeighborVisitor {
+        /**
+         * 访问一个邻居位置。
+         *
+         * @param row 邻居的行索引
+         * @param col 邻居的列索引
+         */
+        void visit(int row, int col);
+    }
+
+    /**
+     * 格子可见状态变化的回调，见 {@link #setChangeListener(ChangeListener)}。
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * 指定位置被揭示或标记状态发生了变化。
+         * <p>
+         * 揭示和切换标记只作用于未揭示的格子，所以变化前的格子总是未揭示的，
+         * 只有 {@link #restoreSquare(int, int, boolean, Cell.MarkState)} 可能恢复已揭示的格子。
+         *
+         * @param row 行索引
+         * @param col 列索引
+         * @param previousMark 变化前的标记状态
+         */
+        void squareChanged(int row, int col, Cell.MarkState previousMark);
+    }
+
+    // 8个方向的偏移量，所有邻居遍历共用
+    private static final int[] NEIGHBOR_ROW_OFFSETS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] NEIGHBOR_COL_OFFSETS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    /**
+     * 并行计算数字的最小格子数，小于该值的棋盘按顺序计算
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // 并行计算时每个条带的最大格子数
+    private static final int STRIPE_CELLS = 1 << 15;
+
+    private final StorageMode storageMode;
     private final Cell[][] grid;
+    private final CellStore store;
     private final int rows;
     private final int cols;
     private final int totalMines;
     private int revealedCount;
     private int flaggedCount;
+    // 持久化后端保存的状态位，见 CellStore.STATUS_LAYOUT 和 STATUS_MINE_REVEALED
+    private int status;
+    // 懒计算数字模式下每格一位，记录该格的周围雷数是否已经算出；null 表示未启用
+    private long[] knownCounts;
+    private boolean hasKnownCounts;
+    // 启用快照后记录自上一个快照以来被修改的瓦片；null 表示从未创建过快照
+    private SnapshotTiles snapshotTiles;
+    // 已揭示和插旗格子的二维 Fenwick 树；null 表示未启用区域统计
+    private RegionSummary regionSummary;
+    // OBJECT 和懒计算数字模式下洪水填充复用的栈，交替存放行和列
+    private IntStack floodStack;
+    private FloodFillStrategy floodFillStrategy = FloodFillStrategy.NEIGHBOR;
+    private ChangeListener changeListener;
+    // 是否在每次计算数字后为空白区域标号，以及当前的标号结果
+    private boolean zeroRegionLabels;
+    private ZeroRegions zeroRegions;
 
     /**
      * 创建一个新的 Board 实例。
@@ -26,22 +160,38 @@ public class Board {
      * @throws IllegalArgumentException 如果 rows 或 cols 小于等于 0，或者 totalMines 小于 0 或大于等于 rows * cols
      */
     public Board(int rows, int cols, int totalMines) {
-        if (rows <= 0) {
-            throw new IllegalArgumentException("Rows must be greater than 0");
-        }
-        if (cols <= 0) {
-            throw new IllegalArgumentException("Columns must be greater than 0");
-        }
-        if (totalMines < 0) {
-            throw new IllegalArgumentException("Total mines must be non-negative");
-        }
-        if (totalMines >= rows * cols) {
-            throw new IllegalArgumentException("Total mines must be less than rows * columns");
-        }
+        this(rows, cols, totalMines, StorageMode.OBJECT);
+    }
+
+    /**
+     * 使用指定的存储方式创建一个新的 Board 实例。
+     *
+     * @param rows        棋盘的行数，必须大于 0
+     * @param cols        棋盘的列数，必须大于 0
+     * @param totalMines  棋盘上的雷的总数，必须大于等于 0 且小于 rows * cols
+     * @param storageMode 格子状态的存储方式
+     * @throws IllegalArgumentException 如果 rows 或 cols 小于等于 0，或者 totalMines 小于 0 或大于等于 rows * cols
+     * @throws NullPointerException 如果 storageMode 为 null
+     */
+    public Board(int rows, int cols, int totalMines, StorageMode storageMode) {
+        this(rows, cols, totalMines, storageMode, createStore(rows, cols, totalMines, storageMode));
+    }
 
+    private Board(int rows, int cols, int totalMines, StorageMode storageMode, CellStore store) {
         this.rows = rows;
         this.cols = cols;
         this.totalMines = totalMines;
+        this.storageMode = storageMode;
+        this.store = store;
+        if (store != null) {
+            // 持久化后端可能带着上次运行的计数器
+            this.revealedCount = store.savedRevealedCount();
+            this.flaggedCount = store.savedFlaggedCount();
+            this.status = store.savedStatus();
+            this.grid = null;
+            return;
+        }
+
         this.revealedCount = 0;
         this.flaggedCount = 0;
 
@@ -54,6 +204,235 @@ public class Board {
         }
     }
 
+    /**
+     * 创建一个格子状态映射到文件的棋盘，已存在的文件会被覆盖。
+     * <p>
+     * 格子、计数器和状态位都直接写入映射内存，由操作系统回写到文件，进程重启后可以用
+     * {@link #openMapped(Path)} 重新打开，不需要单独的保存步骤。
+     *
+     * @param file       映射文件路径
+     * @param rows       棋盘的行数，必须大于 0
+     * @param cols       棋盘的列数，必须大于 0
+     * @param totalMines 棋盘上的雷的总数，必须大于等于 0 且小于 rows * cols
+     * @return 新的 MAPPED 棋盘
+     * @throws IOException 如果文件无法创建或映射
+     * @throws IllegalArgumentException 如果 rows 或 cols 小于等于 0，或者 totalMines 小于 0 或大于等于 rows * cols
+     */
+    public static Board mapped(Path file, int rows, int cols, int totalMines) throws IOException {
+        validateSize(rows, cols, totalMines);
+        ByteBufferCellStore store = ByteBufferCellStore.createMapped(file, rows, cols, totalMines);
+        return new Board(rows, cols, totalMines, StorageMode.MAPPED, store);
+    }
+
+    /**
+     * 重新打开由 {@link #mapped(Path, int, int, int)} 创建的棋盘文件，恢复格子状态、计数器和状态位。
+     * <p>
+     * 如果上次运行时已经布雷并计算过数字，{@link #hasSavedLayout()} 返回 true，
+     * 游戏引擎据此跳过地图生成，继续上次的一局。
+     *
+     * @param file 映射文件路径
+     * @return MAPPED 棋盘
+     * @throws IOException 如果文件无法读取、映射，或不是有效的棋盘文件
+     */
+    public static Board openMapped(Path file) throws IOException {
+        ByteBufferCellStore store = ByteBufferCellStore.openMapped(file);
+        try {
+            validateSize(store.rows, store.cols, store.headerMines());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupted board file: " + file, e);
+        }
+        return new Board(store.rows, store.cols, store.headerMines(), StorageMode.MAPPED, store);
+    }
+
+    /**
+     * 创建一个按 64x64 区块懒加载的超大棋盘（“无限扫雷”模式）。
+     * <p>
+     * 每个区块恰好包含 minesPerChunk 个雷，雷位在 {@link #seedChunks(long, int, int)} 之后
+     * 由种子和区块坐标确定性地生成。区块只在被揭示、标记或查询雷位时才创建，
+     * 内存随探索面积而不是棋盘总面积增长。雷的总数超过 int 范围时
+     * {@link #getTotalMines()} 返回 Integer.MAX_VALUE，这样的棋盘实际上无法获胜。
+     *
+     * @param rows          棋盘的行数，必须是 64 的正整数倍
+     * @param cols          棋盘的列数，必须是 64 的正整数倍
+     * @param minesPerChunk 每个区块的雷数，必须在 0 到 4087 之间（为首次点击的安全区留出空间）
+     * @return 新的 CHUNKED 棋盘
+     * @throws IllegalArgumentException 如果参数不满足上述条件
+     */
+    public static Board chunked(int rows, int cols, int minesPerChunk) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("Rows must be greater than 0");
+        }
+        if (cols <= 0) {
+            throw new IllegalArgumentException("Columns must be greater than 0");
+        }
+        if (rows % ChunkedCellStore.CHUNK_SIZE != 0 || cols % ChunkedCellStore.CHUNK_SIZE != 0) {
+            throw new IllegalArgumentException("Rows and columns must be multiples of " + ChunkedCellStore.CHUNK_SIZE);
+        }
+        if (minesPerChunk < 0 || minesPerChunk > ChunkedCellStore.CHUNK_AREA - 9) {
+            throw new IllegalArgumentException("Mines per chunk must be between 0 and " + (ChunkedCellStore.CHUNK_AREA - 9));
+        }
+        long chunks = (long) (rows / ChunkedCellStore.CHUNK_SIZE) * (cols / ChunkedCellStore.CHUNK_SIZE);
+        int totalMines = (int) Math.min(Integer.MAX_VALUE, chunks * minesPerChunk);
+        return new Board(rows, cols, totalMines, StorageMode.CHUNKED, new ChunkedCellStore(rows, cols, minesPerChunk));
+    }
+
+    /**
+     * 为 CHUNKED 棋盘设定布雷种子和首次点击位置。
+     * <p>
+     * 之后每个区块第一次被访问时，用由种子和区块坐标导出的随机数流生成雷位，
+     * 首次点击位置及其周围 8 格不会放雷。通常由 CHUNKED 专用的地图生成器在首次点击时调用。
+     *
+     * @param seed     布雷种子
+     * @param firstRow 首次点击的行坐标
+     * @param firstCol 首次点击的列坐标
+     * @throws IllegalStateException 如果棋盘不是 CHUNKED 模式，或者已经设定过种子
+     * @throws IndexOutOfBoundsException 如果坐标超出棋盘边界
+     */
+    public void seedChunks(long seed, int firstRow, int firstCol) {
+        if (storageMode != StorageMode.CHUNKED) {
+            throw new IllegalStateException("Board does not use CHUNKED storage");
+        }
+        checkBounds(firstRow, firstCol);
+        ((ChunkedCellStore) store).seed(seed, firstRow, firstCol);
+    }
+
+    /**
+     * 在指定位置放雷，供地图生成器使用。
+     * <p>
+     * 放雷后需要重新计算数字，GameEngine 在生成地图后会自动调用 {@link #calculateNumbers()}。
+     * 该方法不检查放置的雷数是否等于 {@link #getTotalMines()}，由生成器保证。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @throws IllegalStateException 如果棋盘是 CHUNKED 模式
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public void placeMine(int row, int col) {
+        checkBounds(row, col);
+        checkMinesPlaceable();
+        setMineAt(row, col);
+    }
+
+    /**
+     * 批量放雷，每个下标为 {@code row * cols + col}，重复的下标只放一次雷。
+     * <p>
+     * 所有下标先全部校验，校验失败时棋盘不会被修改。其余约定与 {@link #placeMine(int, int)} 相同。
+     *
+     * @param indices 雷所在格子的下标
+     * @throws NullPointerException 如果 indices 为 null
+     * @throws IllegalStateException 如果棋盘是 CHUNKED 模式
+     * @throws IndexOutOfBoundsException 如果任一下标超出棋盘范围
+     */
+    public void placeMines(int[] indices) {
+        if (indices == null) {
+            throw new NullPointerException("Mine indices cannot be null");
+        }
+        checkMinesPlaceable();
+        long size = (long) rows * cols;
+        for (int index : indices) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Square index out of bounds: " + index);
+            }
+        }
+        for (int index : indices) {
+            int row = index / cols;
+            setMineAt(row, index - row * cols);
+        }
+    }
+
+    private void checkMinesPlaceable() {
+        if (storageMode == StorageMode.CHUNKED) {
+            throw new IllegalStateException("CHUNKED boards derive mines from their seed");
+        }
+    }
+
+    private void setMineAt(int row, int col) {
+        if (snapshotTiles != null) {
+            snapshotTiles.markDirty(row, col);
+        }
+        if (grid != null) {
+            grid[row][col].setMine(true);
+        } else {
+            store.setMine(row, col, true);
+        }
+    }
+
+    /**
+     * 获取 CHUNKED 棋盘每个区块的雷数，其他模式返回 0。
+     * <p>
+     * 区块很多时 {@link #getTotalMines()} 会截断到 Integer.MAX_VALUE，无法据此还原每个区块的雷数。
+     *
+     * @return 每个区块的雷数
+     */
+    public int getMinesPerChunk() {
+        if (storageMode != StorageMode.CHUNKED) {
+            return 0;
+        }
+        return ((ChunkedCellStore) store).minesPerChunk();
+    }
+
+    /**
+     * 获取 CHUNKED 棋盘上已创建揭示/标记状态的区块数，其他模式返回 0。
+     *
+     * @return 已创建的区块数
+     */
+    public int getMaterializedChunkCount() {
+        if (storageMode != StorageMode.CHUNKED) {
+            return 0;
+        }
+        return ((ChunkedCellStore) store).materializedChunkCount();
+    }
+
+    /**
+     * 校验参数并为指定的存储方式创建存储后端，OBJECT 模式返回 null。
+     */
+    private static CellStore createStore(int rows, int cols, int totalMines, StorageMode storageMode) {
+        if (storageMode == null) {
+            throw new NullPointerException("Storage mode cannot be null");
+        }
+        validateSize(rows, cols, totalMines);
+        switch (storageMode) {
+            case PACKED:
+                // 四周各留一圈哨兵格
+                if ((long) (rows + 2) * (cols + 2) > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Board is too large for PACKED storage");
+                }
+                return new PackedCellStore(rows, cols);
+            case BITBOARD:
+                return new BitboardCellStore(rows, cols);
+            case OFF_HEAP:
+                return ByteBufferCellStore.allocateDirect(rows, cols);
+            case MAPPED:
+                throw new IllegalArgumentException("MAPPED storage requires a file, use Board.mapped");
+            case CHUNKED:
+                throw new IllegalArgumentException("CHUNKED storage requires mines per chunk, use Board.chunked");
+            case COPY_ON_WRITE:
+                throw new IllegalArgumentException("COPY_ON_WRITE storage requires an existing board, use Board.fork");
+            default:
+                return null;
+        }
+    }
+
+    private static void validateSize(int rows, int cols, int totalMines) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("Rows must be greater than 0");
+        }
+        if (cols <= 0) {
+            throw new IllegalArgumentException("Columns must be greater than 0");
+        }
+        if (totalMines < 0) {
+            throw new IllegalArgumentException("Total mines must be non-negative");
+        }
+        long totalCells = (long) rows * cols;
+        if (totalMines >= totalCells) {
+            throw new IllegalArgumentException("Total mines must be less than rows * columns");
+        }
+        // 已揭示计数是 int，安全格子数不能超过它的范围
+        if (totalCells - totalMines > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many safe cells: rows * columns - total mines must fit in an int");
+        }
+    }
+
     /**
      * 获取棋盘的行数。
      *
@@ -81,8 +460,19 @@ public class Board {
         return totalMines;
     }
 
+    /**
+     * 获取棋盘的存储方式。
+     *
+     * @return 棋盘的存储方式
+     */
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
     /**
      * 获取指定位置的 Cell 对象。
+     * <p>
+     * 非 OBJECT 模式下每次调用返回一个新的只读视图，读取的是调用时刻之后的最新状态。
      *
      * @param row 行索引，从 0 开始
      * @param col 列索引，从 0 开始
@@ -90,125 +480,1245 @@ public class Board {
      * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
     public Cell getCell(int row, int col) {
+        checkBounds(row, col);
+        ensureNeighborMineCount(row, col);
+        if (grid != null) {
+            return grid[row][col];
+        }
+        return new CellView(store, row, col);
+    }
+
+    /**
+     * 检查指定位置是否在棋盘边界内，越界时抛出异常。
+     *
+     * @param row 行索引
+     * @param col 列索引
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    private void checkBounds(int row, int col) {
         if (row < 0 || row >= rows) {
             throw new IndexOutOfBoundsException("Row index out of bounds: " + row);
         }
         if (col < 0 || col >= cols) {
             throw new IndexOutOfBoundsException("Column index out of bounds: " + col);
         }
-        return grid[row][col];
     }
 
     /**
-     * 获取指定位置周围8个方向的邻居 Cell。
+     * 判断指定位置是否是雷。
      *
      * @param row 行索引，从 0 开始
      * @param col 列索引，从 0 开始
-     * @return 邻居 Cell 的列表，自动过滤越界位置
+     * @return 如果是雷返回 true
      * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
-    public List<Cell> getNeighbors(int row, int col) {
-        // 首先检查输入位置是否有效
-        getCell(row, col); // 复用已有的边界检查逻辑
-        
-        List<Cell> neighbors = new ArrayList<>();
-        // 8个方向的偏移量
-        int[] dr = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dc = {-1, 0, 1, -1, 1, -1, 0, 1};
-        
-        for (int i = 0; i < 8; i++) {
-            int newRow = row + dr[i];
-            int newCol = col + dc[i];
-            if (isValidPosition(newRow, newCol)) {
-                neighbors.add(grid[newRow][newCol]);
-            }
+    public boolean isMine(int row, int col) {
+        checkBounds(row, col);
+        if (grid != null) {
+            return grid[row][col].isMine();
         }
-        
-        return neighbors;
+        return store.isMine(row, col);
     }
 
     /**
-     * 检查指定位置是否在棋盘边界内。
+     * 判断指定位置是否已揭示。
      *
-     * @param row 行索引
-     * @param col 列索引
-     * @return 如果位置有效返回 true，否则返回 false
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 如果已揭示返回 true
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
-    private boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < rows && col >= 0 && col < cols;
+    public boolean isRevealed(int row, int col) {
+        checkBounds(row, col);
+        if (grid != null) {
+            return grid[row][col].isRevealed();
+        }
+        return store.isRevealed(row, col);
     }
 
     /**
-     * 获取已揭示的单元格数量。
+     * 判断指定位置是否插旗。
      *
-     * @return 已揭示的单元格数量
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 如果插旗返回 true
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
-    public int getRevealedCount() {
-        return revealedCount;
+    public boolean isFlagged(int row, int col) {
+        return getMarkState(row, col) == Cell.MarkState.FLAGGED;
     }
 
     /**
-     * 增加已揭示的单元格数量。
-     * <p>
-     * 当单元格被揭示时调用此方法。
+     * 获取指定位置的标记状态。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 标记状态
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
-    public void incrementRevealedCount() {
-        revealedCount++;
+    public Cell.MarkState getMarkState(int row, int col) {
+        checkBounds(row, col);
+        if (grid != null) {
+            return grid[row][col].getMarkState();
+        }
+        return store.getMarkState(row, col);
     }
 
     /**
-     * 获取已标记的单元格数量。
+     * 获取指定位置周围的雷数。
      *
-     * @return 已标记的单元格数量
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 周围的雷数
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
-    public int getFlaggedCount() {
-        return flaggedCount;
+    public int getNeighborMineCount(int row, int col) {
+        checkBounds(row, col);
+        ensureNeighborMineCount(row, col);
+        if (grid != null) {
+            return grid[row][col].getNeighborMineCount();
+        }
+        return store.getNeighborMineCount(row, col);
     }
 
     /**
-     * 增加已标记的单元格数量。
+     * 揭示指定位置，语义与 {@link Cell#reveal()} 相同。
      * <p>
-     * 当单元格被标记时调用此方法。
+     * 该方法不会修改已揭示计数，调用者需要自行调用 {@link #incrementRevealedCount()}。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 如果本次调用揭示了该格返回 true；已揭示或插旗时返回 false
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
-    public void incrementFlaggedCount() {
-        flaggedCount++;
+    public boolean revealCell(int row, int col) {
+        checkBounds(row, col);
+        if (grid != null) {
+            Cell cell = grid[row][col];
+            Cell.MarkState previousMark = cell.getMarkState();
+            if (!cell.reveal()) {
+                return false;
+            }
+            onReveal(row, col, previousMark);
+            return true;
+        }
+        int value = store.get(row, col);
+        if ((value & CellStore.REVEALED_BIT) != 0 || CellStore.markOf(value) == Cell.MarkState.FLAGGED) {
+            return false;
+        }
+        // 揭示时清除问号标记
+        store.set(row, col, (value & ~CellStore.MARK_MASK) | CellStore.REVEALED_BIT);
+        if ((value & CellStore.MINE_BIT) != 0) {
+            updateStatus(CellStore.STATUS_MINE_REVEALED, true);
+        }
+        onReveal(row, col, CellStore.markOf(value));
+        return true;
     }
 
     /**
-     * 减少已标记的单元格数量。
+     * 循环切换指定位置的标记状态，语义与 {@link Cell#cycleMark(boolean)} 相同。
      * <p>
-     * 当单元格的标记被移除时调用此方法。
+     * 该方法不会修改已标记计数，调用者需要根据结果自行更新。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @param questionEnabled 是否启用问号标记
+     * @throws IllegalStateException 如果该格已揭示
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
-    public void decrementFlaggedCount() {
-        flaggedCount--;
+    public void cycleMark(int row, int col, boolean questionEnabled) {
+        checkBounds(row, col);
+        if (grid != null) {
+            Cell cell = grid[row][col];
+            Cell.MarkState previousMark = cell.getMarkState();
+            cell.cycleMark(questionEnabled);
+            onMarkChanged(row, col, previousMark, cell.getMarkState());
+            return;
+        }
+        int value = store.get(row, col);
+        if ((value & CellStore.REVEALED_BIT) != 0) {
+            throw new IllegalStateException("Cannot cycle mark on revealed cell");
+        }
+        Cell.MarkState current = CellStore.markOf(value);
+        Cell.MarkState next = Cell.nextMark(current, questionEnabled);
+        store.set(row, col, (value & ~CellStore.MARK_MASK) | (next.ordinal() << CellStore.MARK_SHIFT));
+        onMarkChanged(row, col, current, next);
     }
 
     /**
-     * 计算棋盘上所有非雷单元格的周围雷数。
+     * 把指定位置恢复为给定的揭示和标记状态，供撤销和重做使用。
      * <p>
-     * 遍历整个棋盘，对于每个非雷单元格，计算其周围8个方向的雷数，并设置到该单元格的
-     * neighborMineCount字段中。
+     * 该方法不检查游戏规则，也不会修改已揭示和已标记计数，调用者需要通过
+     * {@link #restoreCounts(int, int)} 一并恢复。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @param revealed 是否已揭示
+     * @param markState 标记状态
+     * @throws NullPointerException 如果 markState 为 null
+     * @throws IllegalArgumentException 如果要求已揭示的格子带有标记
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
      */
-    public void calculateNumbers() {
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                Cell cell = grid[row][col];
-                // 如果是雷，跳过，不需要计算数字
-                if (cell.isMine()) {
-                    continue;
-                }
-                // 获取当前单元格的所有邻居
-                List<Cell> neighbors = getNeighbors(row, col);
-                // 统计邻居中的雷数
-                int mineCount = 0;
-                for (Cell neighbor : neighbors) {
-                    if (neighbor.isMine()) {
-                        mineCount++;
-                    }
-                }
-                // 设置当前单元格的周围雷数
-                cell.setNeighborMineCount(mineCount);
+    public void restoreSquare(int row, int col, boolean revealed, Cell.MarkState markState) {
+        if (markState == null) {
+            throw new NullPointerException("Mark state cannot be null");
+        }
+        if (revealed && markState != Cell.MarkState.NONE) {
+            throw new IllegalArgumentException("Revealed square cannot be marked");
+        }
+        checkBounds(row, col);
+        boolean wasRevealed;
+        Cell.MarkState previousMark;
+        if (grid != null) {
+            Cell cell = grid[row][col];
+            wasRevealed = cell.isRevealed();
+            previousMark = cell.getMarkState();
+            cell.restore(revealed, markState);
+        } else {
+            int value = store.get(row, col);
+            wasRevealed = (value & CellStore.REVEALED_BIT) != 0;
+            previousMark = CellStore.markOf(value);
+            store.set(row, col, (value & ~(CellStore.REVEALED_BIT | CellStore.MARK_MASK))
+                    | (revealed ? CellStore.REVEALED_BIT : 0) | (markState.ordinal() << CellStore.MARK_SHIFT));
+            if ((value & CellStore.MINE_BIT) != 0 && wasRevealed != revealed) {
+                updateStatus(CellStore.STATUS_MINE_REVEALED, revealed);
+            }
+        }
+        if (wasRevealed != revealed && regionSummary != null) {
+            regionSummary.revealed(row, col, revealed ? 1 : -1);
+        }
+        if (wasRevealed != revealed || previousMark != markState) {
+            onMarkChanged(row, col, previousMark, markState);
+        }
+    }
+
+    /**
+     * 直接设置已揭示和已标记计数，供撤销和重做使用。
+     *
+     * @param revealedCount 已揭示的单元格数量
+     * @param flaggedCount 已标记的单元格数量
+     * @throws IllegalArgumentException 如果任一计数为负数
+     */
+    public void restoreCounts(int revealedCount, int flaggedCount) {
+        if (revealedCount < 0 || flaggedCount < 0) {
+            throw new IllegalArgumentException("Counts must be non-negative");
+        }
+        this.revealedCount = revealedCount;
+        this.flaggedCount = flaggedCount;
+        if (store != null) {
+            store.saveCounts(revealedCount, flaggedCount);
+        }
+    }
+
+    /**
+     * 设置或清除状态位，变化时交给存储后端保存。只有带存储后端的棋盘维护状态位。
+     */
+    private void updateStatus(int bit, boolean set) {
+        int next = set ? status | bit : status & ~bit;
+        if (store != null && next != status) {
+            status = next;
+            store.saveStatus(status);
+        }
+    }
+
+    /**
+     * 棋盘文件中是否已经保存了布好的雷位和数字。
+     * <p>
+     * MAPPED 棋盘在计算数字时把这一点写入文件头部，用 {@link #openMapped(Path)} 重新打开后返回 true，
+     * 游戏引擎据此跳过地图生成，继续上次的一局。其他存储方式不持久化，总是返回 false。
+     *
+     * @return 是否已经保存了布好的雷位
+     */
+    public boolean hasSavedLayout() {
+        return storageMode == StorageMode.MAPPED && (status & CellStore.STATUS_LAYOUT) != 0;
+    }
+
+    /**
+     * 棋盘文件中保存的这一局是否已经揭示了雷，用于重新打开后恢复失败状态。
+     * <p>
+     * 只有 MAPPED 棋盘持久化这一点，其他存储方式总是返回 false。
+     *
+     * @return 是否有雷已被揭示
+     */
+    public boolean hasSavedRevealedMine() {
+        return storageMode == StorageMode.MAPPED && (status & CellStore.STATUS_MINE_REVEALED) != 0;
+    }
+
+    private void onReveal(int row, int col, Cell.MarkState previousMark) {
+        if (snapshotTiles != null) {
+            snapshotTiles.markDirty(row, col);
+        }
+        if (regionSummary != null) {
+            regionSummary.revealed(row, col, 1);
+        }
+        if (changeListener != null) {
+            changeListener.squareChanged(row, col, previousMark);
+        }
+    }
+
+    private void onMarkChanged(int row, int col, Cell.MarkState previousMark, Cell.MarkState markState) {
+        if (snapshotTiles != null) {
+            snapshotTiles.markDirty(row, col);
+        }
+        boolean wasFlagged = previousMark == Cell.MarkState.FLAGGED;
+        boolean isFlagged = markState == Cell.MarkState.FLAGGED;
+        if (regionSummary != null && wasFlagged != isFlagged) {
+            regionSummary.flagged(row, col, isFlagged ? 1 : -1);
+        }
+        if (changeListener != null) {
+            changeListener.squareChanged(row, col, previousMark);
+        }
+    }
+
+    /**
+     * 设置格子可见状态变化的回调，传入 null 移除。
+     * <p>
+     * 通过 Board 揭示格子（包括洪水填充和空白区域批量揭示）或切换标记时，每个发生变化的格子
+     * 回调一次。设置回调后洪水填充不会并行执行。绕过 Board 直接修改 Cell 的改动不会回调。
+     *
+     * @param changeListener 回调，null 表示不再回调
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+        if (store != null) {
+            store.changeListener = changeListener;
+        }
+    }
+
+    /**
+     * 启用区域统计：按当前状态建立已揭示和插旗格子的二维 Fenwick 树，之后随揭示、洪水填充和
+     * 标记同步更新，{@link #countRevealedIn}、{@link #countFlaggedIn} 和 {@link #countUnrevealedIn}
+     * 可以在 O(log rows * log cols) 时间内回答任意矩形的计数，适合小地图和区域进度显示。
+     * <p>
+     * 每格额外占用 8 字节。绕过 Board 直接修改 Cell 的改动不会被统计。已启用时重复调用不做任何事。
+     *
+     * @throws IllegalStateException 如果棋盘是 CHUNKED 模式，或者格子总数超过 int 范围
+     */
+    public void enableRegionSummaries() {
+        if (regionSummary != null) {
+            return;
+        }
+        if (storageMode == StorageMode.CHUNKED) {
+            throw new IllegalStateException("Region summaries are not supported for CHUNKED storage");
+        }
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Board is too large for region summaries");
+        }
+        regionSummary = RegionSummary.of(this);
+        if (store != null) {
+            store.regionSummary = regionSummary;
+        }
+    }
+
+    /**
+     * 判断是否启用了区域统计。
+     *
+     * @return 如果启用了区域统计返回 true
+     */
+    public boolean hasRegionSummaries() {
+        return regionSummary != null;
+    }
+
+    /**
+     * 统计矩形 [fromRow, toRow) x [fromCol, toCol) 内已揭示的格子数。
+     *
+     * @param fromRow 起始行（包含）
+     * @param fromCol 起始列（包含）
+     * @param toRow   结束行（不包含）
+     * @param toCol   结束列（不包含）
+     * @return 矩形内已揭示的格子数
+     * @throws IllegalStateException 如果未启用区域统计
+     * @throws IndexOutOfBoundsException 如果矩形超出棋盘边界或起点大于终点
+     */
+    public int countRevealedIn(int fromRow, int fromCol, int toRow, int toCol) {
+        return regionSummary(fromRow, fromCol, toRow, toCol).countRevealed(fromRow, fromCol, toRow, toCol);
+    }
+
+    /**
+     * 统计矩形 [fromRow, toRow) x [fromCol, toCol) 内插旗的格子数。
+     *
+     * @param fromRow 起始行（包含）
+     * @param fromCol 起始列（包含）
+     * @param toRow   结束行（不包含）
+     * @param toCol   结束列（不包含）
+     * @return 矩形内插旗的格子数
+     * @throws IllegalStateException 如果未启用区域统计
+     * @throws IndexOutOfBoundsException 如果矩形超出棋盘边界或起点大于终点
+     */
+    public int countFlaggedIn(int fromRow, int fromCol, int toRow, int toCol) {
+        return regionSummary(fromRow, fromCol, toRow, toCol).countFlagged(fromRow, fromCol, toRow, toCol);
+    }
+
+    /**
+     * 统计矩形 [fromRow, toRow) x [fromCol, toCol) 内未揭示的格子数（包括插旗的格子）。
+     *
+     * @param fromRow 起始行（包含）
+     * @param fromCol 起始列（包含）
+     * @param toRow   结束行（不包含）
+     * @param toCol   结束列（不包含）
+     * @return 矩形内未揭示的格子数
+     * @throws IllegalStateException 如果未启用区域统计
+     * @throws IndexOutOfBoundsException 如果矩形超出棋盘边界或起点大于终点
+     */
+    public int countUnrevealedIn(int fromRow, int fromCol, int toRow, int toCol) {
+        int revealed = countRevealedIn(fromRow, fromCol, toRow, toCol);
+        return (toRow - fromRow) * (toCol - fromCol) - revealed;
+    }
+
+    private RegionSummary regionSummary(int fromRow, int fromCol, int toRow, int toCol) {
+        if (regionSummary == null) {
+            throw new IllegalStateException("Region summaries are not enabled");
+        }
+        if (fromRow < 0 || fromRow > toRow || toRow > rows) {
+            throw new IndexOutOfBoundsException("Row range out of bounds: " + fromRow + " to " + toRow);
+        }
+        if (fromCol < 0 || fromCol > toCol || toCol > cols) {
+            throw new IndexOutOfBoundsException("Column range out of bounds: " + fromCol + " to " + toCol);
+        }
+        return regionSummary;
+    }
+
+    /**
+     * 创建棋盘当前状态的不可变快照。
+     * <p>
+     * 快照按 64x64 瓦片写时复制：第一次调用复制整个棋盘，之后每次只复制自上一个快照以来
+     * 通过 Board 修改过的瓦片（揭示、标记、洪水填充、重新计算数字），其余瓦片与上一个快照共享。
+     * 绕过 Board 直接修改 Cell 的改动不会被跟踪。
+     * <p>
+     * 该方法必须在修改棋盘的线程中调用；返回的快照不可变，可以交给任意线程读取。
+     *
+     * @param version 快照的版本号，例如当前步数
+     * @return 棋盘快照
+     * @throws IllegalStateException 如果棋盘是 CHUNKED 模式
+     */
+    public BoardSnapshot snapshot(long version) {
+        if (storageMode == StorageMode.CHUNKED) {
+            throw new IllegalStateException("Snapshots are not supported for CHUNKED storage");
+        }
+        return trackTiles().publish(this, version);
+    }
+
+    /**
+     * 开始跟踪修改过的瓦片，快照和派生共用同一份瓦片。
+     */
+    private SnapshotTiles trackTiles() {
+        if (snapshotTiles == null) {
+            snapshotTiles = new SnapshotTiles(rows, cols);
+            if (store != null) {
+                store.snapshotTiles = snapshotTiles;
+            }
+        }
+        return snapshotTiles;
+    }
+
+    /**
+     * 是否在跟踪修改过的瓦片，调用过 {@link #snapshot(long)} 或从非 COPY_ON_WRITE 棋盘派生过的棋盘才跟踪。
+     */
+    boolean isTrackingSnapshotTiles() {
+        return snapshotTiles != null;
+    }
+
+    /**
+     * 派生一个与当前棋盘状态相同、此后互不影响的新棋盘，存储方式为 COPY_ON_WRITE。
+     * <p>
+     * 新棋盘与当前棋盘共享按 64x64 划分的瓦片，任何一方第一次修改某个瓦片时才复制它。
+     * 从 COPY_ON_WRITE 棋盘派生只复制瓦片指针，代价与瓦片数成正比。从其他模式第一次派生时
+     * 把整个棋盘编码为瓦片，代价为 O(rows * cols)，并像 {@link #snapshot(long)} 一样开始跟踪修改过的瓦片；
+     * 之后的派生和快照共用这些瓦片，只重新编码自上次派生或快照以来修改过的瓦片。
+     * 与快照一样，绕过 Board 直接修改 Cell 的改动不会被跟踪。
+     * 新棋盘继承洪水填充方式和空白区域标号，不继承区域统计、快照和变化回调。
+     *
+     * @return 新棋盘
+     * @throws IllegalStateException 如果棋盘是 CHUNKED 模式
+     */
+    public Board fork() {
+        CopyOnWriteCellStore forkStore;
+        if (store instanceof CopyOnWriteCellStore) {
+            forkStore = ((CopyOnWriteCellStore) store).share();
+        } else {
+            if (storageMode == StorageMode.CHUNKED) {
+                throw new IllegalStateException("CHUNKED boards cannot be forked");
+            }
+            // 沿用跟踪的瓦片，只重新编码修改过的瓦片
+            forkStore = new CopyOnWriteCellStore(rows, cols, trackTiles().update(this).clone());
+        }
+        Board fork = new Board(rows, cols, totalMines, StorageMode.COPY_ON_WRITE, forkStore);
+        fork.revealedCount = revealedCount;
+        fork.flaggedCount = flaggedCount;
+        fork.floodFillStrategy = floodFillStrategy;
+        // 标号只依赖雷位，标号结果不可变，可以直接共享
+        fork.zeroRegionLabels = zeroRegionLabels;
+        fork.zeroRegions = zeroRegions;
+        return fork;
+    }
+
+    /**
+     * 读取指定位置的单字节编码，懒计算数字模式下会先算出周围雷数。
+     */
+    int encodedValue(int row, int col) {
+        ensureNeighborMineCount(row, col);
+        if (store != null) {
+            return store.get(row, col);
+        }
+        Cell cell = grid[row][col];
+        return (cell.isMine() ? CellStore.MINE_BIT : 0)
+                | (cell.isRevealed() ? CellStore.REVEALED_BIT : 0)
+                | (cell.getMarkState().ordinal() << CellStore.MARK_SHIFT)
+                | (cell.getNeighborMineCount() << CellStore.COUNT_SHIFT);
+    }
+
+    /**
+     * 获取指定位置周围8个方向的邻居 Cell。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 邻居 Cell 的列表，自动过滤越界位置
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public List<Cell> getNeighbors(int row, int col) {
+        // 首先检查输入位置是否有效
+        checkBounds(row, col);
+        
+        List<Cell> neighbors = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int newRow = row + NEIGHBOR_ROW_OFFSETS[i];
+            int newCol = col + NEIGHBOR_COL_OFFSETS[i];
+            if (isValidPosition(newRow, newCol)) {
+                ensureNeighborMineCount(newRow, newCol);
+                neighbors.add(grid != null ? grid[newRow][newCol] : new CellView(store, newRow, newCol));
+            }
+        }
+        
+        return neighbors;
+    }
+
+    /**
+     * 依次访问指定位置周围 8 个方向上位于棋盘内的邻居，不创建任何对象。
+     * <p>
+     * 内部格子走无边界检查的快速路径，边缘格子自动跳过越界位置。访问顺序与
+     * {@link #getNeighbors(int, int)} 相同。
+     *
+     * @param row     行索引，从 0 开始
+     * @param col     列索引，从 0 开始
+     * @param visitor 邻居访问回调
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public void forEachNeighbor(int row, int col, NeighborVisitor visitor) {
+        checkBounds(row, col);
+        if (isInterior(row, col)) {
+            for (int i = 0; i < 8; i++) {
+                visitor.visit(row + NEIGHBOR_ROW_OFFSETS[i], col + NEIGHBOR_COL_OFFSETS[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < 8; i++) {
+            int newRow = row + NEIGHBOR_ROW_OFFSETS[i];
+            int newCol = col + NEIGHBOR_COL_OFFSETS[i];
+            if (isValidPosition(newRow, newCol)) {
+                visitor.visit(newRow, newCol);
+            }
+        }
+    }
+
+    /**
+     * 统计指定位置周围 8 个方向上的雷数，不创建任何对象。
+     * <p>
+     * 与 neighborMineCount 不同，该方法直接读取雷位，不依赖 {@link #calculateNumbers()}，
+     * 对雷格同样适用。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 周围的雷数
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public int countAdjacentMines(int row, int col) {
+        checkBounds(row, col);
+        return adjacentMines(row, col);
+    }
+
+    private int adjacentMines(int row, int col) {
+        if (store != null) {
+            return store.countMinesAround(row, col);
+        }
+        int mineCount = 0;
+        if (isInterior(row, col)) {
+            for (int i = 0; i < 8; i++) {
+                if (isMineUnchecked(row + NEIGHBOR_ROW_OFFSETS[i], col + NEIGHBOR_COL_OFFSETS[i])) {
+                    mineCount++;
+                }
+            }
+            return mineCount;
+        }
+        for (int i = 0; i < 8; i++) {
+            int newRow = row + NEIGHBOR_ROW_OFFSETS[i];
+            int newCol = col + NEIGHBOR_COL_OFFSETS[i];
+            if (isValidPosition(newRow, newCol) && isMineUnchecked(newRow, newCol)) {
+                mineCount++;
+            }
+        }
+        return mineCount;
+    }
+
+    /**
+     * 统计指定位置周围 8 个方向上插旗的格子数。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 周围插旗的格子数
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public int countFlaggedNeighbors(int row, int col) {
+        checkBounds(row, col);
+        if (grid == null) {
+            return store.countFlaggedAround(row, col);
+        }
+        int flagCount = 0;
+        for (int i = 0; i < 8; i++) {
+            int newRow = row + NEIGHBOR_ROW_OFFSETS[i];
+            int newCol = col + NEIGHBOR_COL_OFFSETS[i];
+            if (isValidPosition(newRow, newCol) && grid[newRow][newCol].isFlagged()) {
+                flagCount++;
+            }
+        }
+        return flagCount;
+    }
+
+    /**
+     * 从指定位置开始洪水填充，并更新已揭示计数。
+     * <p>
+     * 揭示该格；如果它不是雷且周围无雷，继续揭示与之相连的空白区域以及区域边缘的数字格。
+     * 已揭示和插旗的格子会被跳过，问号在揭示时清除。PACKED 棋盘带有一圈哨兵格，
+     * 按固定下标偏移展开，不做边界检查。展开方式见 {@link #setFloodFillStrategy(FloodFillStrategy)}。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 本次揭示的格子数
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public int floodReveal(int row, int col) {
+        checkBounds(row, col);
+        int opened = openZeroRegion(row, col);
+        if (opened >= 0) {
+            return addRevealed(opened);
+        }
+        if (floodFillStrategy == FloodFillStrategy.PARALLEL) {
+            return floodRevealParallel(row, col, ForkJoinPool.commonPool());
+        }
+        int revealed;
+        if (floodFillStrategy == FloodFillStrategy.SCANLINE) {
+            if (storageMode == StorageMode.PACKED && knownCounts == null) {
+                revealed = ((PackedCellStore) store).floodRevealScanline(row, col);
+            } else {
+                revealed = floodRevealScanlineByCoordinates(row, col);
+            }
+        } else if (grid == null && knownCounts == null) {
+            revealed = store.floodReveal(row, col);
+        } else {
+            revealed = floodRevealByCoordinates(row, col);
+        }
+        return addRevealed(revealed);
+    }
+
+    /**
+     * 在指定的 ForkJoinPool 上按层并行展开洪水填充，揭示结果和返回值与 {@link #floodReveal(int, int)} 相同。
+     * <p>
+     * 每一层的前沿（上一层新揭示的空白格）较大时切分给多个线程，格子通过原子位图认领，
+     * 每格只会被揭示一次，最终的棋盘和已揭示计数与线程调度无关。只有格子数不少于
+     * {@value #PARALLEL_THRESHOLD} 的 PACKED 棋盘、且未开启懒计算数字、区域统计和变化回调时才并行，
+     * 否则按 {@link FloodFillStrategy#NEIGHBOR} 方式在调用线程中完成。填充期间不能有其他线程修改棋盘。
+     *
+     * @param row  行索引，从 0 开始
+     * @param col  列索引，从 0 开始
+     * @param pool 执行填充的线程池
+     * @return 本次揭示的格子数
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     * @throws NullPointerException 如果 pool 为 null
+     */
+    public int floodRevealParallel(int row, int col, ForkJoinPool pool) {
+        checkBounds(row, col);
+        if (pool == null) {
+            throw new NullPointerException("Pool cannot be null");
+        }
+        int opened = openZeroRegion(row, col);
+        if (opened >= 0) {
+            return addRevealed(opened);
+        }
+        int revealed;
+        if (storageMode == StorageMode.PACKED && knownCounts == null
+                && regionSummary == null && changeListener == null && (long) rows * cols >= PARALLEL_THRESHOLD) {
+            revealed = ((PackedCellStore) store).floodRevealParallel(row, col, pool);
+        } else if (grid == null && knownCounts == null) {
+            revealed = store.floodReveal(row, col);
+        } else {
+            revealed = floodRevealByCoordinates(row, col);
+        }
+        return addRevealed(revealed);
+    }
+
+    /**
+     * 开启或关闭空白区域标号。
+     * <p>
+     * 开启后每次 {@link #calculateNumbers()} 之后都会用并查集在一次线性扫描中为所有空白区域标号，
+     * 并记录每个区域的空白格和边缘数字格。之后对空白格的洪水填充直接按成员列表批量揭示整个区域，
+     * 不再逐格检查邻居；如果区域内已有空白格被插旗或揭示，则退回普通的洪水填充，两种方式揭示的格子相同。
+     * 每格额外占用约 4 到 8 字节。懒计算数字模式下不建立标号，CHUNKED 棋盘开启该模式不产生任何效果。
+     *
+     * @param enabled 是否开启空白区域标号
+     * @throws IllegalStateException 如果格子总数超过 int 范围
+     */
+    public void setZeroRegionLabels(boolean enabled) {
+        if (!enabled || storageMode == StorageMode.CHUNKED) {
+            zeroRegionLabels = false;
+            zeroRegions = null;
+            return;
+        }
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Board is too large for zero region labels");
+        }
+        zeroRegionLabels = true;
+        labelZeroRegions();
+    }
+
+    /**
+     * 判断是否开启了空白区域标号。
+     *
+     * @return 如果开启了空白区域标号返回 true
+     */
+    public boolean isZeroRegionLabels() {
+        return zeroRegionLabels;
+    }
+
+    /**
+     * 获取指定空白格所在区域的格子数，包括区域内的空白格和边缘的数字格。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 区域的格子数；不是空白格或尚未标号时返回 0
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public int getZeroRegionSize(int row, int col) {
+        checkBounds(row, col);
+        if (zeroRegions == null) {
+            return 0;
+        }
+        int region = zeroRegions.regionOf(row, col);
+        return region == 0 ? 0 : zeroRegions.end(region) - zeroRegions.start(region);
+    }
+
+    private void labelZeroRegions() {
+        zeroRegions = zeroRegionLabels && knownCounts == null ? ZeroRegions.of(this) : null;
+    }
+
+    /**
+     * 按预先计算的成员列表揭示指定空白格所在的整个区域。
+     *
+     * @return 揭示的格子数；没有标号、不是空白格或区域内已有空白格被插旗或揭示时返回 -1
+     */
+    private int openZeroRegion(int row, int col) {
+        if (zeroRegions == null) {
+            return -1;
+        }
+        int region = zeroRegions.regionOf(row, col);
+        if (region == 0) {
+            return -1;
+        }
+        int start = zeroRegions.start(region);
+        int end = zeroRegions.end(region);
+        // 空白格全部未揭示且未插旗时，逐格展开恰好会揭示所有未插旗的成员
+        for (int i = start; i < end; i++) {
+            int index = zeroRegions.member(i);
+            if (zeroRegions.isZero(index, region)) {
+                int memberRow = index / cols;
+                int memberCol = index - memberRow * cols;
+                if (isRevealed(memberRow, memberCol) || isFlagged(memberRow, memberCol)) {
+                    return -1;
+                }
+            }
+        }
+        int revealed = 0;
+        for (int i = start; i < end; i++) {
+            int index = zeroRegions.member(i);
+            int memberRow = index / cols;
+            if (revealCell(memberRow, index - memberRow * cols)) {
+                revealed++;
+            }
+        }
+        return revealed;
+    }
+
+    private int addRevealed(int revealed) {
+        if (revealed > 0) {
+            revealedCount += revealed;
+            if (store != null) {
+                store.saveCounts(revealedCount, flaggedCount);
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * 设置洪水填充的展开方式，默认 {@link FloodFillStrategy#NEIGHBOR}。
+     *
+     * @param floodFillStrategy 洪水填充的展开方式
+     * @throws NullPointerException 如果 floodFillStrategy 为 null
+     */
+    public void setFloodFillStrategy(FloodFillStrategy floodFillStrategy) {
+        if (floodFillStrategy == null) {
+            throw new NullPointerException("Flood fill strategy cannot be null");
+        }
+        this.floodFillStrategy = floodFillStrategy;
+    }
+
+    /**
+     * 获取洪水填充的展开方式。
+     *
+     * @return 洪水填充的展开方式
+     */
+    public FloodFillStrategy getFloodFillStrategy() {
+        return floodFillStrategy;
+    }
+
+    /**
+     * 按行扫描的洪水填充，适用于除 PACKED 以外的所有模式。
+     * <p>
+     * 栈中每项是一段已揭示、尚未展开的空白格 (row, first, last)。出栈后先向左右延伸这一段，
+     * 再揭示上下两行在 [first - 1, last + 1] 内的格子，其中新揭示的连续空白格作为新的一段入栈。
+     * 每个新揭示的空白格都恰好被展开一次，揭示结果与逐格展开相同。
+     */
+    private int floodRevealScanlineByCoordinates(int row, int col) {
+        if (!revealCell(row, col)) {
+            return 0;
+        }
+        int revealed = 1;
+        if (isMineUnchecked(row, col) || getNeighborMineCount(row, col) != 0) {
+            return revealed;
+        }
+        if (floodStack == null) {
+            floodStack = new IntStack();
+        }
+        IntStack stack = floodStack;
+        stack.push(row);
+        stack.push(col);
+        stack.push(col);
+        while (!stack.isEmpty()) {
+            int last = stack.pop();
+            int first = stack.pop();
+            int currentRow = stack.pop();
+            // 向左右延伸，遇到数字格时揭示它并停止
+            while (first > 0 && revealCell(currentRow, first - 1)) {
+                revealed++;
+                if (getNeighborMineCount(currentRow, first - 1) != 0) {
+                    break;
+                }
+                first--;
+            }
+            while (last < cols - 1 && revealCell(currentRow, last + 1)) {
+                revealed++;
+                if (getNeighborMineCount(currentRow, last + 1) != 0) {
+                    break;
+                }
+                last++;
+            }
+            int from = Math.max(0, first - 1);
+            int to = Math.min(cols - 1, last + 1);
+            if (currentRow > 0) {
+                revealed += scanAdjacentRow(currentRow - 1, from, to, stack);
+            }
+            if (currentRow < rows - 1) {
+                revealed += scanAdjacentRow(currentRow + 1, from, to, stack);
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * 揭示 row 行 [from, to] 内的格子，把新揭示的连续空白格作为一段入栈，返回揭示的格子数。
+     */
+    private int scanAdjacentRow(int row, int from, int to, IntStack stack) {
+        int revealed = 0;
+        int runStart = -1;
+        for (int col = from; col <= to; col++) {
+            if (revealCell(row, col)) {
+                revealed++;
+                if (getNeighborMineCount(row, col) == 0) {
+                    if (runStart < 0) {
+                        runStart = col;
+                    }
+                    continue;
+                }
+            }
+            if (runStart >= 0) {
+                stack.push(row);
+                stack.push(runStart);
+                stack.push(col - 1);
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            stack.push(row);
+            stack.push(runStart);
+            stack.push(to);
+        }
+        return revealed;
+    }
+
+    /**
+     * OBJECT 和懒计算数字模式下的洪水填充，周围雷数通过 getNeighborMineCount 读取以便按需计算。
+     */
+    private int floodRevealByCoordinates(int row, int col) {
+        if (!revealCell(row, col)) {
+            return 0;
+        }
+        int revealed = 1;
+        if (isMineUnchecked(row, col) || getNeighborMineCount(row, col) != 0) {
+            return revealed;
+        }
+        if (floodStack == null) {
+            floodStack = new IntStack();
+        }
+        IntStack stack = floodStack;
+        stack.push(row);
+        stack.push(col);
+        while (!stack.isEmpty()) {
+            int currentCol = stack.pop();
+            int currentRow = stack.pop();
+            for (int i = 0; i < 8; i++) {
+                int newRow = currentRow + NEIGHBOR_ROW_OFFSETS[i];
+                int newCol = currentCol + NEIGHBOR_COL_OFFSETS[i];
+                // 空白格的邻居都不是雷，揭示失败说明已揭示或插旗
+                if (!isValidPosition(newRow, newCol) || !revealCell(newRow, newCol)) {
+                    continue;
+                }
+                revealed++;
+                if (getNeighborMineCount(newRow, newCol) == 0) {
+                    stack.push(newRow);
+                    stack.push(newCol);
+                }
+            }
+        }
+        return revealed;
+    }
+
+    private boolean isMineUnchecked(int row, int col) {
+        return grid != null ? grid[row][col].isMine() : store.isMine(row, col);
+    }
+
+    private boolean isInterior(int row, int col) {
+        return row > 0 && row < rows - 1 && col > 0 && col < cols - 1;
+    }
+
+    /**
+     * 检查指定位置是否在棋盘边界内。
+     *
+     * @param row 行索引
+     * @param col 列索引
+     * @return 如果位置有效返回 true，否则返回 false
+     */
+    private boolean isValidPosition(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    /**
+     * 获取已揭示的单元格数量。
+     *
+     * @return 已揭示的单元格数量
+     */
+    public int getRevealedCount() {
+        return revealedCount;
+    }
+
+    /**
+     * 增加已揭示的单元格数量。
+     * <p>
+     * 当单元格被揭示时调用此方法。
+     */
+    public void incrementRevealedCount() {
+        revealedCount++;
+        if (store != null) {
+            store.saveCounts(revealedCount, flaggedCount);
+        }
+    }
+
+    /**
+     * 获取已标记的单元格数量。
+     *
+     * @return 已标记的单元格数量
+     */
+    public int getFlaggedCount() {
+        return flaggedCount;
+    }
+
+    /**
+     * 增加已标记的单元格数量。
+     * <p>
+     * 当单元格被标记时调用此方法。
+     */
+    public void incrementFlaggedCount() {
+        flaggedCount++;
+        if (store != null) {
+            store.saveCounts(revealedCount, flaggedCount);
+        }
+    }
+
+    /**
+     * 减少已标记的单元格数量。
+     * <p>
+     * 当单元格的标记被移除时调用此方法。
+     */
+    public void decrementFlaggedCount() {
+        flaggedCount--;
+        if (store != null) {
+            store.saveCounts(revealedCount, flaggedCount);
+        }
+    }
+
+    /**
+     * 直接统计棋盘上已揭示的格子数，而不是读取计数器。
+     * <p>
+     * BITBOARD 模式下通过位平面 popcount 完成，其他模式逐格扫描。
+     *
+     * @return 已揭示的格子数
+     */
+    public int countRevealedCells() {
+        if (store != null) {
+            return store.countRevealed();
+        }
+        int count = 0;
+        for (Cell[] row : grid) {
+            for (Cell cell : row) {
+                if (cell.isRevealed()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 直接统计棋盘上插旗的格子数，而不是读取计数器。
+     * <p>
+     * BITBOARD 模式下通过位平面 popcount 完成，其他模式逐格扫描。
+     *
+     * @return 插旗的格子数
+     */
+    public int countFlaggedCells() {
+        if (store != null) {
+            return store.countFlagged();
+        }
+        int count = 0;
+        for (Cell[] row : grid) {
+            for (Cell cell : row) {
+                if (cell.isFlagged()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 计算雷的布局的 64 位哈希，只与行列数和雷的位置有关，与存储模式和揭示、标记状态无关。
+     * <p>
+     * 依次对行数、列数和按升序排列的雷的下标（row * cols + col）做 FNV-1a，逐格扫描整个棋盘。
+     * 同一布局在任何模式、任何进程中得到的哈希都相同，可用于校验按种子重新生成的地图。
+     *
+     * @return 布局哈希
+     */
+    public long mineLayoutHash() {
+        long hash = mixHash(mixHash(0xcbf29ce484222325L, rows), cols);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                boolean mine = grid != null ? grid[row][col].isMine() : store.isMine(row, col);
+                if (mine) {
+                    hash = mixHash(hash, row * cols + col);
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long mixHash(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 开启或关闭懒计算数字模式。
+     * <p>
+     * 开启后 {@link #calculateNumbers()} 不再扫描整个棋盘，每格的周围雷数在第一次被读取时
+     * （getNeighborMineCount、getCell、getNeighbors）计算并缓存，开局耗时只与实际访问的格子有关。
+     * 该模式需要每格一位的额外标记。关闭后需要重新调用 calculateNumbers 才能保证所有数字有效。
+     * CHUNKED 棋盘本身就按需计算数字，开启该模式不产生任何效果。
+     *
+     * @param lazyNumbers 是否开启懒计算数字模式
+     */
+    public void setLazyNumbers(boolean lazyNumbers) {
+        if (!lazyNumbers || storageMode == StorageMode.CHUNKED) {
+            knownCounts = null;
+            hasKnownCounts = false;
+            return;
+        }
+        if (knownCounts == null) {
+            knownCounts = new long[(int) (((long) rows * cols + 63) >>> 6)];
+            // 空白区域标号需要完整的数字
+            zeroRegions = null;
+        }
+    }
+
+    /**
+     * 判断是否开启了懒计算数字模式。
+     *
+     * @return 如果开启了懒计算数字模式返回 true
+     */
+    public boolean isLazyNumbers() {
+        return knownCounts != null;
+    }
+
+    /**
+     * 懒计算数字模式下，如果指定位置的周围雷数尚未计算，则立即计算并缓存。
+     */
+    private void ensureNeighborMineCount(int row, int col) {
+        if (knownCounts == null) {
+            return;
+        }
+        long index = (long) row * cols + col;
+        int word = (int) (index >>> 6);
+        long bit = 1L << index;
+        if ((knownCounts[word] & bit) != 0) {
+            return;
+        }
+        knownCounts[word] |= bit;
+        hasKnownCounts = true;
+        // 雷格也要写回，覆盖布雷过程中提前读取留下的旧值
+        int mineCount = isMineUnchecked(row, col) ? 0 : adjacentMines(row, col);
+        if (grid != null) {
+            grid[row][col].setNeighborMineCount(mineCount);
+        } else {
+            store.setNeighborMineCount(row, col, mineCount);
+        }
+    }
+
+    /**
+     * 懒计算数字模式下已经算出周围雷数的格子数。
+     */
+    int knownNeighborMineCounts() {
+        if (knownCounts == null) {
+            return 0;
+        }
+        int count = 0;
+        for (long word : knownCounts) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 计算棋盘上所有非雷单元格的周围雷数。
+     * <p>
+     * 遍历整个棋盘，对于每个非雷单元格，计算其周围8个方向的雷数，并设置到该单元格的
+     * neighborMineCount字段中。计算过程不创建任何对象。
+     * <p>
+     * 懒计算数字模式下不会扫描棋盘，只作废已缓存的数字，见 {@link #setLazyNumbers(boolean)}。
+     */
+    public void calculateNumbers() {
+        updateStatus(CellStore.STATUS_LAYOUT, true);
+        if (snapshotTiles != null) {
+            snapshotTiles.markAll();
+        }
+        if (knownCounts != null) {
+            // 懒计算模式：只需作废已缓存的数字，下次读取时重新计算
+            if (hasKnownCounts) {
+                Arrays.fill(knownCounts, 0L);
+                hasKnownCounts = false;
+            }
+            return;
+        }
+        calculateNumbers(0, rows);
+        labelZeroRegions();
+    }
+
+    /**
+     * 使用公共 ForkJoinPool 并行计算棋盘上所有非雷单元格的周围雷数。
+     *
+     * @see #calculateNumbersParallel(ForkJoinPool)
+     */
+    public void calculateNumbersParallel() {
+        calculateNumbersParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定的 ForkJoinPool 上并行计算棋盘上所有非雷单元格的周围雷数，结果与
+     * {@link #calculateNumbers()} 相同。
+     * <p>
+     * 棋盘按行切分为条带，每个任务只写入自己条带内的格子，只读取雷位。格子数少于
+     * {@value #PARALLEL_THRESHOLD} 的棋盘、CHUNKED 棋盘以及懒计算数字模式下直接按顺序计算。
+     * 计算期间不能有其他线程修改棋盘。
+     *
+     * @param pool 执行计算的线程池
+     * @throws NullPointerException 如果 pool 为 null
+     */
+    public void calculateNumbersParallel(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException("Pool cannot be null");
+        }
+        if (knownCounts != null || (long) rows * cols < PARALLEL_THRESHOLD
+                || (store != null && !store.supportsParallelNumbers())) {
+            calculateNumbers();
+            return;
+        }
+        updateStatus(CellStore.STATUS_LAYOUT, true);
+        if (snapshotTiles != null) {
+            snapshotTiles.markAll();
+        }
+        pool.invoke(new NumberStripeTask(0, rows));
+        labelZeroRegions();
+    }
+
+    /**
+     * 计算 [fromRow, toRow) 行内所有非雷单元格的周围雷数。
+     */
+    private void calculateNumbers(int fromRow, int toRow) {
+        if (grid == null) {
+            store.calculateNumbers(fromRow, toRow);
+            return;
+        }
+        for (int row = fromRow; row < toRow; row++) {
+            for (int col = 0; col < cols; col++) {
+                Cell cell = grid[row][col];
+                // 如果是雷，跳过，不需要计算数字
+                if (cell.isMine()) {
+                    continue;
+                }
+                // 统计邻居中的雷数并设置到当前单元格
+                cell.setNeighborMineCount(adjacentMines(row, col));
+            }
+        }
+    }
+
+    /**
+     * 按行二分棋盘，直到条带内的格子数不超过 {@link #STRIPE_CELLS}。
+     */
+    private final class NumberStripeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int fromRow;
+        private final int toRow;
+
+        NumberStripeTask(int fromRow, int toRow) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= 1 || (long) (toRow - fromRow) * cols <= STRIPE_CELLS) {
+                calculateNumbers(fromRow, toRow);
+                return;
             }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new NumberStripeTask(fromRow, middle), new NumberStripeTask(middle, toRow));
         }
     }
-}
\ No newline at end of file
+}
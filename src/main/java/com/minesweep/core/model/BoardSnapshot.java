@@ -0,0 +1,163 @@
+package com.minesweep.core.model;
+
+/**
+ * BoardSnapshot 是棋盘在某一步之后的不可变视图。
+ * <p>
+ * 快照由 {@link Board#snapshot(long)} 创建，格子按 64x64 瓦片保存为单字节编码。
+ * 相邻两个版本的快照共享所有未修改的瓦片，因此创建新快照只需复制被修改过的瓦片。
+ * 快照创建后不再改变，可以在任意多个线程之间共享，读取时不需要任何同步。
+ */
+public final class BoardSnapshot {
+    private final long version;
+    private final int rows;
+    private final int cols;
+    private final int totalMines;
+    private final int revealedCount;
+    private final int flaggedCount;
+    private final int tileCols;
+    private final byte[][] tiles;
+
+    BoardSnapshot(long version, int rows, int cols, int totalMines, int revealedCount, int flaggedCount,
+                  int tileCols, byte[][] tiles) {
+        this.version = version;
+        this.rows = rows;
+        this.cols = cols;
+        this.totalMines = totalMines;
+        this.revealedCount = revealedCount;
+        this.flaggedCount = flaggedCount;
+        this.tileCols = tileCols;
+        this.tiles = tiles;
+    }
+
+    /**
+     * 获取快照的版本号，由创建快照的调用者指定，通常是步数。
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取棋盘的行数。
+     *
+     * @return 棋盘的行数
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * 获取棋盘的列数。
+     *
+     * @return 棋盘的列数
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * 获取棋盘上的雷的总数。
+     *
+     * @return 棋盘上的雷的总数
+     */
+    public int getTotalMines() {
+        return totalMines;
+    }
+
+    /**
+     * 获取快照时已揭示的单元格数量。
+     *
+     * @return 已揭示的单元格数量
+     */
+    public int getRevealedCount() {
+        return revealedCount;
+    }
+
+    /**
+     * 获取快照时已标记的单元格数量。
+     *
+     * @return 已标记的单元格数量
+     */
+    public int getFlaggedCount() {
+        return flaggedCount;
+    }
+
+    /**
+     * 判断指定位置是否是雷。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 如果是雷返回 true
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public boolean isMine(int row, int col) {
+        return (get(row, col) & CellStore.MINE_BIT) != 0;
+    }
+
+    /**
+     * 判断指定位置是否已揭示。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 如果已揭示返回 true
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public boolean isRevealed(int row, int col) {
+        return (get(row, col) & CellStore.REVEALED_BIT) != 0;
+    }
+
+    /**
+     * 判断指定位置是否插旗。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 如果插旗返回 true
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public boolean isFlagged(int row, int col) {
+        return getMarkState(row, col) == Cell.MarkState.FLAGGED;
+    }
+
+    /**
+     * 获取指定位置的标记状态。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 标记状态
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public Cell.MarkState getMarkState(int row, int col) {
+        return CellStore.markOf(get(row, col));
+    }
+
+    /**
+     * 获取指定位置周围的雷数。
+     *
+     * @param row 行索引，从 0 开始
+     * @param col 列索引，从 0 开始
+     * @return 周围的雷数
+     * @throws IndexOutOfBoundsException 如果 row 或 col 超出棋盘边界
+     */
+    public int getNeighborMineCount(int row, int col) {
+        return CellStore.countOf(get(row, col));
+    }
+
+    /**
+     * 快照的瓦片数组，调用者不得修改其中的瓦片。
+     */
+    byte[][] tiles() {
+        return tiles;
+    }
+
+    private int get(int row, int col) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row index out of bounds: " + row);
+        }
+        if (col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Column index out of bounds: " + col);
+        }
+        byte[] tile = tiles[(row >>> SnapshotTiles.TILE_SHIFT) * tileCols + (col >>> SnapshotTiles.TILE_SHIFT)];
+        return tile[SnapshotTiles.offset(row, col)] & 0xFF;
+    }
+}
@@ -0,0 +1,280 @@
+package com.minesweep.core.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ByteBufferCellStore 把每格一个字节的编码存放在堆外的 ByteBuffer 中。
+ * <p>
+ * 单个 ByteBuffer 最多只能寻址 2GB，因此网格按 1GB 分段，格子下标使用 long 计算。
+ * 堆上只保留分段数组，占用与棋盘大小无关。映射到文件时，文件开头保留一个固定长度的头部，
+ * 记录棋盘尺寸、计数器和状态位（是否已布雷、是否有雷被揭示），进程重启后可以直接重新打开继续这一局，
+ * 不需要单独的保存步骤。
+ */
+final class ByteBufferCellStore extends CellStore {
+    static final int MAGIC = 0x4D535750; // "MSWP"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // 头部字段的偏移量
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int ROWS_OFFSET = 8;
+    private static final int COLS_OFFSET = 12;
+    private static final int MINES_OFFSET = 16;
+    private static final int REVEALED_OFFSET = 20;
+    private static final int FLAGGED_OFFSET = 24;
+    private static final int STATUS_OFFSET = 28;
+
+    private final ByteBuffer[] segments;
+    private final ByteBuffer header;
+
+    private ByteBufferCellStore(int rows, int cols, ByteBuffer[] segments, ByteBuffer header) {
+        super(rows, cols);
+        this.segments = segments;
+        this.header = header;
+    }
+
+    /**
+     * 创建一个使用 direct ByteBuffer 的存储，内容全部为 0。
+     */
+    static ByteBufferCellStore allocateDirect(int rows, int cols) {
+        long size = (long) rows * cols;
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(size)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentLength(size, i));
+        }
+        return new ByteBufferCellStore(rows, cols, segments, null);
+    }
+
+    /**
+     * 创建新的映射文件，已存在的文件会被截断。
+     */
+    static ByteBufferCellStore createMapped(Path file, int rows, int cols, int totalMines) throws IOException {
+        long size = (long) rows * cols;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(ROWS_OFFSET, rows);
+            header.putInt(COLS_OFFSET, cols);
+            header.putInt(MINES_OFFSET, totalMines);
+            header.putInt(REVEALED_OFFSET, 0);
+            header.putInt(FLAGGED_OFFSET, 0);
+            header.putInt(STATUS_OFFSET, 0);
+            return new ByteBufferCellStore(rows, cols, mapSegments(channel, size), header);
+        }
+    }
+
+    /**
+     * 打开已有的映射文件。
+     *
+     * @throws IOException 如果文件无法读取或不是棋盘文件
+     */
+    static ByteBufferCellStore openMapped(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a board file: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Not a board file: " + file);
+            }
+            int rows = header.getInt(ROWS_OFFSET);
+            int cols = header.getInt(COLS_OFFSET);
+            long size = (long) rows * cols;
+            if (rows <= 0 || cols <= 0 || channel.size() < HEADER_SIZE + size) {
+                throw new IOException("Corrupted board file: " + file);
+            }
+            return new ByteBufferCellStore(rows, cols, mapSegments(channel, size), header);
+        }
+    }
+
+    private static ByteBuffer[] mapSegments(FileChannel channel, long size) throws IOException {
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(size)];
+        for (int i = 0; i < segments.length; i++) {
+            long position = HEADER_SIZE + ((long) i << SEGMENT_SHIFT);
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentLength(size, i));
+        }
+        return segments;
+    }
+
+    private static int segmentCount(long size) {
+        return (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+    }
+
+    private static int segmentLength(long size, int segment) {
+        return (int) Math.min(SEGMENT_SIZE, size - ((long) segment << SEGMENT_SHIFT));
+    }
+
+    int headerMines() {
+        return header.getInt(MINES_OFFSET);
+    }
+
+    private int getAt(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK)) & 0xFF;
+    }
+
+    private void setAt(long index, int value) {
+        segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), (byte) value);
+    }
+
+    @Override
+    int get(int row, int col) {
+        return getAt((long) row * cols + col);
+    }
+
+    @Override
+    void set(int row, int col, int value) {
+        setAt((long) row * cols + col, value);
+    }
+
+    /**
+     * 按行顺序扫描，所有下标按 long 计算，支持超过 2^31 格的棋盘。
+     */
+    @Override
+    void calculateNumbers(int fromRow, int toRow) {
+        for (int row = fromRow; row < toRow; row++) {
+            int rowStart = Math.max(0, row - 1);
+            int rowEnd = Math.min(rows - 1, row + 1);
+            long base = (long) row * cols;
+            for (int col = 0; col < cols; col++) {
+                int value = getAt(base + col);
+                if ((value & MINE_BIT) != 0) {
+                    continue;
+                }
+                int colStart = Math.max(0, col - 1);
+                int colEnd = Math.min(cols - 1, col + 1);
+                int mineCount = 0;
+                for (int r = rowStart; r <= rowEnd; r++) {
+                    long neighborBase = (long) r * cols;
+                    for (int c = colStart; c <= colEnd; c++) {
+                        mineCount += getAt(neighborBase + c) & MINE_BIT;
+                    }
+                }
+                setAt(base + col, (value & LOW_BITS_MASK) | (mineCount << COUNT_SHIFT));
+            }
+        }
+    }
+
+    /**
+     * 按行扫描的洪水填充，揭示结果与逐格展开相同。
+     * <p>
+     * 栈中每项是一段已揭示、尚未展开的空白格 (row, first, last)，栈深与空白区域的行段数成正比，
+     * 而不是像逐格展开那样与区域面积成正比，超大棋盘上堆内的栈不会随空白区域的面积增长。
+     */
+    @Override
+    int floodReveal(int row, int col) {
+        if (!revealAt(row, col)) {
+            return 0;
+        }
+        int revealed = 1;
+        int value = get(row, col);
+        if ((value & MINE_BIT) != 0 || countOf(value) != 0) {
+            return revealed;
+        }
+        IntStack stack = floodStack;
+        stack.push(row);
+        stack.push(col);
+        stack.push(col);
+        while (!stack.isEmpty()) {
+            int last = stack.pop();
+            int first = stack.pop();
+            int currentRow = stack.pop();
+            // 向左右延伸，遇到数字格时揭示它并停止
+            while (first > 0 && revealAt(currentRow, first - 1)) {
+                revealed++;
+                if (countOf(get(currentRow, first - 1)) != 0) {
+                    break;
+                }
+                first--;
+            }
+            while (last < cols - 1 && revealAt(currentRow, last + 1)) {
+                revealed++;
+                if (countOf(get(currentRow, last + 1)) != 0) {
+                    break;
+                }
+                last++;
+            }
+            int from = Math.max(0, first - 1);
+            int to = Math.min(cols - 1, last + 1);
+            if (currentRow > 0) {
+                revealed += scanAdjacentRow(currentRow - 1, from, to, stack);
+            }
+            if (currentRow < rows - 1) {
+                revealed += scanAdjacentRow(currentRow + 1, from, to, stack);
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * 揭示 row 行 [from, to] 内的格子，把新揭示的连续空白格作为一段入栈，返回揭示的格子数。
+     */
+    private int scanAdjacentRow(int row, int from, int to, IntStack stack) {
+        int revealed = 0;
+        int runStart = -1;
+        for (int col = from; col <= to; col++) {
+            if (revealAt(row, col)) {
+                revealed++;
+                if (countOf(get(row, col)) == 0) {
+                    if (runStart < 0) {
+                        runStart = col;
+                    }
+                    continue;
+                }
+            }
+            if (runStart >= 0) {
+                stack.push(row);
+                stack.push(runStart);
+                stack.push(col - 1);
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            stack.push(row);
+            stack.push(runStart);
+            stack.push(to);
+        }
+        return revealed;
+    }
+
+    @Override
+    int savedRevealedCount() {
+        return header == null ? 0 : header.getInt(REVEALED_OFFSET);
+    }
+
+    @Override
+    int savedFlaggedCount() {
+        return header == null ? 0 : header.getInt(FLAGGED_OFFSET);
+    }
+
+    @Override
+    void saveCounts(int revealedCount, int flaggedCount) {
+        if (header != null) {
+            header.putInt(REVEALED_OFFSET, revealedCount);
+            header.putInt(FLAGGED_OFFSET, flaggedCount);
+        }
+    }
+
+    @Override
+    int savedStatus() {
+        return header == null ? 0 : header.getInt(STATUS_OFFSET);
+    }
+
+    @Override
+    void saveStatus(int status) {
+        if (header != null) {
+            header.putInt(STATUS_OFFSET, status);
+        }
+    }
+}
@@ -46,27 +46,30 @@ public class Cell {
         if (isRevealed) {
             throw new IllegalStateException("Cannot cycle mark on revealed cell");
         }
+        markState = nextMark(markState, questionEnabled);
+    }
+
+    /**
+     * 计算标记循环的下一个状态，供 Cell 与 Board 的紧凑存储共用。
+     *
+     * @param current 当前标记状态
+     * @param questionEnabled 是否启用问号标记
+     * @return 下一个标记状态
+     */
+    static MarkState nextMark(MarkState current, boolean questionEnabled) {
         if (questionEnabled) {
             // 三态循环：NONE → FLAGGED → QUESTIONED → NONE
-            switch (markState) {
+            switch (current) {
                 case NONE:
-                    markState = MarkState.FLAGGED;
-                    break;
+                    return MarkState.FLAGGED;
                 case FLAGGED:
-                    markState = MarkState.QUESTIONED;
-                    break;
-                case QUESTIONED:
-                    markState = MarkState.NONE;
-                    break;
-            }
-        } else {
-            // 二态切换：NONE ↔ FLAGGED
-            if (markState == MarkState.FLAGGED) {
-                markState = MarkState.NONE;
-            } else {
-                markState = MarkState.FLAGGED;
+                    return MarkState.QUESTIONED;
+                default:
+                    return MarkState.NONE;
             }
         }
+        // 二态切换：NONE ↔ FLAGGED
+        return current == MarkState.FLAGGED ? MarkState.NONE : MarkState.FLAGGED;
     }
 
     public boolean isMine() {
@@ -93,6 +96,11 @@ public class Cell {
         return neighborMineCount;
     }
 
+    void restore(boolean isRevealed, MarkState markState) {
+        this.isRevealed = isRevealed;
+        this.markState = markState;
+    }
+
     void setMine(boolean isMine) {
         this.isMine = isMine;
     }
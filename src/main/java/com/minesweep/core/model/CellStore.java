@@ -0,0 +1,318 @@
+package com.minesweep.core.model;
+
+/**
+ * CellStore 是非 OBJECT 存储模式下棋盘格子状态的存储后端。
+ * <p>
+ * 所有后端对外使用同一种单字节编码：bit0 雷，bit1 已揭示，bit2-3 标记（MarkState 序号），
+ * bit4-7 周围雷数。后端可以按自己的方式存放这些位，并覆盖默认实现以提供更快的批量操作。
+ * 坐标由 Board 完成边界检查后再传入。
+ */
+abstract class CellStore {
+    static final int MINE_BIT = 0x01;
+    static final int REVEALED_BIT = 0x02;
+    static final int MARK_SHIFT = 2;
+    static final int MARK_MASK = 0x03 << MARK_SHIFT;
+    static final int FLAGGED_MARK = 1 << MARK_SHIFT;
+    static final int COUNT_SHIFT = 4;
+    static final int LOW_BITS_MASK = 0x0F;
+    // 持久化后端保存的棋盘状态位：已布雷并计算过数字，有雷被揭示
+    static final int STATUS_LAYOUT = 1;
+    static final int STATUS_MINE_REVEALED = 2;
+
+    private static final Cell.MarkState[] MARK_STATES = Cell.MarkState.values();
+
+    final int rows;
+    final int cols;
+    // 启用快照后记录被修改的瓦片，由 Board 设置
+    SnapshotTiles snapshotTiles;
+    // 启用区域统计后维护已揭示格子的分布，由 Board 设置
+    RegionSummary regionSummary;
+    // 格子可见状态变化的回调，由 Board 设置
+    Board.ChangeListener changeListener;
+    // 洪水填充复用的栈
+    final IntStack floodStack = new IntStack();
+
+    CellStore(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * 读取指定位置的编码值。
+     *
+     * @param row 行索引
+     * @param col 列索引
+     * @return 单字节编码值（0-255）
+     */
+    abstract int get(int row, int col);
+
+    /**
+     * 写入指定位置的编码值。
+     *
+     * @param row 行索引
+     * @param col 列索引
+     * @param value 单字节编码值
+     */
+    abstract void set(int row, int col, int value);
+
+    boolean isMine(int row, int col) {
+        return (get(row, col) & MINE_BIT) != 0;
+    }
+
+    boolean isRevealed(int row, int col) {
+        return (get(row, col) & REVEALED_BIT) != 0;
+    }
+
+    Cell.MarkState getMarkState(int row, int col) {
+        return markOf(get(row, col));
+    }
+
+    int getNeighborMineCount(int row, int col) {
+        return countOf(get(row, col));
+    }
+
+    void setMine(int row, int col, boolean isMine) {
+        int value = get(row, col);
+        set(row, col, isMine ? value | MINE_BIT : value & ~MINE_BIT);
+    }
+
+    void setNeighborMineCount(int row, int col, int count) {
+        set(row, col, (get(row, col) & LOW_BITS_MASK) | (count << COUNT_SHIFT));
+    }
+
+    /**
+     * 计算所有非雷格子的周围雷数。
+     */
+    void calculateNumbers() {
+        calculateNumbers(0, rows);
+    }
+
+    /**
+     * 计算 [fromRow, toRow) 行内所有非雷格子的周围雷数，默认实现逐格读取 3x3 邻域。
+     * <p>
+     * 只写入区间内的格子、只读取雷位，因此不相交的行区间可以由不同线程同时计算。
+     *
+     * @param fromRow 起始行（包含）
+     * @param toRow 结束行（不包含）
+     */
+    void calculateNumbers(int fromRow, int toRow) {
+        for (int row = fromRow; row < toRow; row++) {
+            int rowStart = Math.max(0, row - 1);
+            int rowEnd = Math.min(rows - 1, row + 1);
+            for (int col = 0; col < cols; col++) {
+                if (isMine(row, col)) {
+                    continue;
+                }
+                int colStart = Math.max(0, col - 1);
+                int colEnd = Math.min(cols - 1, col + 1);
+                int mineCount = 0;
+                for (int r = rowStart; r <= rowEnd; r++) {
+                    for (int c = colStart; c <= colEnd; c++) {
+                        mineCount += get(r, c) & MINE_BIT;
+                    }
+                }
+                setNeighborMineCount(row, col, mineCount);
+            }
+        }
+    }
+
+    /**
+     * 统计指定格子周围 8 格中的雷数，默认实现逐格检查边界。
+     *
+     * @param row 行索引
+     * @param col 列索引
+     * @return 周围的雷数
+     */
+    int countMinesAround(int row, int col) {
+        int mineCount = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if (r != row || c != col) {
+                    mineCount += get(r, c) & MINE_BIT;
+                }
+            }
+        }
+        return mineCount;
+    }
+
+    /**
+     * 统计指定格子周围 8 格中插旗的格子数，默认实现逐格检查边界。
+     *
+     * @param row 行索引
+     * @param col 列索引
+     * @return 周围插旗的格子数
+     */
+    int countFlaggedAround(int row, int col) {
+        int flagCount = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if ((r != row || c != col) && (get(r, c) & MARK_MASK) == FLAGGED_MARK) {
+                    flagCount++;
+                }
+            }
+        }
+        return flagCount;
+    }
+
+    /**
+     * 从指定格子开始洪水填充：揭示该格，如果它是空白格，继续揭示相连的空白区域及其边缘的数字格。
+     * 已揭示和插旗的格子会被跳过，问号在揭示时清除。默认实现按坐标展开并逐格检查边界。
+     *
+     * @param row 行索引
+     * @param col 列索引
+     * @return 本次揭示的格子数
+     */
+    int floodReveal(int row, int col) {
+        if (!revealAt(row, col)) {
+            return 0;
+        }
+        int revealed = 1;
+        int value = get(row, col);
+        if ((value & MINE_BIT) != 0 || countOf(value) != 0) {
+            return revealed;
+        }
+        // 每格只在揭示时入栈一次，栈中交替存放行和列
+        IntStack stack = floodStack;
+        stack.push(row);
+        stack.push(col);
+        while (!stack.isEmpty()) {
+            int currentCol = stack.pop();
+            int currentRow = stack.pop();
+            for (int r = Math.max(0, currentRow - 1); r <= Math.min(rows - 1, currentRow + 1); r++) {
+                for (int c = Math.max(0, currentCol - 1); c <= Math.min(cols - 1, currentCol + 1); c++) {
+                    // 空白格的邻居都不是雷
+                    if (!revealAt(r, c)) {
+                        continue;
+                    }
+                    revealed++;
+                    if (countOf(get(r, c)) == 0) {
+                        stack.push(r);
+                        stack.push(c);
+                    }
+                }
+            }
+        }
+        return revealed;
+    }
+
+    final boolean revealAt(int row, int col) {
+        int value = get(row, col);
+        if ((value & REVEALED_BIT) != 0 || (value & MARK_MASK) == FLAGGED_MARK) {
+            return false;
+        }
+        // 揭示时清除问号标记
+        set(row, col, (value & ~MARK_MASK) | REVEALED_BIT);
+        onReveal(row, col, value);
+        return true;
+    }
+
+    /**
+     * 存储内部的批量操作揭示格子后调用，通知快照瓦片、区域统计和变化回调。
+     */
+    final void onReveal(int row, int col, int previousValue) {
+        if (snapshotTiles != null) {
+            snapshotTiles.markDirty(row, col);
+        }
+        if (regionSummary != null) {
+            regionSummary.revealed(row, col, 1);
+        }
+        if (changeListener != null) {
+            changeListener.squareChanged(row, col, markOf(previousValue));
+        }
+    }
+
+    /**
+     * 是否支持按行区间并发计算数字。
+     *
+     * @return 默认返回 true
+     */
+    boolean supportsParallelNumbers() {
+        return true;
+    }
+
+    /**
+     * 统计已揭示的格子数，默认实现逐格扫描。
+     *
+     * @return 已揭示的格子数
+     */
+    int countRevealed() {
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (isRevealed(row, col)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 统计插旗的格子数，默认实现逐格扫描。
+     *
+     * @return 插旗的格子数
+     */
+    int countFlagged() {
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (getMarkState(row, col) == Cell.MarkState.FLAGGED) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 持久化后端在打开时恢复的已揭示计数，默认 0。
+     *
+     * @return 已保存的已揭示计数
+     */
+    int savedRevealedCount() {
+        return 0;
+    }
+
+    /**
+     * 持久化后端在打开时恢复的已标记计数，默认 0。
+     *
+     * @return 已保存的已标记计数
+     */
+    int savedFlaggedCount() {
+        return 0;
+    }
+
+    /**
+     * 计数器变化时由 Board 调用，持久化后端借此把计数器和格子一起保存，默认不做任何事。
+     *
+     * @param revealedCount 已揭示计数
+     * @param flaggedCount 已标记计数
+     */
+    void saveCounts(int revealedCount, int flaggedCount) {
+    }
+
+    /**
+     * 持久化后端在打开时恢复的状态位（{@link #STATUS_LAYOUT}、{@link #STATUS_MINE_REVEALED}），默认 0。
+     *
+     * @return 已保存的状态位
+     */
+    int savedStatus() {
+        return 0;
+    }
+
+    /**
+     * 状态位变化时由 Board 调用，持久化后端借此把状态位和格子一起保存，默认不做任何事。
+     *
+     * @param status 状态位
+     */
+    void saveStatus(int status) {
+    }
+
+    static Cell.MarkState markOf(int value) {
+        return MARK_STATES[(value & MARK_MASK) >>> MARK_SHIFT];
+    }
+
+    static int countOf(int value) {
+        return (value & 0xFF) >>> COUNT_SHIFT;
+    }
+}
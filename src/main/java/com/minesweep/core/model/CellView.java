@@ -0,0 +1,70 @@
+package com.minesweep.core.model;
+
+/**
+ * CellView 是非 OBJECT 存储模式下棋盘某一格的只读视图。
+ * <p>
+ * 视图不持有状态，每次读取都直接访问棋盘的存储后端。公开的修改方法会抛出异常，
+ * 游戏逻辑应通过 Board 上的对应方法修改格子；包内的 setMine 仍然写回棋盘，
+ * 以便现有的地图生成器继续工作。
+ */
+final class CellView extends Cell {
+    private final CellStore store;
+    private final int row;
+    private final int col;
+
+    CellView(CellStore store, int row, int col) {
+        this.store = store;
+        this.row = row;
+        this.col = col;
+    }
+
+    @Override
+    public boolean reveal() {
+        throw new UnsupportedOperationException("Cell view is read-only");
+    }
+
+    @Override
+    public void cycleMark(boolean questionEnabled) {
+        throw new UnsupportedOperationException("Cell view is read-only");
+    }
+
+    @Override
+    public boolean isMine() {
+        return store.isMine(row, col);
+    }
+
+    @Override
+    public boolean isRevealed() {
+        return store.isRevealed(row, col);
+    }
+
+    @Override
+    public boolean isFlagged() {
+        return getMarkState() == MarkState.FLAGGED;
+    }
+
+    @Override
+    public boolean isQuestioned() {
+        return getMarkState() == MarkState.QUESTIONED;
+    }
+
+    @Override
+    public int getNeighborMineCount() {
+        return store.getNeighborMineCount(row, col);
+    }
+
+    @Override
+    void setMine(boolean isMine) {
+        store.setMine(row, col, isMine);
+    }
+
+    @Override
+    void setNeighborMineCount(int neighborMineCount) {
+        store.setNeighborMineCount(row, col, neighborMineCount);
+    }
+
+    @Override
+    public MarkState getMarkState() {
+        return store.getMarkState(row, col);
+    }
+}
@@ -0,0 +1,337 @@
+package com.minesweep.core.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * ChunkedCellStore 把棋盘划分为 64x64 的区块，只在需要时创建区块。
+ * <p>
+ * 每个区块的雷位由布雷种子和区块坐标确定性地生成，恰好包含 minesPerChunk 个雷
+ * （首次点击的 3x3 安全区除外），以 64 个 long 的位图缓存。揭示和标记状态只在区块
+ * 第一次被写入时创建；读取从未写入过的区块时直接按“未揭示、无标记”回答，
+ * 周围雷数由相邻区块的雷位即时算出，因此洪水填充可以跨越区块边界而不创建未探索的区块。
+ * <p>
+ * 区块表以 long 为键、不装箱。雷位只在写入时缓存：区块第一次被写入时缓存它和相邻 8 个区块的雷位。
+ * 只读访问未缓存的区块时按种子即时生成雷位，不写入区块表，因此只读访问不会修改共享的区块表。
+ * 每个线程按区块坐标模 3 保留 3x3 个即时生成的区块，跨越区块边界的 3x3 邻域不会反复生成同一个区块。
+ * 只查询揭示和标记状态时只读状态区块，不生成雷位。
+ */
+final class ChunkedCellStore extends CellStore {
+    static final int CHUNK_SHIFT = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_AREA = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final long[] NO_MINES = new long[CHUNK_SIZE];
+
+    private final int minesPerChunk;
+    private final LongHashMap<long[]> mineChunks = new LongHashMap<>();
+    private final LongHashMap<byte[]> stateChunks = new LongHashMap<>();
+    // 只读访问时即时生成的区块雷位，每个线程缓存一个 3x3 区块窗口
+    private final ThreadLocal<TransientChunks> transientChunks = ThreadLocal.withInitial(TransientChunks::new);
+    private boolean seeded;
+    private long seed;
+    private int safeRow;
+    private int safeCol;
+
+    ChunkedCellStore(int rows, int cols, int minesPerChunk) {
+        super(rows, cols);
+        this.minesPerChunk = minesPerChunk;
+    }
+
+    /**
+     * 设定布雷种子和首次点击位置，之后各区块的雷位才会生成。
+     */
+    void seed(long seed, int safeRow, int safeCol) {
+        if (seeded) {
+            throw new IllegalStateException("Chunked board is already seeded");
+        }
+        this.seed = seed;
+        this.safeRow = safeRow;
+        this.safeCol = safeCol;
+        this.seeded = true;
+    }
+
+    int minesPerChunk() {
+        return minesPerChunk;
+    }
+
+    /**
+     * 已创建状态的区块数，用于观察内存随探索面积的增长。
+     */
+    int materializedChunkCount() {
+        return stateChunks.size();
+    }
+
+    /**
+     * 已缓存雷位的区块数，用于确认只读访问不会写入区块表。
+     */
+    int cachedMineChunkCount() {
+        return mineChunks.size();
+    }
+
+    /**
+     * 当前线程即时生成区块雷位的次数，用于确认跨区块读取不会反复生成同一个区块。
+     */
+    int transientGenerationCount() {
+        return transientChunks.get().generated;
+    }
+
+    private static long key(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | chunkCol;
+    }
+
+    private static int localIndex(int row, int col) {
+        return ((row & CHUNK_MASK) << CHUNK_SHIFT) | (col & CHUNK_MASK);
+    }
+
+    @Override
+    int get(int row, int col) {
+        int mine = isMine(row, col) ? MINE_BIT : 0;
+        byte[] state = stateChunks.get(key(row >>> CHUNK_SHIFT, col >>> CHUNK_SHIFT));
+        if (state != null) {
+            return (state[localIndex(row, col)] & 0xFF) | mine;
+        }
+        return mine | (mine != 0 ? 0 : countAround(row, col) << COUNT_SHIFT);
+    }
+
+    /**
+     * 只读状态区块，未创建的区块按未揭示回答，不需要雷位和周围雷数。
+     */
+    @Override
+    boolean isRevealed(int row, int col) {
+        return (state(row, col) & REVEALED_BIT) != 0;
+    }
+
+    @Override
+    Cell.MarkState getMarkState(int row, int col) {
+        return markOf(state(row, col));
+    }
+
+    @Override
+    int countFlaggedAround(int row, int col) {
+        int flagCount = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if ((r != row || c != col) && (state(r, c) & MARK_MASK) == FLAGGED_MARK) {
+                    flagCount++;
+                }
+            }
+        }
+        return flagCount;
+    }
+
+    /**
+     * 读取揭示和标记位，区块未创建时返回 0（未揭示、无标记）。
+     */
+    private int state(int row, int col) {
+        byte[] state = stateChunks.get(key(row >>> CHUNK_SHIFT, col >>> CHUNK_SHIFT));
+        return state == null ? 0 : state[localIndex(row, col)] & LOW_BITS_MASK;
+    }
+
+    @Override
+    void set(int row, int col, int value) {
+        if (((value & MINE_BIT) != 0) != isMine(row, col)) {
+            throw new UnsupportedOperationException("CHUNKED boards derive mines from their seed");
+        }
+        materialize(row >>> CHUNK_SHIFT, col >>> CHUNK_SHIFT)[localIndex(row, col)] = (byte) (value & ~MINE_BIT);
+    }
+
+    @Override
+    boolean isMine(int row, int col) {
+        long[] mines = mines(row >>> CHUNK_SHIFT, col >>> CHUNK_SHIFT);
+        return ((mines[row & CHUNK_MASK] >>> (col & CHUNK_MASK)) & 1L) != 0;
+    }
+
+    @Override
+    void setMine(int row, int col, boolean isMine) {
+        throw new UnsupportedOperationException("CHUNKED boards derive mines from their seed");
+    }
+
+    /**
+     * 只重新计算已创建区块的数字，未创建的区块在读取时即时计算。
+     */
+    @Override
+    void calculateNumbers() {
+        for (int slot = 0; slot < stateChunks.capacity(); slot++) {
+            byte[] state = stateChunks.valueAt(slot);
+            if (state != null) {
+                long key = stateChunks.keyAt(slot);
+                cacheMinesAround((int) (key >>> 32), (int) key);
+                fillCounts((int) (key >>> 32), (int) key, state);
+            }
+        }
+    }
+
+    /**
+     * 区块表不是线程安全的，数字计算只能在单线程中进行。
+     */
+    @Override
+    void calculateNumbers(int fromRow, int toRow) {
+        calculateNumbers();
+    }
+
+    @Override
+    boolean supportsParallelNumbers() {
+        return false;
+    }
+
+    @Override
+    int countRevealed() {
+        int count = 0;
+        for (int slot = 0; slot < stateChunks.capacity(); slot++) {
+            byte[] state = stateChunks.valueAt(slot);
+            if (state == null) {
+                continue;
+            }
+            for (byte value : state) {
+                if ((value & REVEALED_BIT) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    int countFlagged() {
+        int count = 0;
+        for (int slot = 0; slot < stateChunks.capacity(); slot++) {
+            byte[] state = stateChunks.valueAt(slot);
+            if (state == null) {
+                continue;
+            }
+            for (byte value : state) {
+                if (markOf(value) == Cell.MarkState.FLAGGED) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private byte[] materialize(int chunkRow, int chunkCol) {
+        long key = key(chunkRow, chunkCol);
+        byte[] state = stateChunks.get(key);
+        if (state == null) {
+            cacheMinesAround(chunkRow, chunkCol);
+            state = new byte[CHUNK_AREA];
+            fillCounts(chunkRow, chunkCol, state);
+            stateChunks.put(key, state);
+        }
+        return state;
+    }
+
+    /**
+     * 缓存指定区块及其相邻 8 个区块的雷位，只在写入时调用，之后计算这些区块的数字不需要重新生成。
+     */
+    private void cacheMinesAround(int chunkRow, int chunkCol) {
+        if (!seeded) {
+            return;
+        }
+        int lastRow = (rows - 1) >>> CHUNK_SHIFT;
+        int lastCol = (cols - 1) >>> CHUNK_SHIFT;
+        for (int r = Math.max(0, chunkRow - 1); r <= Math.min(lastRow, chunkRow + 1); r++) {
+            for (int c = Math.max(0, chunkCol - 1); c <= Math.min(lastCol, chunkCol + 1); c++) {
+                long key = key(r, c);
+                if (mineChunks.get(key) == null) {
+                    mineChunks.put(key, generateMines(r, c));
+                }
+            }
+        }
+    }
+
+    /**
+     * 重新写入区块内每格的周围雷数，保留揭示和标记位。
+     */
+    private void fillCounts(int chunkRow, int chunkCol, byte[] state) {
+        int baseRow = chunkRow << CHUNK_SHIFT;
+        int baseCol = chunkCol << CHUNK_SHIFT;
+        for (int r = 0; r < CHUNK_SIZE; r++) {
+            for (int c = 0; c < CHUNK_SIZE; c++) {
+                int row = baseRow + r;
+                int col = baseCol + c;
+                int index = (r << CHUNK_SHIFT) | c;
+                int count = isMine(row, col) ? 0 : countAround(row, col);
+                state[index] = (byte) ((state[index] & LOW_BITS_MASK) | (count << COUNT_SHIFT));
+            }
+        }
+    }
+
+    private int countAround(int row, int col) {
+        int count = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                if ((r != row || c != col) && isMine(r, c)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private long[] mines(int chunkRow, int chunkCol) {
+        if (!seeded) {
+            return NO_MINES;
+        }
+        long key = key(chunkRow, chunkCol);
+        long[] mines = mineChunks.get(key);
+        if (mines != null) {
+            return mines;
+        }
+        // 未缓存的区块按种子即时生成，不写入区块表；相邻的 3x3 个区块落在不同的槽位
+        TransientChunks cached = transientChunks.get();
+        int slot = (chunkRow % 3) * 3 + chunkCol % 3;
+        if (cached.keys[slot] != key) {
+            cached.mines[slot] = generateMines(chunkRow, chunkCol);
+            cached.keys[slot] = key;
+            cached.generated++;
+        }
+        return cached.mines[slot];
+    }
+
+    /**
+     * 用由种子和区块坐标导出的随机数流，在区块的可用格子中无重试地抽取 minesPerChunk 个位置（Floyd 抽样）。
+     */
+    private long[] generateMines(int chunkRow, int chunkCol) {
+        int baseRow = chunkRow << CHUNK_SHIFT;
+        int baseCol = chunkCol << CHUNK_SHIFT;
+        int[] eligible = new int[CHUNK_AREA];
+        int eligibleCount = 0;
+        for (int index = 0; index < CHUNK_AREA; index++) {
+            int row = baseRow + (index >>> CHUNK_SHIFT);
+            int col = baseCol + (index & CHUNK_MASK);
+            if (Math.abs(row - safeRow) > 1 || Math.abs(col - safeCol) > 1) {
+                eligible[eligibleCount++] = index;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(chunkSeed(chunkRow, chunkCol));
+        long[] chosen = new long[CHUNK_SIZE];
+        long[] mines = new long[CHUNK_SIZE];
+        for (int j = eligibleCount - minesPerChunk; j < eligibleCount; j++) {
+            int pick = random.nextInt(j + 1);
+            if (((chosen[pick >>> 6] >>> pick) & 1L) != 0) {
+                pick = j;
+            }
+            chosen[pick >>> 6] |= 1L << pick;
+            int index = eligible[pick];
+            mines[index >>> CHUNK_SHIFT] |= 1L << (index & CHUNK_MASK);
+        }
+        return mines;
+    }
+
+    private long chunkSeed(int chunkRow, int chunkCol) {
+        long z = seed + chunkRow * 0x9E3779B97F4A7C15L + chunkCol * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * 一个线程即时生成的区块雷位，按 (区块行 % 3, 区块列 % 3) 分为 9 个槽位。区块键不会为负数，-1 表示槽位为空。
+     */
+    private static final class TransientChunks {
+        private final long[] keys = {-1, -1, -1, -1, -1, -1, -1, -1, -1};
+        private final long[][] mines = new long[9][];
+        private int generated;
+    }
+}
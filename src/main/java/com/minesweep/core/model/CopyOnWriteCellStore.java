@@ -0,0 +1,57 @@
+package com.minesweep.core.model;
+
+import java.util.Arrays;
+
+/**
+ * CopyOnWriteCellStore 按 64x64 瓦片存放单字节编码，多个棋盘可以共享同一批瓦片。
+ * <p>
+ * 瓦片布局与 {@link BoardSnapshot} 相同。共享的瓦片只读，第一次写入某个瓦片时才复制它，
+ * owned 位图记录哪些瓦片已经属于本存储。因为复制瓦片不是线程安全的，不支持并发计算数字。
+ */
+final class CopyOnWriteCellStore extends CellStore {
+    private final int tileCols;
+    private final byte[][] tiles;
+    private final long[] owned;
+
+    /**
+     * 用给定的瓦片创建存储，这些瓦片全部视为共享。
+     */
+    CopyOnWriteCellStore(int rows, int cols, byte[][] tiles) {
+        super(rows, cols);
+        this.tileCols = ((cols - 1) >>> SnapshotTiles.TILE_SHIFT) + 1;
+        this.tiles = tiles;
+        this.owned = new long[(tiles.length + 63) >>> 6];
+    }
+
+    private int tile(int row, int col) {
+        return (row >>> SnapshotTiles.TILE_SHIFT) * tileCols + (col >>> SnapshotTiles.TILE_SHIFT);
+    }
+
+    @Override
+    int get(int row, int col) {
+        return tiles[tile(row, col)][SnapshotTiles.offset(row, col)] & 0xFF;
+    }
+
+    @Override
+    void set(int row, int col, int value) {
+        int tile = tile(row, col);
+        if ((owned[tile >>> 6] & (1L << tile)) == 0) {
+            tiles[tile] = tiles[tile].clone();
+            owned[tile >>> 6] |= 1L << tile;
+        }
+        tiles[tile][SnapshotTiles.offset(row, col)] = (byte) value;
+    }
+
+    /**
+     * 返回与本存储共享所有瓦片的新存储，之后双方写入任何瓦片前都要先复制。
+     */
+    CopyOnWriteCellStore share() {
+        Arrays.fill(owned, 0L);
+        return new CopyOnWriteCellStore(rows, cols, tiles.clone());
+    }
+
+    @Override
+    boolean supportsParallelNumbers() {
+        return false;
+    }
+}
@@ -0,0 +1,29 @@
+package com.minesweep.core.model;
+
+import java.util.Arrays;
+
+/**
+ * IntStack 是洪水填充复用的 int 栈，容量按需翻倍且不会缩小。
+ * <p>
+ * 洪水填充在揭示格子时才把它入栈，每格最多入栈一次，因此容量不会超过棋盘格子数；
+ * 同一个实例在多次洪水填充之间复用，预热后不再分配内存。
+ */
+final class IntStack {
+    private int[] elements = new int[64];
+    private int size;
+
+    void push(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = value;
+    }
+
+    int pop() {
+        return elements[--size];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
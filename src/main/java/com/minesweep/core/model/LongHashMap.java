@@ -0,0 +1,92 @@
+package com.minesweep.core.model;
+
+/**
+ * LongHashMap 是以 long 为键的开放寻址哈希表，键不装箱，查找时不分配对象。
+ * <p>
+ * 使用线性探测，装载因子超过 1/2 时容量翻倍。值不能为 null，空槽以值为 null 表示；
+ * 不支持删除。遍历时按槽位下标访问 {@link #keyAt(int)} 和 {@link #valueAt(int)}。
+ * 该类不是线程安全的。
+ *
+ * @param <V> 值的类型
+ */
+final class LongHashMap<V> {
+    private long[] keys = new long[16];
+    private Object[] values = new Object[16];
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            Object value = values[slot];
+            if (value == null || keys[slot] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    void put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Value cannot be null");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == null) {
+            size++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 槽位数，遍历时槽位下标的上界。
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * 获取槽位中的值，空槽返回 null。
+     */
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // 乘法散列，取高位，避免行列坐标拼成的键只在低位变化时聚集
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,370 @@
+package com.minesweep.core.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * PackedCellStore 把整个网格按行优先存放在一个 byte[] 中，每格一个字节。
+ * <p>
+ * 网格四周多留一圈哨兵格，哨兵永远是“已揭示、非雷、无标记”，不计入任何统计。
+ * 棋盘内任意格子的 8 个邻居都可以用固定的下标偏移访问，数字计算、洪水填充和
+ * 邻居统计因此不需要任何边界判断。
+ */
+final class PackedCellStore extends CellStore {
+    private static final int SENTINEL = REVEALED_BIT;
+    // 前沿不少于该值时才提交给线程池，每个任务最多处理 FRONTIER_CHUNK 个前沿格子
+    private static final int PARALLEL_FRONTIER = 1024;
+    private static final int FRONTIER_CHUNK = 256;
+
+    private final byte[] cells;
+    // 一行的长度，包含左右两个哨兵
+    private final int stride;
+    // 8 个邻居相对于当前下标的偏移
+    private final int[] neighborDeltas;
+
+    PackedCellStore(int rows, int cols) {
+        super(rows, cols);
+        this.stride = cols + 2;
+        this.cells = new byte[(rows + 2) * stride];
+        this.neighborDeltas = new int[] {
+                -stride - 1, -stride, -stride + 1,
+                -1, 1,
+                stride - 1, stride, stride + 1
+        };
+        int lastRow = (rows + 1) * stride;
+        for (int col = 0; col < stride; col++) {
+            cells[col] = SENTINEL;
+            cells[lastRow + col] = SENTINEL;
+        }
+        for (int row = 1; row <= rows; row++) {
+            cells[row * stride] = SENTINEL;
+            cells[row * stride + cols + 1] = SENTINEL;
+        }
+    }
+
+    private int index(int row, int col) {
+        return (row + 1) * stride + col + 1;
+    }
+
+    @Override
+    int get(int row, int col) {
+        return cells[index(row, col)] & 0xFF;
+    }
+
+    @Override
+    void set(int row, int col, int value) {
+        cells[index(row, col)] = (byte) value;
+    }
+
+    /**
+     * 直接在 byte[] 上按行顺序扫描，哨兵不是雷，邻居无需边界判断。
+     */
+    @Override
+    void calculateNumbers(int fromRow, int toRow) {
+        for (int row = fromRow; row < toRow; row++) {
+            int base = index(row, 0);
+            for (int index = base; index < base + cols; index++) {
+                if ((cells[index] & MINE_BIT) != 0) {
+                    continue;
+                }
+                cells[index] = (byte) ((cells[index] & LOW_BITS_MASK) | (minesAround(index) << COUNT_SHIFT));
+            }
+        }
+    }
+
+    private int minesAround(int index) {
+        int mineCount = 0;
+        for (int delta : neighborDeltas) {
+            mineCount += cells[index + delta] & MINE_BIT;
+        }
+        return mineCount;
+    }
+
+    @Override
+    int countMinesAround(int row, int col) {
+        return minesAround(index(row, col));
+    }
+
+    @Override
+    int countFlaggedAround(int row, int col) {
+        int index = index(row, col);
+        int flagCount = 0;
+        for (int delta : neighborDeltas) {
+            if ((cells[index + delta] & MARK_MASK) == FLAGGED_MARK) {
+                flagCount++;
+            }
+        }
+        return flagCount;
+    }
+
+    /**
+     * 按下标展开洪水填充。哨兵已揭示，会像已揭示的格子一样被跳过。
+     */
+    @Override
+    int floodReveal(int row, int col) {
+        int start = index(row, col);
+        if (!revealAt(start)) {
+            return 0;
+        }
+        int revealed = 1;
+        if ((cells[start] & MINE_BIT) != 0 || countOf(cells[start]) != 0) {
+            return revealed;
+        }
+        // 每格只在揭示时入栈一次，已揭示位就是访问标记
+        IntStack stack = floodStack;
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            int index = stack.pop();
+            for (int delta : neighborDeltas) {
+                int neighbor = index + delta;
+                // 空白格的邻居都不是雷
+                if (!revealAt(neighbor)) {
+                    continue;
+                }
+                revealed++;
+                if (countOf(cells[neighbor]) == 0) {
+                    stack.push(neighbor);
+                }
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * 按行扫描的洪水填充，揭示结果与 {@link #floodReveal(int, int)} 相同。
+     * <p>
+     * 栈中每项是同一行内一段已揭示、尚未展开的空白格的首尾下标。出栈后先向左右延伸，
+     * 再依次揭示上下两行的相邻区间；哨兵已揭示，延伸和扫描都不需要边界判断。
+     */
+    int floodRevealScanline(int row, int col) {
+        int start = index(row, col);
+        if (!revealAt(start)) {
+            return 0;
+        }
+        int revealed = 1;
+        if ((cells[start] & MINE_BIT) != 0 || countOf(cells[start]) != 0) {
+            return revealed;
+        }
+        IntStack stack = floodStack;
+        stack.push(start);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            int last = stack.pop();
+            int first = stack.pop();
+            // 向左右延伸，遇到数字格时揭示它并停止
+            while (revealAt(first - 1)) {
+                revealed++;
+                if (countOf(cells[first - 1]) != 0) {
+                    break;
+                }
+                first--;
+            }
+            while (revealAt(last + 1)) {
+                revealed++;
+                if (countOf(cells[last + 1]) != 0) {
+                    break;
+                }
+                last++;
+            }
+            revealed += scanRun(first - 1 - stride, last + 1 - stride, stack);
+            revealed += scanRun(first - 1 + stride, last + 1 + stride, stack);
+        }
+        return revealed;
+    }
+
+    /**
+     * 揭示下标区间 [from, to] 内的格子，把新揭示的连续空白格作为一段入栈，返回揭示的格子数。
+     */
+    private int scanRun(int from, int to, IntStack stack) {
+        int revealed = 0;
+        int runStart = -1;
+        for (int index = from; index <= to; index++) {
+            if (revealAt(index)) {
+                revealed++;
+                if (countOf(cells[index]) == 0) {
+                    if (runStart < 0) {
+                        runStart = index;
+                    }
+                    continue;
+                }
+            }
+            if (runStart >= 0) {
+                stack.push(runStart);
+                stack.push(index - 1);
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            stack.push(runStart);
+            stack.push(to);
+        }
+        return revealed;
+    }
+
+    /**
+     * 按层并行展开的洪水填充，揭示结果与 {@link #floodReveal(int, int)} 相同。
+     * <p>
+     * 每一层的前沿是上一层新揭示的空白格，较大的前沿切分后交给线程池。格子通过 CAS 在
+     * 认领位图中置位来认领，只有认领成功的线程才会写入该格，因此每格最多揭示一次；
+     * 不同线程只写入不同的字节。最终揭示的格子集合只由起点和棋盘状态决定，与线程调度无关。
+     * 调用方需保证没有启用区域统计和变化回调，它们的更新不是线程安全的。快照瓦片在调用线程中按层标记：
+     * 每层揭示的格子都在该层前沿空白格的 3x3 邻域内。
+     */
+    int floodRevealParallel(int row, int col, ForkJoinPool pool) {
+        int start = index(row, col);
+        if (!revealAt(start)) {
+            return 0;
+        }
+        if ((cells[start] & MINE_BIT) != 0 || countOf(cells[start]) != 0) {
+            return 1;
+        }
+        AtomicLongArray claimed = new AtomicLongArray((cells.length + 63) >>> 6);
+        claim(claimed, start);
+        int revealed = 1;
+        int[] frontier = {start};
+        int frontierSize = 1;
+        while (frontierSize > 0) {
+            if (snapshotTiles != null) {
+                markFrontierTiles(frontier, frontierSize);
+            }
+            FrontierTask task = new FrontierTask(claimed, frontier, 0, frontierSize);
+            if (frontierSize >= PARALLEL_FRONTIER) {
+                pool.invoke(task);
+            } else {
+                task.compute();
+            }
+            revealed += task.revealed;
+            frontier = task.next;
+            frontierSize = task.nextSize;
+        }
+        return revealed;
+    }
+
+    /**
+     * 标记前沿空白格 3x3 邻域所在的瓦片。瓦片边长不小于 3，邻域四角所在的瓦片已覆盖整个邻域。
+     */
+    private void markFrontierTiles(int[] frontier, int frontierSize) {
+        for (int i = 0; i < frontierSize; i++) {
+            int row = frontier[i] / stride - 1;
+            int col = frontier[i] - (row + 1) * stride - 1;
+            int top = Math.max(0, row - 1);
+            int bottom = Math.min(rows - 1, row + 1);
+            int left = Math.max(0, col - 1);
+            int right = Math.min(cols - 1, col + 1);
+            snapshotTiles.markDirty(top, left);
+            snapshotTiles.markDirty(top, right);
+            snapshotTiles.markDirty(bottom, left);
+            snapshotTiles.markDirty(bottom, right);
+        }
+    }
+
+    private static boolean claim(AtomicLongArray claimed, int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long current;
+        do {
+            current = claimed.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    /**
+     * 展开前沿 [from, to) 内的空白格，收集新揭示的空白格作为下一层前沿。
+     */
+    private final class FrontierTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicLongArray claimed;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        int revealed;
+        int[] next;
+        int nextSize;
+
+        FrontierTask(AtomicLongArray claimed, int[] frontier, int from, int to) {
+            this.claimed = claimed;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > FRONTIER_CHUNK) {
+                int middle = (from + to) >>> 1;
+                FrontierTask left = new FrontierTask(claimed, frontier, from, middle);
+                FrontierTask right = new FrontierTask(claimed, frontier, middle, to);
+                invokeAll(left, right);
+                revealed = left.revealed + right.revealed;
+                next = Arrays.copyOf(left.next, left.nextSize + right.nextSize);
+                System.arraycopy(right.next, 0, next, left.nextSize, right.nextSize);
+                nextSize = left.nextSize + right.nextSize;
+                return;
+            }
+            next = new int[64];
+            for (int i = from; i < to; i++) {
+                int index = frontier[i];
+                for (int delta : neighborDeltas) {
+                    int neighbor = index + delta;
+                    int value = cells[neighbor];
+                    // 哨兵和已揭示的格子都带有已揭示位；空白格的邻居都不是雷
+                    if ((value & REVEALED_BIT) != 0 || (value & MARK_MASK) == FLAGGED_MARK
+                            || !claim(claimed, neighbor)) {
+                        continue;
+                    }
+                    cells[neighbor] = (byte) ((value & ~MARK_MASK) | REVEALED_BIT);
+                    revealed++;
+                    if (countOf(value) == 0) {
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize * 2);
+                        }
+                        next[nextSize++] = neighbor;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean revealAt(int index) {
+        int value = cells[index];
+        if ((value & REVEALED_BIT) != 0 || (value & MARK_MASK) == FLAGGED_MARK) {
+            return false;
+        }
+        // 揭示时清除问号标记
+        cells[index] = (byte) ((value & ~MARK_MASK) | REVEALED_BIT);
+        if (snapshotTiles != null || regionSummary != null || changeListener != null) {
+            int row = index / stride - 1;
+            onReveal(row, index - (row + 1) * stride - 1, value);
+        }
+        return true;
+    }
+
+    @Override
+    int countRevealed() {
+        return countInterior(REVEALED_BIT, REVEALED_BIT);
+    }
+
+    @Override
+    int countFlagged() {
+        return countInterior(MARK_MASK, FLAGGED_MARK);
+    }
+
+    private int countInterior(int mask, int expected) {
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            int base = index(row, 0);
+            for (int index = base; index < base + cols; index++) {
+                if ((cells[index] & mask) == expected) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,109 @@
+package com.minesweep.core.model;
+
+/**
+ * RegionSummary 用两棵二维 Fenwick 树（树状数组）维护已揭示和插旗格子的分布，
+ * 单格更新和任意矩形计数都是 O(log rows * log cols)。
+ * <p>
+ * 每棵树每格一个 int，树下标 (i, j) 从 1 开始，存放在 (i - 1) * cols + (j - 1) 处。
+ */
+final class RegionSummary {
+    private final int rows;
+    private final int cols;
+    private final int[] revealed;
+    private final int[] flagged;
+
+    RegionSummary(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.revealed = new int[rows * cols];
+        this.flagged = new int[rows * cols];
+    }
+
+    /**
+     * 根据棋盘当前状态线性时间建树。
+     */
+    static RegionSummary of(Board board) {
+        RegionSummary summary = new RegionSummary(board.getRows(), board.getCols());
+        int cols = summary.cols;
+        for (int row = 0; row < summary.rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int value = board.encodedValue(row, col);
+                if ((value & CellStore.REVEALED_BIT) != 0) {
+                    summary.revealed[row * cols + col] = 1;
+                }
+                if ((value & CellStore.MARK_MASK) == CellStore.FLAGGED_MARK) {
+                    summary.flagged[row * cols + col] = 1;
+                }
+            }
+        }
+        summary.build(summary.revealed);
+        summary.build(summary.flagged);
+        return summary;
+    }
+
+    // 先沿列方向、再沿行方向把每个节点累加到父节点
+    private void build(int[] tree) {
+        for (int i = 1; i <= rows; i++) {
+            int base = (i - 1) * cols - 1;
+            for (int j = 1; j <= cols; j++) {
+                int parent = j + (j & -j);
+                if (parent <= cols) {
+                    tree[base + parent] += tree[base + j];
+                }
+            }
+        }
+        for (int i = 1; i <= rows; i++) {
+            int parent = i + (i & -i);
+            if (parent > rows) {
+                continue;
+            }
+            int base = (i - 1) * cols;
+            int parentBase = (parent - 1) * cols;
+            for (int j = 0; j < cols; j++) {
+                tree[parentBase + j] += tree[base + j];
+            }
+        }
+    }
+
+    void revealed(int row, int col, int delta) {
+        add(revealed, row, col, delta);
+    }
+
+    void flagged(int row, int col, int delta) {
+        add(flagged, row, col, delta);
+    }
+
+    int countRevealed(int fromRow, int fromCol, int toRow, int toCol) {
+        return count(revealed, fromRow, fromCol, toRow, toCol);
+    }
+
+    int countFlagged(int fromRow, int fromCol, int toRow, int toCol) {
+        return count(flagged, fromRow, fromCol, toRow, toCol);
+    }
+
+    private void add(int[] tree, int row, int col, int delta) {
+        for (int i = row + 1; i <= rows; i += i & -i) {
+            int base = (i - 1) * cols - 1;
+            for (int j = col + 1; j <= cols; j += j & -j) {
+                tree[base + j] += delta;
+            }
+        }
+    }
+
+    private int count(int[] tree, int fromRow, int fromCol, int toRow, int toCol) {
+        return prefix(tree, toRow, toCol) - prefix(tree, fromRow, toCol)
+                - prefix(tree, toRow, fromCol) + prefix(tree, fromRow, fromCol);
+    }
+
+    // [0, row) x [0, col) 内的计数
+    private int prefix(int[] tree, int row, int col) {
+        int sum = 0;
+        for (int i = row; i > 0; i -= i & -i) {
+            int base = (i - 1) * cols - 1;
+            for (int j = col; j > 0; j -= j & -j) {
+                sum += tree[base + j];
+            }
+        }
+        return sum;
+    }
+}
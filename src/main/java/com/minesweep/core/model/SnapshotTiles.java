@@ -0,0 +1,88 @@
+package com.minesweep.core.model;
+
+import java.util.Arrays;
+
+/**
+ * SnapshotTiles 记录棋盘自上一个快照以来被修改过的 64x64 瓦片，并据此生成新快照。
+ * <p>
+ * 已发布的瓦片永远不会被修改；生成新快照时只为脏瓦片分配新数组，其余瓦片直接沿用。
+ * 该类只能在修改棋盘的线程中使用。
+ */
+final class SnapshotTiles {
+    static final int TILE_SHIFT = 6;
+    static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private final int tileCols;
+    private final long[] dirty;
+    private byte[][] tiles;
+    private boolean anyDirty;
+
+    SnapshotTiles(int rows, int cols) {
+        this.tileCols = ((cols - 1) >>> TILE_SHIFT) + 1;
+        int tileCount = (((rows - 1) >>> TILE_SHIFT) + 1) * tileCols;
+        this.dirty = new long[(tileCount + 63) >>> 6];
+        this.tiles = new byte[tileCount][];
+        markAll();
+    }
+
+    static int offset(int row, int col) {
+        return ((row & TILE_MASK) << TILE_SHIFT) | (col & TILE_MASK);
+    }
+
+    void markDirty(int row, int col) {
+        int tile = (row >>> TILE_SHIFT) * tileCols + (col >>> TILE_SHIFT);
+        dirty[tile >>> 6] |= 1L << tile;
+        anyDirty = true;
+    }
+
+    void markAll() {
+        Arrays.fill(dirty, -1L);
+        anyDirty = true;
+    }
+
+    /**
+     * 重新编码所有脏瓦片并返回新的快照。
+     */
+    BoardSnapshot publish(Board board, long version) {
+        return new BoardSnapshot(version, board.getRows(), board.getCols(), board.getTotalMines(),
+                board.getRevealedCount(), board.getFlaggedCount(), tileCols, update(board));
+    }
+
+    /**
+     * 重新编码所有脏瓦片并返回当前的瓦片数组，调用者不得修改其中的瓦片。
+     */
+    byte[][] update(Board board) {
+        if (anyDirty) {
+            byte[][] next = tiles.clone();
+            for (int word = 0; word < dirty.length; word++) {
+                long bits = dirty[word];
+                while (bits != 0) {
+                    int tile = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (tile < next.length) {
+                        next[tile] = encodeTile(board, tile);
+                    }
+                }
+            }
+            Arrays.fill(dirty, 0L);
+            anyDirty = false;
+            tiles = next;
+        }
+        return tiles;
+    }
+
+    private byte[] encodeTile(Board board, int tile) {
+        int firstRow = (tile / tileCols) << TILE_SHIFT;
+        int firstCol = (tile % tileCols) << TILE_SHIFT;
+        int lastRow = Math.min(board.getRows(), firstRow + TILE_SIZE);
+        int lastCol = Math.min(board.getCols(), firstCol + TILE_SIZE);
+        byte[] encoded = new byte[TILE_SIZE * TILE_SIZE];
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int col = firstCol; col < lastCol; col++) {
+                encoded[offset(row, col)] = (byte) board.encodedValue(row, col);
+            }
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,177 @@
+package com.minesweep.core.model;
+
+/**
+ * ZeroRegions 保存棋盘上所有空白区域的标号。
+ * <p>
+ * 空白区域是 8 连通的、周围无雷的非雷格子集合。每个区域的成员包括区域内的空白格和与它们相邻的
+ * 数字格，按区域连续存放在 members 中（前缀和下标在 regionStart 中）。一个数字格可能同时属于
+ * 多个区域。标号用并查集在一次线性扫描中完成，每格额外占用一个 int。
+ */
+final class ZeroRegions {
+    private final int cols;
+    // 每格所属空白区域的编号，从 1 开始；0 表示不是空白格
+    private final int[] labels;
+    private final int[] regionStart;
+    private final int[] members;
+
+    private ZeroRegions(int cols, int[] labels, int[] regionStart, int[] members) {
+        this.cols = cols;
+        this.labels = labels;
+        this.regionStart = regionStart;
+        this.members = members;
+    }
+
+    /**
+     * 根据棋盘当前的雷位和数字为所有空白区域标号。
+     */
+    static ZeroRegions of(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int size = rows * cols;
+
+        // 第一遍：并查集合并与左、左上、上、右上相邻的空白格，-1 表示不是空白格
+        int[] parent = new int[size];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int index = row * cols + col;
+                int value = board.encodedValue(row, col);
+                if ((value & CellStore.MINE_BIT) != 0 || CellStore.countOf(value) != 0) {
+                    parent[index] = -1;
+                    continue;
+                }
+                parent[index] = index;
+                if (col > 0) {
+                    union(parent, index, index - 1);
+                }
+                if (row > 0) {
+                    int up = index - cols;
+                    if (col > 0) {
+                        union(parent, index, up - 1);
+                    }
+                    union(parent, index, up);
+                    if (col < cols - 1) {
+                        union(parent, index, up + 1);
+                    }
+                }
+            }
+        }
+
+        // 第二遍：按首次出现的顺序为每个根分配区域编号
+        int[] labels = new int[size];
+        int regionCount = 0;
+        for (int index = 0; index < size; index++) {
+            if (parent[index] < 0) {
+                continue;
+            }
+            int root = find(parent, index);
+            if (labels[root] == 0) {
+                labels[root] = ++regionCount;
+            }
+            labels[index] = labels[root];
+        }
+
+        // 第三遍统计每个区域的成员数，换算成起始下标后第四遍填入成员
+        int[] regionStart = new int[regionCount + 2];
+        collectMembers(board, parent, labels, regionStart, null);
+        int total = 0;
+        for (int region = 1; region <= regionCount + 1; region++) {
+            int count = regionStart[region];
+            regionStart[region] = total;
+            total += count;
+        }
+        int[] members = new int[total];
+        collectMembers(board, parent, labels, regionStart.clone(), members);
+        return new ZeroRegions(cols, labels, regionStart, members);
+    }
+
+    /**
+     * 遍历每个区域的成员；members 为 null 时只在 cursor 中计数，否则按 cursor 写入成员并推进。
+     */
+    private static void collectMembers(Board board, int[] parent, int[] labels, int[] cursor, int[] members) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int[] nearby = new int[8];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int index = row * cols + col;
+                if (labels[index] != 0) {
+                    add(cursor, members, labels[index], index);
+                    continue;
+                }
+                if (parent[index] >= 0 || board.isMine(row, col)) {
+                    continue;
+                }
+                // 数字格：加入周围每个不同的空白区域
+                int distinct = 0;
+                for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                        int label = labels[r * cols + c];
+                        if (label != 0 && !contains(nearby, distinct, label)) {
+                            nearby[distinct++] = label;
+                            add(cursor, members, label, index);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void add(int[] cursor, int[] members, int region, int index) {
+        if (members == null) {
+            cursor[region]++;
+        } else {
+            members[cursor[region]++] = index;
+        }
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void union(int[] parent, int index, int neighbor) {
+        if (parent[neighbor] < 0) {
+            return;
+        }
+        int a = find(parent, index);
+        int b = find(parent, neighbor);
+        if (a != b) {
+            parent[Math.max(a, b)] = Math.min(a, b);
+        }
+    }
+
+    private static int find(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    /**
+     * 获取指定格子所属的空白区域编号，不是空白格时返回 0。
+     */
+    int regionOf(int row, int col) {
+        return labels[row * cols + col];
+    }
+
+    int start(int region) {
+        return regionStart[region];
+    }
+
+    int end(int region) {
+        return regionStart[region + 1];
+    }
+
+    int member(int position) {
+        return members[position];
+    }
+
+    boolean isZero(int index, int region) {
+        return labels[index] == region;
+    }
+}
@@ -0,0 +1,101 @@
+package com.minesweep.benchmark;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.logic.GameEngine;
+import com.minesweep.core.model.Board;
+
+/**
+ * BatchBenchmark 比较 GameEngine.executeBatch 与逐条调用 reveal、cycleMark、chord 执行同一批命令的耗时。
+ * <p>
+ * 命令对已揭示的格子做 Chord 和重复揭示，对未揭示的格子连续切换两次标记，执行后棋盘回到原状，
+ * 因此每轮可以重复执行同一批命令。分别在未启用和启用快照时测量。不属于单元测试，需在 mvn test-compile 后手动运行：
+ * <pre>
+ * java -Xmx4g -cp target/classes:target/test-classes com.minesweep.benchmark.BatchBenchmark
+ * </pre>
+ */
+public class BatchBenchmark {
+    private static final int SIZE = 480;
+    private static final int MINES = SIZE * SIZE / 5;
+    private static final int BATCH_SIZE = 4096;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURE_ROUNDS = 5_000;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %-8s %12s%n", "snapshots", "mode", "ns/command");
+        for (boolean snapshots : new boolean[] {false, true}) {
+            GameEngine engine = new GameEngine(new Board(SIZE, SIZE, MINES, Board.StorageMode.PACKED),
+                    new RandomMapGenerator(), false);
+            engine.reveal(SIZE / 2, SIZE / 2);
+            if (snapshots) {
+                engine.enableSnapshots();
+            }
+            int[] commands = commands(engine.getBoard());
+            System.out.printf("%-10s %-8s %12.1f%n", snapshots, "loop", measure(engine, commands, false));
+            System.out.printf("%-10s %-8s %12.1f%n", snapshots, "batch", measure(engine, commands, true));
+        }
+    }
+
+    /**
+     * 在揭示区域附近取格子生成命令，返回按 (操作码, 行, 列) 排列的数组。
+     */
+    private static int[] commands(Board board) {
+        int[] commands = new int[BATCH_SIZE * 3];
+        int n = 0;
+        for (int i = 0; n < BATCH_SIZE; i++) {
+            int row = SIZE / 2 - 32 + (i / 64) % 64;
+            int col = SIZE / 2 - 32 + i % 64;
+            if (board.isRevealed(row, col)) {
+                n = add(commands, n, board.getNeighborMineCount(row, col) > 0 ? GameEngine.OP_CHORD : GameEngine.OP_REVEAL,
+                        row, col);
+            } else if (n + 1 < BATCH_SIZE) {
+                n = add(commands, n, GameEngine.OP_CYCLE_MARK, row, col);
+                n = add(commands, n, GameEngine.OP_CYCLE_MARK, row, col);
+            }
+        }
+        return commands;
+    }
+
+    private static int add(int[] commands, int n, int opcode, int row, int col) {
+        commands[n * 3] = opcode;
+        commands[n * 3 + 1] = row;
+        commands[n * 3 + 2] = col;
+        return n + 1;
+    }
+
+    /**
+     * 返回每条命令的平均纳秒数。
+     */
+    private static double measure(GameEngine engine, int[] commands, boolean batched) {
+        byte[] outcomes = new byte[BATCH_SIZE];
+        long sink = 0;
+        long start = 0;
+        for (int i = 0; i < WARMUP_ROUNDS + MEASURE_ROUNDS; i++) {
+            if (i == WARMUP_ROUNDS) {
+                start = System.nanoTime();
+            }
+            if (batched) {
+                sink += engine.executeBatch(commands, outcomes);
+            } else {
+                for (int c = 0; c < commands.length; c += 3) {
+                    sink += execute(engine, commands[c], commands[c + 1], commands[c + 2]);
+                }
+            }
+        }
+        double nanos = (System.nanoTime() - start) / ((double) MEASURE_ROUNDS * BATCH_SIZE);
+        if (sink == 42) {
+            System.out.println();
+        }
+        return nanos;
+    }
+
+    private static int execute(GameEngine engine, int opcode, int row, int col) {
+        if (opcode == GameEngine.OP_REVEAL) {
+            return engine.reveal(row, col) ? 1 : 0;
+        }
+        if (opcode == GameEngine.OP_CHORD) {
+            return engine.chord(row, col) ? 1 : 0;
+        }
+        engine.cycleMark(row, col);
+        return 1;
+    }
+}
@@ -0,0 +1,47 @@
+package com.minesweep.benchmark;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.model.Board;
+
+/**
+ * CalculateNumbersBenchmark 比较不同存储方式下 Board.calculateNumbers() 的耗时。
+ * <p>
+ * 不属于单元测试，需在 mvn test-compile 后手动运行：
+ * <pre>
+ * java -cp target/classes:target/test-classes com.minesweep.benchmark.CalculateNumbersBenchmark
+ * </pre>
+ */
+public class CalculateNumbersBenchmark {
+    private static final int[] SIZES = {100, 1000, 2000};
+    private static final double MINE_DENSITY = 0.2;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 10;
+    // MAPPED 和 CHUNKED 只能通过工厂方法创建，不参与比较
+    private static final Board.StorageMode[] STORAGE_MODES = {
+            Board.StorageMode.OBJECT,
+            Board.StorageMode.PACKED,
+            Board.StorageMode.BITBOARD,
+            Board.StorageMode.OFF_HEAP
+    };
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %-10s %12s %12s%n", "size", "storage", "ms/op", "ns/cell");
+        for (int size : SIZES) {
+            for (Board.StorageMode storageMode : STORAGE_MODES) {
+                Board board = new Board(size, size, (int) (size * size * MINE_DENSITY), storageMode);
+                new RandomMapGenerator().generate(board, size / 2, size / 2);
+
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    board.calculateNumbers();
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < MEASURE_ROUNDS; i++) {
+                    board.calculateNumbers();
+                }
+                double nanosPerOp = (System.nanoTime() - start) / (double) MEASURE_ROUNDS;
+                System.out.printf("%-10s %-10s %12.3f %12.3f%n", size + "x" + size, storageMode,
+                        nanosPerOp / 1_000_000, nanosPerOp / ((long) size * size));
+            }
+        }
+    }
+}
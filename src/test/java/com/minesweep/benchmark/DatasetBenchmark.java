@@ -0,0 +1,42 @@
+package com.minesweep.benchmark;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.logic.BoardDataset;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * DatasetBenchmark 测量 BoardDataset 在公共 ForkJoinPool 上批量生成高级（16x30，99 雷）地图的吞吐量，
+ * 以及从映射文件读回棋盘的速度。
+ * <p>
+ * 不属于单元测试，需在 mvn test-compile 后手动运行：
+ * <pre>
+ * java -cp target/classes:target/test-classes com.minesweep.benchmark.DatasetBenchmark [地图数]
+ * </pre>
+ */
+public class DatasetBenchmark {
+    public static void main(String[] args) throws Exception {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 2_000_000L;
+        Path file = Files.createTempFile("minesweep-dataset", ".bin");
+        try {
+            long start = System.nanoTime();
+            BoardDataset.generate(file, 16, 30, 99, 8, 15, count, new RandomMapGenerator(), 1L);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("generated %d boards in %.2f s: %.2f M boards/min, %d MB%n", count, seconds,
+                    count / seconds * 60 / 1e6, Files.size(file) >> 20);
+
+            BoardDataset dataset = BoardDataset.open(file);
+            long sink = 0;
+            start = System.nanoTime();
+            for (long index = 0; index < dataset.size(); index++) {
+                sink += dataset.getBoard(index).getNeighborMineCount(0, 0);
+            }
+            seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("read %d boards in %.2f s: %.2f M boards/min (%d)%n", count, seconds,
+                    count / seconds * 60 / 1e6, sink);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
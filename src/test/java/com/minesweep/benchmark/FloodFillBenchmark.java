@@ -0,0 +1,61 @@
+package com.minesweep.benchmark;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.model.Board;
+
+/**
+ * FloodFillBenchmark 比较低雷密度棋盘上逐格展开和按行扫描两种洪水填充的耗时。
+ * <p>
+ * 每轮在新生成的棋盘中心做一次洪水填充，只计时填充本身。不属于单元测试，需在 mvn test-compile 后手动运行：
+ * <pre>
+ * java -Xmx4g -cp target/classes:target/test-classes com.minesweep.benchmark.FloodFillBenchmark
+ * </pre>
+ */
+public class FloodFillBenchmark {
+    private static final int SIZE = 2000;
+    private static final double[] MINE_DENSITIES = {0.0, 0.01, 0.05, 0.1};
+    private static final Board.StorageMode[] STORAGE_MODES = {
+            Board.StorageMode.OBJECT,
+            Board.StorageMode.PACKED,
+            Board.StorageMode.BITBOARD
+    };
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.printf("%-8s %-10s %-10s %12s %12s %12s%n",
+                "density", "storage", "strategy", "revealed", "ms/op", "ns/square");
+        for (double density : MINE_DENSITIES) {
+            for (Board.StorageMode storageMode : STORAGE_MODES) {
+                for (Board.FloodFillStrategy strategy : Board.FloodFillStrategy.values()) {
+                    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                        floodOnce(density, storageMode, strategy);
+                    }
+                    long nanos = 0;
+                    int revealed = 0;
+                    for (int i = 0; i < MEASURE_ROUNDS; i++) {
+                        long[] result = floodOnce(density, storageMode, strategy);
+                        nanos += result[0];
+                        revealed = (int) result[1];
+                    }
+                    double nanosPerOp = nanos / (double) MEASURE_ROUNDS;
+                    System.out.printf("%-8.2f %-10s %-10s %12d %12.3f %12.3f%n", density, storageMode, strategy,
+                            revealed, nanosPerOp / 1_000_000, revealed == 0 ? 0 : nanosPerOp / revealed);
+                }
+            }
+        }
+    }
+
+    /**
+     * 返回 {耗时纳秒, 揭示格子数}。
+     */
+    private static long[] floodOnce(double density, Board.StorageMode storageMode, Board.FloodFillStrategy strategy) {
+        Board board = new Board(SIZE, SIZE, (int) (SIZE * SIZE * density), storageMode);
+        board.setFloodFillStrategy(strategy);
+        new RandomMapGenerator().generate(board, SIZE / 2, SIZE / 2);
+        board.calculateNumbers();
+        long start = System.nanoTime();
+        int revealed = board.floodReveal(SIZE / 2, SIZE / 2);
+        return new long[]{System.nanoTime() - start, revealed};
+    }
+}
@@ -0,0 +1,73 @@
+package com.minesweep.benchmark;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.logic.GameEngine;
+import com.minesweep.core.logic.GameState;
+import com.minesweep.core.model.Board;
+
+/**
+ * ForkBenchmark 测量 GameEngine.fork 加一次揭示的耗时，分别从 PACKED 引擎和已经派生过的
+ * COPY_ON_WRITE 引擎派生。从 PACKED 第一次派生时编码整个棋盘，之后只重新编码修改过的瓦片，
+ * 因此每轮还在 PACKED 引擎上揭示一个格子，让下一次派生有瓦片要重新编码。
+ * <p>
+ * 不属于单元测试，需在 mvn test-compile 后手动运行：
+ * <pre>
+ * java -Xmx4g -cp target/classes:target/test-classes com.minesweep.benchmark.ForkBenchmark
+ * </pre>
+ */
+public class ForkBenchmark {
+    private static final int[][] SIZES = {{16, 30, 99}, {1000, 1000, 150_000}, {2000, 2000, 600_000}};
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURE_ROUNDS = 100_000;
+
+    public static void main(String[] args) {
+        System.out.printf("%-12s %-14s %12s%n", "board", "source", "ns/fork");
+        for (int[] size : SIZES) {
+            GameEngine engine = new GameEngine(new Board(size[0], size[1], size[2], Board.StorageMode.PACKED),
+                    new RandomMapGenerator());
+            engine.reveal(size[0] / 2, size[1] / 2);
+            GameEngine forked = engine.fork();
+            String name = size[0] + "x" + size[1];
+            System.out.printf("%-12s %-14s %12.1f%n", name, "PACKED", measure(engine, MEASURE_ROUNDS, true));
+            System.out.printf("%-12s %-14s %12.1f%n", name, "COPY_ON_WRITE", measure(forked, MEASURE_ROUNDS, false));
+        }
+    }
+
+    /**
+     * 每轮派生一次并在派生引擎上揭示一个格子，modifySource 为 true 时还在源引擎上揭示一个格子，
+     * 返回每轮的平均纳秒数。
+     */
+    private static double measure(GameEngine engine, int rounds, boolean modifySource) {
+        Board board = engine.getBoard();
+        int squares = board.getRows() * board.getCols();
+        long sink = 0;
+        long start = 0;
+        int warmup = Math.min(WARMUP_ROUNDS, rounds);
+        for (int i = 0; i < warmup + rounds; i++) {
+            if (i == warmup) {
+                start = System.nanoTime();
+            }
+            GameEngine fork = engine.fork();
+            int square = (int) ((i * 2654435761L) % squares);
+            int row = square / board.getCols();
+            int col = square % board.getCols();
+            if (fork.getState() == GameState.PLAYING && !board.isRevealed(row, col) && !board.isFlagged(row, col)) {
+                fork.reveal(row, col);
+            }
+            // 源引擎只揭示不是雷的格子，不会踩雷；所有非雷格子都揭示后不再修改
+            int next = (int) ((i * 40503L + 1) % squares);
+            int nextRow = next / board.getCols();
+            int nextCol = next % board.getCols();
+            if (modifySource && engine.getState() == GameState.PLAYING
+                    && !board.isRevealed(nextRow, nextCol) && !board.isMine(nextRow, nextCol)) {
+                engine.reveal(nextRow, nextCol);
+            }
+            sink += fork.getBoard().getRevealedCount();
+        }
+        double nanos = (System.nanoTime() - start) / (double) rounds;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return nanos;
+    }
+}
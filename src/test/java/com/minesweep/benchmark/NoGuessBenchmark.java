@@ -0,0 +1,37 @@
+package com.minesweep.benchmark;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.logic.NoGuessMapGenerator;
+import com.minesweep.core.model.Board;
+
+/**
+ * NoGuessBenchmark 测量 NoGuessMapGenerator 生成高级（16x30，99 雷）不猜地图的平均耗时和淘汰率。
+ * <p>
+ * 不属于单元测试，需在 mvn test-compile 后手动运行：
+ * <pre>
+ * java -cp target/classes:target/test-classes com.minesweep.benchmark.NoGuessBenchmark
+ * </pre>
+ */
+public class NoGuessBenchmark {
+    private static final int WARMUP_BOARDS = 50;
+    private static final int MEASURE_BOARDS = 200;
+
+    public static void main(String[] args) {
+        NoGuessMapGenerator generator = new NoGuessMapGenerator(new RandomMapGenerator(), 1_000);
+        long start = 0;
+        long worst = 0;
+        for (int i = 0; i < WARMUP_BOARDS + MEASURE_BOARDS; i++) {
+            if (i == WARMUP_BOARDS) {
+                start = System.nanoTime();
+                worst = 0;
+            }
+            long boardStart = System.nanoTime();
+            generator.generate(new Board(16, 30, 99, Board.StorageMode.PACKED), 8, 15);
+            worst = Math.max(worst, System.nanoTime() - boardStart);
+        }
+        double averageMillis = (System.nanoTime() - start) / 1e6 / MEASURE_BOARDS;
+        System.out.printf("average %.2f ms, worst %.2f ms per board%n", averageMillis, worst / 1e6);
+        NoGuessMapGenerator.Statistics statistics = generator.getStatistics();
+        System.out.printf("%s, rejection rate %.1f%%%n", statistics, statistics.getRejectionRate() * 100);
+    }
+}
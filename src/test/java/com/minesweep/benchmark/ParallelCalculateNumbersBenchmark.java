@@ -0,0 +1,53 @@
+package com.minesweep.benchmark;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.model.Board;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ParallelCalculateNumbersBenchmark 测量 Board.calculateNumbersParallel() 随线程数的扩展情况。
+ * <p>
+ * 使用 PACKED 存储，线程数从 1 开始翻倍直到可用处理器数。不属于单元测试，需在 mvn test-compile 后手动运行：
+ * <pre>
+ * java -Xmx4g -cp target/classes:target/test-classes com.minesweep.benchmark.ParallelCalculateNumbersBenchmark
+ * </pre>
+ */
+public class ParallelCalculateNumbersBenchmark {
+    private static final int[] SIZES = {100, 1000, 5000, 10000};
+    private static final double MINE_DENSITY = 0.2;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%-12s %-8s %12s %10s%n", "size", "threads", "ms/op", "speedup");
+        for (int size : SIZES) {
+            Board board = new Board(size, size, (int) ((long) size * size * MINE_DENSITY), Board.StorageMode.PACKED);
+            new RandomMapGenerator().generate(board, size / 2, size / 2);
+
+            double baseline = 0;
+            for (int threads = 1; threads <= processors; threads = threads == processors ? threads + 1
+                    : Math.min(threads * 2, processors)) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                        board.calculateNumbersParallel(pool);
+                    }
+                    long start = System.nanoTime();
+                    for (int i = 0; i < MEASURE_ROUNDS; i++) {
+                        board.calculateNumbersParallel(pool);
+                    }
+                    double nanosPerOp = (System.nanoTime() - start) / (double) MEASURE_ROUNDS;
+                    if (threads == 1) {
+                        baseline = nanosPerOp;
+                    }
+                    System.out.printf("%-12s %-8d %12.3f %10.2f%n", size + "x" + size, threads,
+                            nanosPerOp / 1_000_000, baseline / nanosPerOp);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+}
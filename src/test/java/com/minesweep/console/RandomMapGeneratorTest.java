@@ -0,0 +1,263 @@
+package com.minesweep.console;
+
+import com.minesweep.core.logic.GameEngine;
+import com.minesweep.core.logic.GameResult;
+import com.minesweep.core.logic.GameState;
+import com.minesweep.core.model.Board;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class RandomMapGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static int countMines(Board board) {
+        int mines = 0;
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                if (board.isMine(row, col)) {
+                    mines++;
+                }
+            }
+        }
+        return mines;
+    }
+
+    private static void assertSafeZoneClear(Board board, int firstRow, int firstCol) {
+        for (int row = Math.max(0, firstRow - 1); row <= Math.min(board.getRows() - 1, firstRow + 1); row++) {
+            for (int col = Math.max(0, firstCol - 1); col <= Math.min(board.getCols() - 1, firstCol + 1); col++) {
+                assertFalse(board.isMine(row, col), row + "," + col);
+            }
+        }
+    }
+
+    @Test
+    void testPlacesExactMineCountOutsideSafeZone() {
+        RandomMapGenerator generator = new RandomMapGenerator();
+        // 低密度、高密度和安全区外恰好放满三种情况
+        int[] mineCounts = {10, 99, 300, 471};
+        for (int mines : mineCounts) {
+            Board board = new Board(16, 30, mines, Board.StorageMode.PACKED);
+            generator.generate(board, 7, 12);
+            assertEquals(mines, countMines(board));
+            assertSafeZoneClear(board, 7, 12);
+        }
+    }
+
+    @Test
+    void testNearlyFullBoardShrinksSafeZone() {
+        Board board = new Board(100, 100, 9_999, Board.StorageMode.PACKED);
+        new RandomMapGenerator().generate(board, 50, 50);
+        assertEquals(9_999, countMines(board));
+        assertFalse(board.isMine(50, 50));
+    }
+
+    @Test
+    void testEngineAcceptsShrunkSafeZone() {
+        // 10x10 点击中间：91 雷恰好放满安全区外，95 雷需要缩小安全区
+        for (int mines : new int[] {91, 95, 99}) {
+            GameEngine engine = new GameEngine(new Board(10, 10, mines), new RandomMapGenerator());
+            engine.reveal(5, 5);
+            assertEquals(mines, countMines(engine.getBoard()));
+            assertTrue(engine.getBoard().isRevealed(5, 5));
+            if (mines == 91) {
+                assertSafeZoneClear(engine.getBoard(), 5, 5);
+            }
+        }
+        // 角落的安全区只有 4 格，96 雷仍能放在安全区外
+        GameEngine corner = new GameEngine(new Board(10, 10, 96), new RandomMapGenerator());
+        corner.reveal(0, 0);
+        assertSafeZoneClear(corner.getBoard(), 0, 0);
+        assertEquals(GameState.WON, corner.getState());
+    }
+
+    @Test
+    void testDistributionIsUniform() {
+        // 3x4 棋盘点击角落，安全区外 8 格，2 雷和 6 雷分别走两种抽样方向，共 28 种布局
+        RandomMapGenerator generator = new RandomMapGenerator();
+        int trials = 28_000;
+        for (int mines : new int[] {2, 6}) {
+            int[] layouts = new int[1 << 12];
+            for (int i = 0; i < trials; i++) {
+                Board board = new Board(3, 4, mines);
+                generator.generate(board, 0, 0);
+                int layout = 0;
+                for (int square = 0; square < 12; square++) {
+                    if (board.isMine(square / 4, square % 4)) {
+                        layout |= 1 << square;
+                    }
+                }
+                layouts[layout]++;
+            }
+            int distinct = 0;
+            for (int count : layouts) {
+                if (count > 0) {
+                    distinct++;
+                    // 期望 1000 次，标准差约 31
+                    assertTrue(count > 800 && count < 1200, "count " + count);
+                }
+            }
+            assertEquals(28, distinct);
+        }
+    }
+
+    @Test
+    void testSparseMinesAreUniform() {
+        // 1x260 棋盘点击最左格，可选格子 258 个，放 1 雷走只抽取雷序号的路径
+        RandomMapGenerator generator = new RandomMapGenerator();
+        int[] counts = new int[260];
+        for (int i = 0; i < 25_800; i++) {
+            Board board = new Board(1, 260, 1, Board.StorageMode.BITBOARD);
+            generator.generate(board, 0, 0);
+            assertFalse(board.isMine(0, 0));
+            assertFalse(board.isMine(0, 1));
+            for (int col = 2; col < 260; col++) {
+                if (board.isMine(0, col)) {
+                    counts[col]++;
+                }
+            }
+        }
+        for (int col = 2; col < 260; col++) {
+            assertTrue(counts[col] > 50 && counts[col] < 150, "count " + counts[col] + " at " + col);
+        }
+    }
+
+    @Test
+    void testBoardBeyondIntSquares() throws IOException {
+        // 可选格子超过 int 范围，扫描整个棋盘太慢，按 Floyd 抽样重新算出 20 个雷的序号再逐个检查
+        int cols = (1 << 30) + 8;
+        int firstCol = 1 << 29;
+        Board board = Board.mapped(tempDir.resolve("large.bin"), 2, cols, 20);
+        new RandomMapGenerator().generate(board, 1, firstCol, 5L);
+        assertSafeZoneClear(board, 1, firstCol);
+
+        long eligible = 2L * cols - 6;
+        SplittableRandom random = new SplittableRandom(5L);
+        Set<Long> ranks = new HashSet<>();
+        for (long j = eligible - 20; j < eligible; j++) {
+            // 上界在 int 范围内时生成器用 nextInt，前几个序号就是这样抽出的
+            long rank = j < Integer.MAX_VALUE ? random.nextInt((int) (j + 1)) : random.nextLong(j + 1);
+            ranks.add(ranks.contains(rank) ? j : rank);
+        }
+        for (long rank : ranks) {
+            // 跳过安全区的 6 个格子：第 0 行和第 1 行各 3 个
+            long index = rank;
+            for (long safe : new long[] {firstCol - 1, firstCol, firstCol + 1,
+                    cols + firstCol - 1L, cols + firstCol, cols + firstCol + 1L}) {
+                if (safe <= index) {
+                    index++;
+                }
+            }
+            assertTrue(board.isMine((int) (index / cols), (int) (index % cols)), "rank " + rank);
+        }
+        assertEquals(20, ranks.size());
+    }
+
+    @Test
+    void testSameRootSeedGivesSameBoards() {
+        RandomMapGenerator first = new RandomMapGenerator(2024L);
+        RandomMapGenerator second = new RandomMapGenerator(2024L);
+        for (int i = 0; i < 5; i++) {
+            Board a = new Board(16, 30, 99, Board.StorageMode.PACKED);
+            Board b = new Board(16, 30, 99);
+            first.generate(a, 3, 4);
+            second.generate(b, 3, 4);
+            assertEquals(a.mineLayoutHash(), b.mineLayoutHash());
+        }
+    }
+
+    @Test
+    void testGameResultSeedRegeneratesBoard() {
+        GameEngine engine = new GameEngine(new Board(16, 30, 99), new RandomMapGenerator());
+        engine.reveal(8, 15);
+        // 踩到雷或者揭示完所有安全格，游戏都会结束
+        for (int row = 0; row < 16 && !engine.getState().isFinished(); row++) {
+            for (int col = 0; col < 30 && !engine.getState().isFinished(); col++) {
+                if (!engine.getBoard().isRevealed(row, col)) {
+                    engine.reveal(row, col);
+                }
+            }
+        }
+        GameResult result = engine.getGameResult();
+        assertTrue(result.hasSeed());
+        assertEquals(engine.getBoard().mineLayoutHash(), result.getBoardHash());
+
+        Board regenerated = new Board(16, 30, 99, Board.StorageMode.BITBOARD);
+        new RandomMapGenerator().generate(regenerated, 8, 15, result.getSeed());
+        assertEquals(result.getBoardHash(), regenerated.mineLayoutHash());
+    }
+
+    @Test
+    void testGameResultAloneRegeneratesBoard() {
+        GameEngine engine = new GameEngine(new Board(9, 12, 20), new RandomMapGenerator());
+        engine.reveal(2, 7);
+        for (int row = 0; row < 9 && !engine.getState().isFinished(); row++) {
+            for (int col = 0; col < 12 && !engine.getState().isFinished(); col++) {
+                if (!engine.getBoard().isRevealed(row, col)) {
+                    engine.reveal(row, col);
+                }
+            }
+        }
+        GameResult result = engine.getGameResult();
+        assertEquals(9, result.getRows());
+        assertEquals(12, result.getCols());
+        assertEquals(20, result.getTotalMines());
+        assertEquals(2, result.getFirstRow());
+        assertEquals(7, result.getFirstCol());
+
+        // 只用结果里的参数重新生成，不借助原棋盘或原引擎
+        Board regenerated = new Board(result.getRows(), result.getCols(), result.getTotalMines());
+        new RandomMapGenerator().generate(regenerated, result.getFirstRow(), result.getFirstCol(), result.getSeed());
+        assertEquals(result.getBoardHash(), regenerated.mineLayoutHash());
+    }
+
+    @Test
+    void testUnseededResultHasNoBoardParameters() {
+        GameResult result = new GameResult(true, 1000, 0, 10, 42L);
+        assertThrows(IllegalStateException.class, result::getRows);
+        assertThrows(IllegalStateException.class, result::getFirstCol);
+    }
+
+    @Test
+    void testThreadsDrawDistinctReproducibleSeeds() throws Exception {
+        RandomMapGenerator generator = new RandomMapGenerator(7L);
+        Set<Long> seeds = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        long seed = generator.nextSeed();
+                        seeds.add(seed);
+                        Board board = new Board(9, 9, 10, Board.StorageMode.PACKED);
+                        generator.generate(board, 4, 4, seed);
+                        Board again = new Board(9, 9, 10, Board.StorageMode.PACKED);
+                        generator.generate(again, 4, 4, seed);
+                        assertEquals(board.mineLayoutHash(), again.mineLayoutHash());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(200, new HashSet<>(seeds).size());
+    }
+}
@@ -1,7 +1,6 @@
 package com.minesweep.core.logic;
 
 import com.minesweep.core.model.Board;
-import com.minesweep.core.model.Cell;
 
 public class BasicMapUtil {
 
@@ -11,34 +10,29 @@ public class BasicMapUtil {
     public static class DummyMapGenerator implements MapGenerator {
         @Override
         public void generate(Board board, int firstRow, int firstCol) {
-            try {
-                java.lang.reflect.Method setMineMethod = Cell.class.getDeclaredMethod("setMine", boolean.class);
-                setMineMethod.setAccessible(true);
-                
-                // 固定雷位置：0,0 2,2 2,6 3,4 4,3 4,4 5,4 6,2 6,6 6,7 6,8 7,6 8,6
-                int[][] minePositions = {
-                    {0, 0},
-                    {2, 2},
-                    {2, 6},
-                    {3, 4},
-                    {4, 3},
-                    {4, 4},
-                    {5, 4},
-                    {6, 2},
-                    {6, 6},
-                    {6, 7},
-                    {6, 8},
-                    {7, 6},
-                    {8, 6}
-                };
-                
-                // 放置雷
-                for (int[] pos : minePositions) {
-                    setMineMethod.invoke(board.getCell(pos[0], pos[1]), true);
-                }
-            } catch (Exception e) {
-                throw new RuntimeException("Error setting mine", e);
+            // 固定雷位置：0,0 2,2 2,6 3,4 4,3 4,4 5,4 6,2 6,6 6,7 6,8 7,6 8,6
+            int[][] minePositions = {
+                {0, 0},
+                {2, 2},
+                {2, 6},
+                {3, 4},
+                {4, 3},
+                {4, 4},
+                {5, 4},
+                {6, 2},
+                {6, 6},
+                {6, 7},
+                {6, 8},
+                {7, 6},
+                {8, 6}
+            };
+
+            // 放置雷
+            int[] indices = new int[minePositions.length];
+            for (int i = 0; i < minePositions.length; i++) {
+                indices[i] = minePositions[i][0] * board.getCols() + minePositions[i][1];
             }
+            board.placeMines(indices);
         }
     }
 
@@ -0,0 +1,115 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.core.model.Board;
+import com.minesweep.core.model.Cell;
+
+class BatchCommandTest {
+
+    @Test
+    void testOutcomesAndStopAtTerminalState() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        int[] commands = {
+            GameEngine.OP_REVEAL, 8, 8,
+            GameEngine.OP_CYCLE_MARK, 0, 0,
+            GameEngine.OP_REVEAL, 0, 0,
+            GameEngine.OP_CYCLE_MARK, 8, 8,
+            GameEngine.OP_REVEAL, 9, 0,
+            GameEngine.OP_CHORD, 0, 1,
+            GameEngine.OP_REVEAL, 4, 4,
+            GameEngine.OP_REVEAL, 0, 1
+        };
+        byte[] outcomes = new byte[8];
+        outcomes[7] = 99;
+
+        int executed = engine.executeBatch(commands, outcomes);
+
+        assertEquals(7, executed);
+        assertArrayEquals(new byte[] {
+            GameEngine.OUTCOME_CHANGED,
+            GameEngine.OUTCOME_CHANGED,
+            GameEngine.OUTCOME_UNCHANGED,
+            GameEngine.OUTCOME_REJECTED,
+            GameEngine.OUTCOME_REJECTED,
+            GameEngine.OUTCOME_REJECTED,
+            GameEngine.OUTCOME_CHANGED,
+            99
+        }, outcomes);
+        assertEquals(GameState.LOST, engine.getState());
+        assertEquals(4, engine.getMoveCount());
+        assertFalse(engine.getBoard().isRevealed(0, 1));
+    }
+
+    @Test
+    void testBatchMatchesSingleCalls() {
+        GameEngine batched = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        GameEngine single = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        int[] commands = {
+            GameEngine.OP_REVEAL, 8, 8,
+            GameEngine.OP_REVEAL, 0, 1,
+            GameEngine.OP_CYCLE_MARK, 0, 0,
+            GameEngine.OP_CHORD, 0, 1,
+            GameEngine.OP_CYCLE_MARK, 6, 7
+        };
+
+        assertEquals(5, batched.executeBatch(commands, new byte[5]));
+        single.reveal(8, 8);
+        single.reveal(0, 1);
+        single.cycleMark(0, 0);
+        single.chord(0, 1);
+        single.cycleMark(6, 7);
+
+        Board expected = single.getBoard();
+        Board actual = batched.getBoard();
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                assertEquals(expected.isRevealed(row, col), actual.isRevealed(row, col));
+                assertEquals(expected.isFlagged(row, col), actual.isFlagged(row, col));
+            }
+        }
+        assertEquals(single.getState(), batched.getState());
+        assertEquals(single.getRemainingMines(), batched.getRemainingMines());
+        assertEquals(single.getMoveCount(), batched.getMoveCount());
+    }
+
+    @Test
+    void testBatchPublishesOneSnapshotAndKeepsPerCommandUndo() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13, Board.StorageMode.PACKED),
+                new BasicMapUtil.DummyMapGenerator());
+        engine.reveal(8, 8);
+        engine.enableSnapshots();
+        engine.enableUndo();
+        int[] commands = {
+            GameEngine.OP_CYCLE_MARK, 0, 0,
+            GameEngine.OP_REVEAL, 0, 1,
+            GameEngine.OP_CYCLE_MARK, 6, 7
+        };
+
+        assertEquals(3, engine.executeBatch(commands, new byte[3]));
+        assertEquals(4, engine.getMoveCount());
+        assertEquals(4, engine.getSnapshot().getVersion());
+        assertTrue(engine.getSnapshot().isRevealed(0, 1));
+        assertEquals(Cell.MarkState.FLAGGED, engine.getSnapshot().getMarkState(6, 7));
+
+        // 每条命令仍是单独的一步
+        engine.undo();
+        assertFalse(engine.getBoard().isFlagged(6, 7));
+        assertTrue(engine.getBoard().isRevealed(0, 1));
+        engine.undo();
+        assertFalse(engine.getBoard().isRevealed(0, 1));
+        assertTrue(engine.getBoard().isFlagged(0, 0));
+    }
+
+    @Test
+    void testRejectsMalformedBatch() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        assertThrows(IllegalArgumentException.class, () -> engine.executeBatch(new int[] {0, 1}, new byte[1]));
+        assertThrows(IllegalArgumentException.class, () -> engine.executeBatch(new int[] {0, 1, 1}, new byte[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.executeBatch(new int[] {GameEngine.OP_REVEAL, 8, 8, 7, 0, 0}, new byte[2]));
+        assertThrows(NullPointerException.class, () -> engine.executeBatch(null, new byte[0]));
+        // 校验失败时没有执行任何命令
+        assertEquals(GameState.READY, engine.getState());
+    }
+}
@@ -0,0 +1,133 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.model.Board;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BoardDatasetTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBoardsMatchRegeneratedSeeds() throws IOException {
+        Path file = tempDir.resolve("expert.bin");
+        RandomMapGenerator generator = new RandomMapGenerator();
+        BoardDataset.generate(file, 16, 30, 99, 8, 15, 10_000, generator, 42L);
+        // 头部 64 字节，每条记录 8 字节种子加 8 个 long
+        assertEquals(64 + 10_000L * 72, Files.size(file));
+
+        BoardDataset dataset = BoardDataset.open(file);
+        assertEquals(10_000, dataset.size());
+        assertEquals(16, dataset.getRows());
+        assertEquals(30, dataset.getCols());
+        assertEquals(99, dataset.getTotalMines());
+        assertEquals(8, dataset.getFirstRow());
+        assertEquals(15, dataset.getFirstCol());
+
+        for (long index : new long[] {0, 4095, 4096, 9_999}) {
+            Board board = dataset.getBoard(index);
+            Board expected = new Board(16, 30, 99, Board.StorageMode.PACKED);
+            generator.generate(expected, 8, 15, dataset.getSeed(index));
+            expected.calculateNumbers();
+            assertEquals(expected.mineLayoutHash(), board.mineLayoutHash());
+            for (int row = 0; row < 16; row++) {
+                for (int col = 0; col < 30; col++) {
+                    assertEquals(expected.isMine(row, col), dataset.isMine(index, row, col));
+                    assertEquals(expected.getNeighborMineCount(row, col), board.getNeighborMineCount(row, col));
+                }
+            }
+            assertFalse(board.isMine(8, 15));
+            assertEquals(0, board.getRevealedCount());
+        }
+        assertEquals(Board.StorageMode.BITBOARD, dataset.getBoard(1, Board.StorageMode.BITBOARD).getStorageMode());
+        assertThrows(IndexOutOfBoundsException.class, () -> dataset.getBoard(10_000));
+        assertThrows(IndexOutOfBoundsException.class, () -> dataset.getSeed(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> dataset.isMine(0, 16, 0));
+    }
+
+    @Test
+    void testContentIndependentOfParallelism() throws IOException {
+        Path single = tempDir.resolve("single.bin");
+        Path parallel = tempDir.resolve("parallel.bin");
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            BoardDataset.generate(single, 9, 9, 10, 0, 0, 9_000, new RandomMapGenerator(), 7L, one);
+            BoardDataset.generate(parallel, 9, 9, 10, 0, 0, 9_000, new RandomMapGenerator(), 7L, four);
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+        assertTrue(Arrays.equals(Files.readAllBytes(single), Files.readAllBytes(parallel)));
+    }
+
+    @Test
+    void testFailedTaskStopsGenerationBeforeReturning() {
+        // 256x256 的记录约 8KB，每个任务 1023 条，3000 条分成三个任务，单线程按顺序执行
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger active = new AtomicInteger();
+        SeededMapGenerator failing = new SeededMapGenerator() {
+            @Override
+            public long nextSeed() {
+                return 0;
+            }
+
+            @Override
+            public void generate(Board board, int firstRow, int firstCol, long seed) {
+                active.incrementAndGet();
+                try {
+                    if (calls.incrementAndGet() == 1500) {
+                        throw new IllegalStateException("generator failed");
+                    }
+                } finally {
+                    active.decrementAndGet();
+                }
+            }
+        };
+        ForkJoinPool one = new ForkJoinPool(1);
+        try {
+            assertThrows(IllegalStateException.class, () -> BoardDataset.generate(tempDir.resolve("failed.bin"),
+                    256, 256, 0, 0, 0, 3_000, failing, 1L, one));
+            // 返回时所有任务都已结束，失败之后的任务被跳过
+            assertEquals(0, active.get());
+            assertEquals(1500, calls.get());
+        } finally {
+            one.shutdown();
+        }
+    }
+
+    @Test
+    void testEmptyDatasetAndInvalidFiles() throws IOException {
+        Path empty = tempDir.resolve("empty.bin");
+        BoardDataset.generate(empty, 9, 9, 10, 4, 4, 0, new RandomMapGenerator(), 1L);
+        assertEquals(0, BoardDataset.open(empty).size());
+
+        Path garbage = tempDir.resolve("garbage.bin");
+        Files.write(garbage, new byte[128]);
+        assertThrows(IOException.class, () -> BoardDataset.open(garbage));
+
+        // 记录数超过文件实际长度
+        Path truncated = tempDir.resolve("truncated.bin");
+        BoardDataset.generate(truncated, 9, 9, 10, 4, 4, 10, new RandomMapGenerator(), 1L);
+        byte[] data = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(data, data.length - 1));
+        assertThrows(IOException.class, () -> BoardDataset.open(truncated));
+
+        RandomMapGenerator generator = new RandomMapGenerator();
+        assertThrows(IllegalArgumentException.class,
+                () -> BoardDataset.generate(empty, 3, 3, 9, 0, 0, 1, generator, 1L));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> BoardDataset.generate(empty, 9, 9, 10, 9, 0, 1, generator, 1L));
+        assertThrows(NullPointerException.class,
+                () -> BoardDataset.generate(empty, 9, 9, 10, 0, 0, 1, null, 1L));
+    }
+}
@@ -0,0 +1,114 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.core.model.Board;
+import java.util.HashSet;
+import java.util.Set;
+
+class ChangeSetTest {
+
+    private static Set<Integer> squares(ChangeSet changes, int cols) {
+        Set<Integer> squares = new HashSet<>();
+        for (int i = 0; i < changes.size(); i++) {
+            assertTrue(squares.add(changes.getRow(i) * cols + changes.getCol(i)), "Duplicate change");
+        }
+        return squares;
+    }
+
+    @Test
+    void testFirstRevealReportsOpenedSquares() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        ChangeSet changes = new ChangeSet();
+        assertNull(changes.getState());
+
+        assertTrue(engine.reveal(8, 8, changes));
+
+        Set<Integer> expected = new HashSet<>();
+        expected.add(8 * 9 + 8);
+        expected.add(7 * 9 + 7);
+        expected.add(7 * 9 + 8);
+        expected.add(8 * 9 + 7);
+        assertEquals(expected, squares(changes, 9));
+        assertEquals(GameState.PLAYING, changes.getState());
+        assertEquals(1, engine.getMoveCount());
+    }
+
+    @Test
+    void testBufferIsClearedAndReused() {
+        GameEngine engine = BasicMapUtil.createAndSetupEngine();
+        ChangeSet changes = new ChangeSet(0);
+
+        engine.cycleMark(0, 0, changes);
+        assertEquals(1, changes.size());
+        assertEquals(0, changes.getRow(0));
+        assertEquals(0, changes.getCol(0));
+
+        // 已揭示的格子不会产生变化
+        assertFalse(engine.reveal(8, 8, changes));
+        assertTrue(changes.isEmpty());
+        assertEquals(GameState.PLAYING, changes.getState());
+        assertThrows(IndexOutOfBoundsException.class, () -> changes.getRow(0));
+
+        // 不带缓冲区的操作不再写入
+        engine.cycleMark(0, 1);
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void testRevealMineReportsLost() {
+        GameEngine engine = BasicMapUtil.createAndSetupEngine();
+        ChangeSet changes = new ChangeSet();
+
+        engine.reveal(4, 4, changes);
+
+        assertEquals(1, changes.size());
+        assertEquals(4, changes.getRow(0));
+        assertEquals(4, changes.getCol(0));
+        assertEquals(GameState.LOST, changes.getState());
+    }
+
+    @Test
+    void testChordReportsRevealedNeighbors() {
+        GameEngine engine = BasicMapUtil.createAndSetupEngine();
+        ChangeSet changes = new ChangeSet();
+        engine.reveal(0, 1, changes);
+        assertEquals(1, changes.size());
+        engine.cycleMark(0, 0);
+        int before = engine.getBoard().getRevealedCount();
+
+        // (0,2) 是空白格，Chord 会继续洪水填充
+        assertTrue(engine.chord(0, 1, changes));
+
+        assertTrue(changes.size() > 4);
+        assertEquals(engine.getBoard().getRevealedCount() - before, changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            assertTrue(engine.getBoard().isRevealed(changes.getRow(i), changes.getCol(i)));
+        }
+    }
+
+    @Test
+    void testFloodFillStrategiesReportEveryRevealedSquare() {
+        for (Board.StorageMode mode : new Board.StorageMode[] {Board.StorageMode.OBJECT, Board.StorageMode.PACKED}) {
+            for (Board.FloodFillStrategy strategy : Board.FloodFillStrategy.values()) {
+                Board board = new Board(256, 256, 0, mode);
+                board.setFloodFillStrategy(strategy);
+                GameEngine engine = new GameEngine(board, (b, r, c) -> { });
+                ChangeSet changes = new ChangeSet();
+
+                engine.reveal(0, 0, changes);
+
+                assertEquals(256 * 256, changes.size(), mode + " " + strategy);
+                assertEquals(board.getRevealedCount(), squares(changes, 256).size());
+                assertEquals(GameState.WON, changes.getState());
+            }
+        }
+    }
+
+    @Test
+    void testRejectsNullBuffer() {
+        GameEngine engine = BasicMapUtil.createAndSetupEngine();
+        assertThrows(NullPointerException.class, () -> engine.reveal(0, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new ChangeSet(-1));
+    }
+}
@@ -0,0 +1,50 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.core.model.Board;
+
+class ChunkedBoardEngineTest {
+
+    @Test
+    void testFloodFillCrossesChunksOnEmptyBoard() {
+        Board board = Board.chunked(128, 128, 0);
+        GameEngine engine = new GameEngine(board, new ChunkedMapGenerator(1L));
+
+        engine.reveal(0, 0);
+
+        assertEquals(128 * 128, board.getRevealedCount());
+        assertEquals(4, board.getMaterializedChunkCount());
+        assertEquals(GameState.WON, engine.getState());
+    }
+
+    @Test
+    void testOpeningOnHugeBoardOnlyMaterializesExploredChunks() {
+        Board board = Board.chunked(64 * 10_000, 64 * 10_000, 840);
+        GameEngine engine = new GameEngine(board, new ChunkedMapGenerator(2024L));
+
+        // 点击区块交界处，使开局跨越多个区块
+        engine.reveal(320_000, 320_000);
+
+        assertEquals(GameState.PLAYING, engine.getState());
+        assertTrue(board.getRevealedCount() >= 1);
+        assertEquals(board.getRevealedCount(), board.countRevealedCells());
+        assertTrue(board.getMaterializedChunkCount() <= 16,
+                "Only chunks touched by the opening should be created, got " + board.getMaterializedChunkCount());
+    }
+
+    @Test
+    void testSameSeedAndClickReplaysSameOpening() {
+        Board first = Board.chunked(64 * 100, 64 * 100, 840);
+        Board second = Board.chunked(64 * 100, 64 * 100, 840);
+        new GameEngine(first, new ChunkedMapGenerator(99L)).reveal(3200, 3200);
+        new GameEngine(second, new ChunkedMapGenerator(99L)).reveal(3200, 3200);
+
+        assertEquals(first.getRevealedCount(), second.getRevealedCount());
+        for (int row = 3100; row < 3300; row++) {
+            for (int col = 3100; col < 3300; col++) {
+                assertEquals(first.isRevealed(row, col), second.isRevealed(row, col));
+            }
+        }
+    }
+}
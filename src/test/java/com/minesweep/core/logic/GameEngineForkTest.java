@@ -0,0 +1,66 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.core.model.Board;
+
+class GameEngineForkTest {
+
+    @Test
+    void testForkExploresIndependently() {
+        GameEngine engine = BasicMapUtil.createAndSetupEngine();
+        engine.cycleMark(0, 0);
+
+        GameEngine fork = engine.fork();
+        assertEquals(GameState.PLAYING, fork.getState());
+        assertEquals(engine.getRemainingMines(), fork.getRemainingMines());
+        assertEquals(engine.getMoveCount(), fork.getMoveCount());
+        assertEquals(Board.StorageMode.COPY_ON_WRITE, fork.getBoard().getStorageMode());
+
+        // 在派生引擎上踩雷，原引擎继续
+        fork.reveal(4, 4);
+        assertEquals(GameState.LOST, fork.getState());
+        assertEquals(GameState.PLAYING, engine.getState());
+        assertFalse(engine.getBoard().isRevealed(4, 4));
+
+        engine.reveal(0, 2);
+        assertTrue(engine.getBoard().isRevealed(0, 3));
+        assertFalse(fork.getBoard().isRevealed(0, 3));
+        assertEquals(fork.getBoard().countRevealedCells(), fork.getBoard().getRevealedCount());
+    }
+
+    @Test
+    void testForkBeforeFirstClickGeneratesOnItsOwn() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13, Board.StorageMode.PACKED),
+                new BasicMapUtil.DummyMapGenerator());
+        GameEngine fork = engine.fork();
+
+        fork.reveal(8, 8);
+
+        assertEquals(GameState.PLAYING, fork.getState());
+        assertEquals(4, fork.getBoard().getRevealedCount());
+        assertTrue(fork.getBoard().isMine(4, 4));
+        assertEquals(GameState.READY, engine.getState());
+        assertFalse(engine.getBoard().isMine(4, 4));
+    }
+
+    @Test
+    void testManyForksFromSameEngine() {
+        GameEngine engine = BasicMapUtil.createAndSetupEngine();
+        int lost = 0;
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (engine.getBoard().isRevealed(row, col)) {
+                    continue;
+                }
+                GameEngine fork = engine.fork();
+                fork.reveal(row, col);
+                if (fork.getState() == GameState.LOST) {
+                    lost++;
+                }
+            }
+        }
+        assertEquals(13, lost);
+        assertEquals(4, engine.getBoard().getRevealedCount());
+    }
+}
@@ -0,0 +1,211 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.model.Board;
+import java.util.Arrays;
+import java.util.Random;
+
+class GameJournalTest {
+
+    /**
+     * 由种子确定地图的生成器，首次点击周围不放雷。
+     */
+    private static MapGenerator seeded(long seed) {
+        return (board, firstRow, firstCol) -> {
+            Random random = new Random(seed);
+            int placed = 0;
+            while (placed < board.getTotalMines()) {
+                int row = random.nextInt(board.getRows());
+                int col = random.nextInt(board.getCols());
+                if (Math.abs(row - firstRow) <= 1 && Math.abs(col - firstCol) <= 1 || board.isMine(row, col)) {
+                    continue;
+                }
+                board.placeMine(row, col);
+                placed++;
+            }
+        };
+    }
+
+    private static void assertSameGame(GameEngine expected, GameEngine actual) {
+        Board left = expected.getBoard();
+        Board right = actual.getBoard();
+        for (int row = 0; row < left.getRows(); row++) {
+            for (int col = 0; col < left.getCols(); col++) {
+                assertEquals(left.isMine(row, col), right.isMine(row, col));
+                assertEquals(left.isRevealed(row, col), right.isRevealed(row, col));
+                assertEquals(left.getCell(row, col).getMarkState(), right.getCell(row, col).getMarkState());
+            }
+        }
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getMoveCount(), actual.getMoveCount());
+        assertEquals(left.getRevealedCount(), right.getRevealedCount());
+        assertEquals(expected.getRemainingMines(), actual.getRemainingMines());
+    }
+
+    @Test
+    void testReplayRebuildsGame() {
+        GameEngine engine = new GameEngine(new Board(16, 30, 99, Board.StorageMode.PACKED), seeded(42L));
+        GameJournal journal = engine.enableJournal(42L);
+        Random moves = new Random(7L);
+        engine.reveal(8, 15);
+        while (!engine.getState().isFinished() && journal.getCommandCount() < 200) {
+            int row = moves.nextInt(16);
+            int col = moves.nextInt(30);
+            if (engine.getBoard().isRevealed(row, col)) {
+                engine.chord(row, col);
+            } else if (moves.nextInt(4) == 0) {
+                engine.cycleMark(row, col);
+            } else {
+                engine.reveal(row, col);
+            }
+        }
+
+        GameEngine replayed = GameJournal.replay(journal.toByteArray(), GameJournalTest::seeded);
+
+        assertEquals(engine.getMoveCount(), journal.getCommandCount());
+        assertEquals(42L, journal.getSeed());
+        assertEquals(Board.StorageMode.PACKED, replayed.getBoard().getStorageMode());
+        assertSameGame(engine, replayed);
+    }
+
+    @Test
+    void testSeededGeneratorSeedIsJournaled() {
+        GameEngine engine = new GameEngine(new Board(16, 30, 99, Board.StorageMode.PACKED), new RandomMapGenerator());
+        GameJournal journal = engine.enableJournal();
+        engine.reveal(8, 15);
+        engine.cycleMark(0, 0);
+        engine.reveal(15, 29);
+
+        // 日志中的种子就是引擎开局时取得的种子，重放用它重新生成同一张地图
+        GameEngine replayed = GameJournal.replay(journal.toByteArray(), seed -> new RandomMapGenerator());
+        assertSameGame(engine, replayed);
+        if (engine.getState().isFinished()) {
+            assertEquals(engine.getGameResult().getSeed(), journal.getSeed());
+            assertEquals(engine.getGameResult().getSeed(), replayed.getGameResult().getSeed());
+        }
+
+        // 调用者传入的种子被开局时的种子取代
+        GameEngine other = new GameEngine(new Board(9, 9, 10), new RandomMapGenerator(3L));
+        GameJournal otherJournal = other.enableJournal(123L);
+        assertEquals(123L, otherJournal.getSeed());
+        other.reveal(4, 4);
+        assertNotEquals(123L, otherJournal.getSeed());
+        assertSameGame(other, GameJournal.replay(otherJournal.toByteArray(), seed -> new RandomMapGenerator()));
+
+        // 需要带种子的生成器才能重放
+        assertThrows(IllegalArgumentException.class,
+                () -> GameJournal.replay(otherJournal.toByteArray(), seed -> new BasicMapUtil.DummyMapGenerator()));
+    }
+
+    @Test
+    void testUndoEnabledBeforeJournalIsReplayed() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        engine.enableUndo();
+        GameJournal journal = engine.enableJournal(0L);
+        engine.reveal(8, 8);
+        engine.cycleMark(0, 0);
+        engine.undo();
+
+        GameEngine replayed = GameJournal.replay(journal.toByteArray(), seed -> new BasicMapUtil.DummyMapGenerator());
+        assertSameGame(engine, replayed);
+        assertTrue(replayed.canRedo());
+        assertFalse(replayed.getBoard().isFlagged(0, 0));
+    }
+
+    @Test
+    void testNeighboringCommandsAreCompact() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator(), false);
+        GameJournal journal = engine.enableJournal(0L);
+        engine.reveal(8, 8);
+        int headerSize = journal.size();
+        for (int col = 0; col < 8; col++) {
+            engine.cycleMark(0, col);
+        }
+
+        // 小的坐标差值和时间差各占一个字节
+        assertTrue(journal.size() - headerSize <= 8 * 4, "Journal uses " + journal.size() + " bytes");
+        GameEngine replayed = GameJournal.replay(journal.toByteArray(), seed -> new BasicMapUtil.DummyMapGenerator());
+        assertSameGame(engine, replayed);
+    }
+
+    @Test
+    void testReplayChunkedBoard() {
+        GameEngine engine = new GameEngine(Board.chunked(128, 128, 400), new ChunkedMapGenerator(5L));
+        GameJournal journal = engine.enableJournal(5L);
+        engine.reveal(64, 64);
+        engine.cycleMark(0, 0);
+
+        GameEngine replayed = GameJournal.replay(journal.toByteArray(), ChunkedMapGenerator::new);
+
+        assertEquals(Board.StorageMode.CHUNKED, replayed.getBoard().getStorageMode());
+        assertEquals(engine.getBoard().getTotalMines(), replayed.getBoard().getTotalMines());
+        assertSameGame(engine, replayed);
+    }
+
+    @Test
+    void testReplayChunkedBoardWithClampedTotalMines() {
+        // 1024x1024 个区块乘以每区块雷数超过 int 范围，总雷数被截断，重放必须用头部记录的每区块雷数
+        Board board = Board.chunked(65536, 65536, 4000);
+        assertEquals(Integer.MAX_VALUE, board.getTotalMines());
+        GameEngine engine = new GameEngine(board, new ChunkedMapGenerator(9L));
+        GameJournal journal = engine.enableJournal(9L);
+        engine.reveal(32768, 32768);
+
+        GameEngine replayed = GameJournal.replay(journal.toByteArray(), ChunkedMapGenerator::new);
+
+        assertEquals(4000, replayed.getBoard().getMinesPerChunk());
+        for (int row = 32704; row < 32832; row++) {
+            for (int col = 32704; col < 32832; col++) {
+                assertEquals(board.isMine(row, col), replayed.getBoard().isMine(row, col));
+                assertEquals(board.isRevealed(row, col), replayed.getBoard().isRevealed(row, col));
+            }
+        }
+        assertEquals(engine.getState(), replayed.getState());
+    }
+
+    @Test
+    void testReadCommandTimes() throws InterruptedException {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator(), false);
+        GameJournal journal = engine.enableJournal(0L);
+        assertEquals(0, GameJournal.readCommandTimes(journal.toByteArray()).length);
+        engine.reveal(8, 8);
+        Thread.sleep(20);
+        engine.cycleMark(0, 0);
+        engine.cycleMark(0, 1);
+
+        long[] times = GameJournal.readCommandTimes(journal.toByteArray());
+        assertEquals(3, times.length);
+        assertTrue(times[0] >= 0);
+        assertTrue(times[1] - times[0] >= 20, Arrays.toString(times));
+        assertTrue(times[2] >= times[1]);
+        assertThrows(IllegalArgumentException.class, () -> GameJournal.readCommandTimes(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void testJournalMustStartBeforeFirstMove() {
+        GameEngine engine = BasicMapUtil.createAndSetupEngine();
+        assertThrows(IllegalStateException.class, engine::getJournal);
+        assertThrows(IllegalStateException.class, () -> engine.enableJournal(1L));
+
+        GameEngine fresh = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        fresh.enableJournal(1L);
+        assertThrows(IllegalStateException.class, () -> fresh.enableJournal(1L));
+    }
+
+    @Test
+    void testRejectsCorruptJournal() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        byte[] data = engine.enableJournal(3L).toByteArray();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> GameJournal.replay(new byte[] {1, 2, 3}, seed -> new BasicMapUtil.DummyMapGenerator()));
+        assertThrows(IllegalArgumentException.class,
+                () -> GameJournal.replay(Arrays.copyOf(data, data.length - 1), seed -> new BasicMapUtil.DummyMapGenerator()));
+        byte[] truncatedCommand = Arrays.copyOf(data, data.length + 1);
+        truncatedCommand[data.length] = (byte) 0x80;
+        assertThrows(IllegalArgumentException.class,
+                () -> GameJournal.replay(truncatedCommand, seed -> new BasicMapUtil.DummyMapGenerator()));
+    }
+}
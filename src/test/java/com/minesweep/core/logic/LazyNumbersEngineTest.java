@@ -0,0 +1,46 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.core.model.Board;
+
+class LazyNumbersEngineTest {
+
+    @Test
+    void testLazyGameMatchesEagerGame() {
+        GameEngine eager = BasicMapUtil.createAndSetupEngine();
+        Board lazyBoard = new Board(9, 9, 13);
+        lazyBoard.setLazyNumbers(true);
+        GameEngine lazy = new GameEngine(lazyBoard, new BasicMapUtil.DummyMapGenerator());
+        lazy.reveal(8, 8);
+
+        for (GameEngine engine : new GameEngine[]{eager, lazy}) {
+            engine.reveal(0, 8);
+            engine.reveal(3, 3);
+            engine.cycleMark(2, 2);
+            engine.cycleMark(3, 4);
+            engine.cycleMark(4, 3);
+            engine.cycleMark(4, 4);
+            assertTrue(engine.chord(3, 3));
+        }
+
+        Board eagerBoard = eager.getBoard();
+        assertEquals(eagerBoard.getRevealedCount(), lazyBoard.getRevealedCount());
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                assertEquals(eagerBoard.isRevealed(row, col), lazyBoard.isRevealed(row, col));
+                assertEquals(eagerBoard.getNeighborMineCount(row, col), lazyBoard.getNeighborMineCount(row, col));
+            }
+        }
+    }
+
+    @Test
+    void testLazyLossAndWinDetection() {
+        Board board = new Board(3, 3, 0);
+        board.setLazyNumbers(true);
+        GameEngine engine = new GameEngine(board, (b, r, c) -> { });
+        engine.reveal(1, 1);
+        assertEquals(GameState.WON, engine.getState());
+        assertEquals(9, board.getRevealedCount());
+    }
+}
@@ -0,0 +1,124 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.console.RandomMapGenerator;
+import com.minesweep.core.model.Board;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+class NoGuessMapGeneratorTest {
+
+    private static boolean[] mines(Board board) {
+        boolean[] mines = new boolean[board.getRows() * board.getCols()];
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                mines[row * board.getCols() + col] = board.isMine(row, col);
+            }
+        }
+        return mines;
+    }
+
+    @Test
+    void testSolverRejectsGuess() {
+        DeductionSolver solver = new DeductionSolver(1, 3);
+        assertTrue(solver.solve(new boolean[] {false, false, true}, 1, 0, 0));
+
+        // 2x2 棋盘一个雷：点开任意一格后另外三格无法区分
+        DeductionSolver guess = new DeductionSolver(2, 2);
+        assertFalse(guess.solve(new boolean[] {false, false, false, true}, 1, 0, 0));
+
+        // 1-2-1 形状：单格规则无法推进，子集规则推出右上角是雷、上方中间安全
+        DeductionSolver subset = new DeductionSolver(3, 3);
+        boolean[] layout = {true, false, true, false, false, false, false, false, false};
+        assertTrue(subset.solve(layout, 2, 2, 1));
+    }
+
+    @Test
+    void testExpertBoardsAreSolvable() {
+        NoGuessMapGenerator generator = new NoGuessMapGenerator(new RandomMapGenerator(1L), 10_000);
+        for (int i = 0; i < 5; i++) {
+            GameEngine engine = new GameEngine(new Board(16, 30, 99, Board.StorageMode.PACKED), generator);
+            engine.reveal(8, 15);
+            Board board = engine.getBoard();
+            assertEquals(GameState.PLAYING, engine.getState());
+            assertTrue(new DeductionSolver(16, 30).solve(mines(board), 99, 8, 15));
+        }
+        NoGuessMapGenerator.Statistics statistics = generator.getStatistics();
+        assertEquals(5, statistics.getBoards());
+        assertEquals(0, statistics.getTimeouts());
+        assertTrue(statistics.getAttempts() - statistics.getRejections() >= 5);
+        assertTrue(statistics.getRejectionRate() < 1.0);
+    }
+
+    @Test
+    void testResultDependsOnlyOnSeed() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            NoGuessMapGenerator sequential = new NoGuessMapGenerator(new RandomMapGenerator(3L), 10_000, single);
+            NoGuessMapGenerator parallel = new NoGuessMapGenerator(new RandomMapGenerator(3L), 10_000, quad);
+            for (int i = 0; i < 3; i++) {
+                Board a = new Board(16, 30, 99, Board.StorageMode.PACKED);
+                Board b = new Board(16, 30, 99);
+                assertEquals(sequential.generateNext(a, 0, 0), parallel.generateNext(b, 0, 0));
+                assertEquals(a.mineLayoutHash(), b.mineLayoutHash());
+            }
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    @Test
+    void testReturnedSeedRegeneratesBoard() {
+        NoGuessMapGenerator generator = new NoGuessMapGenerator(new RandomMapGenerator(), 10_000);
+        Board board = new Board(16, 30, 99, Board.StorageMode.PACKED);
+        long seed = generator.generateNext(board, 8, 15);
+
+        // 重新生成不搜索，所以用极小的预算也得到同一张地图
+        NoGuessMapGenerator replay = new NoGuessMapGenerator(new RandomMapGenerator(), 1);
+        Board regenerated = new Board(16, 30, 99);
+        replay.generate(regenerated, 8, 15, seed);
+        assertEquals(board.mineLayoutHash(), regenerated.mineLayoutHash());
+        assertEquals(0, replay.getStatistics().getBoards());
+    }
+
+    @Test
+    void testTimeoutFallsBackToPlainBoard() {
+        // 2x2 棋盘一个雷总要猜测，预算用完后退回普通地图
+        NoGuessMapGenerator generator = new NoGuessMapGenerator(new RandomMapGenerator(), 5);
+        Board board = new Board(2, 2, 1);
+        long seed = generator.generateNext(board, 0, 0);
+        assertEquals(3, countSafe(mines(board)));
+        assertFalse(board.isMine(0, 0));
+
+        // 超时时返回的种子同样能重新生成这张普通地图
+        Board regenerated = new Board(2, 2, 1);
+        generator.generate(regenerated, 0, 0, seed);
+        assertEquals(board.mineLayoutHash(), regenerated.mineLayoutHash());
+
+        NoGuessMapGenerator.Statistics statistics = generator.getStatistics();
+        assertEquals(1, statistics.getBoards());
+        assertEquals(1, statistics.getTimeouts());
+        assertEquals(statistics.getAttempts(), statistics.getRejections());
+    }
+
+    private static long countSafe(boolean[] mines) {
+        long safe = 0;
+        for (boolean mine : mines) {
+            if (!mine) {
+                safe++;
+            }
+        }
+        return safe;
+    }
+
+    @Test
+    void testInvalidArguments() {
+        RandomMapGenerator candidates = new RandomMapGenerator();
+        assertThrows(NullPointerException.class, () -> new NoGuessMapGenerator(null, 100));
+        assertThrows(NullPointerException.class, () -> new NoGuessMapGenerator(candidates, 100, null));
+        assertThrows(IllegalArgumentException.class, () -> new NoGuessMapGenerator(candidates, 0));
+    }
+}
@@ -0,0 +1,138 @@
+package com.minesweep.core.logic;
+
+import com.minesweep.core.model.Board;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PooledMapGeneratorTest {
+
+    private static int countMines(Board board) {
+        int mines = 0;
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                if (board.isMine(row, col)) {
+                    mines++;
+                }
+            }
+        }
+        return mines;
+    }
+
+    private static void assertSafeZoneClear(Board board, int firstRow, int firstCol) {
+        for (int row = Math.max(0, firstRow - 1); row <= Math.min(board.getRows() - 1, firstRow + 1); row++) {
+            for (int col = Math.max(0, firstCol - 1); col <= Math.min(board.getCols() - 1, firstCol + 1); col++) {
+                assertFalse(board.isMine(row, col), row + "," + col);
+            }
+        }
+    }
+
+    @Test
+    void testPreparedPoolServesFirstClick() {
+        // 补充任务先攒起来，手动执行，这样能看到每次开局都从池中取走一个布局
+        List<Runnable> refills = new ArrayList<>();
+        PooledMapGenerator generator = new PooledMapGenerator(1L, 4, refills::add);
+        generator.prepare(16, 30, 99);
+        assertEquals(0, generator.getPooledCount(16, 30, 99));
+        runAll(refills);
+        assertEquals(4, generator.getPooledCount(16, 30, 99));
+
+        for (int i = 0; i < 4; i++) {
+            GameEngine engine = new GameEngine(new Board(16, 30, 99, Board.StorageMode.PACKED), generator);
+            engine.reveal(i % 16, (i * 7) % 30);
+            assertEquals(99, countMines(engine.getBoard()));
+            assertSafeZoneClear(engine.getBoard(), i % 16, (i * 7) % 30);
+            assertEquals(3 - i, generator.getPooledCount(16, 30, 99));
+        }
+        // 只提交了一个补充任务，执行后池重新装满
+        assertEquals(1, refills.size());
+        runAll(refills);
+        assertEquals(4, generator.getPooledCount(16, 30, 99));
+        assertEquals(0, generator.getPooledCount(9, 9, 10));
+    }
+
+    private static void runAll(List<Runnable> tasks) {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    @Test
+    void testGameResultSeedRegeneratesBoard() {
+        PooledMapGenerator generator = new PooledMapGenerator(2L, 2, Runnable::run);
+        generator.prepare(9, 9, 30);
+        GameEngine engine = new GameEngine(new Board(9, 9, 30), generator);
+        engine.reveal(4, 4);
+        for (int row = 0; row < 9 && !engine.getState().isFinished(); row++) {
+            for (int col = 0; col < 9 && !engine.getState().isFinished(); col++) {
+                if (!engine.getBoard().isRevealed(row, col)) {
+                    engine.reveal(row, col);
+                }
+            }
+        }
+        GameResult result = engine.getGameResult();
+
+        Board regenerated = new Board(9, 9, 30, Board.StorageMode.BITBOARD);
+        new PooledMapGenerator(1).generate(regenerated, 4, 4, result.getSeed());
+        assertEquals(result.getBoardHash(), regenerated.mineLayoutHash());
+    }
+
+    @Test
+    void testHighDensity() {
+        PooledMapGenerator generator = new PooledMapGenerator(3L, 1, Runnable::run);
+        // 安全区外空格不到一半，以及安全区外放不下所有雷两种情况
+        for (int mines : new int[] {80, 91, 95, 99}) {
+            for (int i = 0; i < 20; i++) {
+                // 经过引擎开局，首次点击检查要与缩小安全区的规则一致
+                GameEngine engine = new GameEngine(new Board(10, 10, mines, Board.StorageMode.PACKED), generator);
+                engine.reveal(5, 5);
+                Board board = engine.getBoard();
+                assertEquals(mines, countMines(board));
+                assertFalse(board.isMine(5, 5));
+                if (mines <= 91) {
+                    assertSafeZoneClear(board, 5, 5);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDistributionIsUniform() {
+        // 3x4 棋盘点击角落，安全区外 8 格放 2 雷和 6 雷，各有 28 种布局
+        PooledMapGenerator generator = new PooledMapGenerator(4L, 8, Runnable::run);
+        int trials = 28_000;
+        for (int mines : new int[] {2, 6}) {
+            int[] layouts = new int[1 << 12];
+            for (int i = 0; i < trials; i++) {
+                Board board = new Board(3, 4, mines);
+                generator.generate(board, 0, 0);
+                int layout = 0;
+                for (int square = 0; square < 12; square++) {
+                    if (board.isMine(square / 4, square % 4)) {
+                        layout |= 1 << square;
+                    }
+                }
+                layouts[layout]++;
+            }
+            int distinct = 0;
+            for (int count : layouts) {
+                if (count > 0) {
+                    distinct++;
+                    assertTrue(count > 800 && count < 1200, "count " + count);
+                }
+            }
+            assertEquals(28, distinct);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PooledMapGenerator(0));
+        assertThrows(NullPointerException.class, () -> new PooledMapGenerator(1L, 1, null));
+        PooledMapGenerator generator = new PooledMapGenerator(1);
+        assertThrows(IllegalArgumentException.class, () -> generator.prepare(3, 3, 9));
+        assertThrows(IllegalArgumentException.class, () -> generator.prepare(0, 3, 1));
+    }
+}
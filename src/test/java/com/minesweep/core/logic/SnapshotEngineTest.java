@@ -0,0 +1,68 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.core.model.Board;
+import com.minesweep.core.model.BoardSnapshot;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+class SnapshotEngineTest {
+
+    @Test
+    void testSnapshotsFollowMoves() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        assertThrows(IllegalStateException.class, engine::getSnapshot);
+        engine.enableSnapshots();
+        assertEquals(0, engine.getSnapshot().getVersion());
+
+        engine.reveal(8, 8);
+        BoardSnapshot afterReveal = engine.getSnapshot();
+        engine.cycleMark(0, 0);
+        BoardSnapshot afterMark = engine.getSnapshot();
+
+        assertEquals(1, afterReveal.getVersion());
+        assertEquals(2, afterMark.getVersion());
+        assertEquals(2, engine.getMoveCount());
+        assertTrue(afterReveal.isRevealed(8, 8));
+        assertFalse(afterReveal.isFlagged(0, 0));
+        assertTrue(afterMark.isFlagged(0, 0));
+        assertEquals(engine.getBoard().getRevealedCount(), afterMark.getRevealedCount());
+    }
+
+    @Test
+    void testReaderSeesConsistentSnapshots() throws InterruptedException {
+        Board board = new Board(64, 64, 1, Board.StorageMode.PACKED);
+        GameEngine engine = new GameEngine(board, (b, r, c) -> { }, false);
+        engine.startGame(0, 0);
+        engine.enableSnapshots();
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                BoardSnapshot snapshot = engine.getSnapshot();
+                int flagged = 0;
+                for (int row = 0; row < snapshot.getRows(); row++) {
+                    for (int col = 0; col < snapshot.getCols(); col++) {
+                        if (snapshot.isFlagged(row, col)) {
+                            flagged++;
+                        }
+                    }
+                }
+                if (flagged != snapshot.getFlaggedCount()) {
+                    failure.set("Snapshot " + snapshot.getVersion() + " has " + flagged + " flags");
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 5000; i++) {
+            engine.cycleMark((i / 64) % 64, i % 64);
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(5000, engine.getSnapshot().getVersion());
+    }
+}
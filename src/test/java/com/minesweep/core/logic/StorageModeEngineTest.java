@@ -0,0 +1,131 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.core.model.Board;
+import java.io.IOException;
+import java.nio.file.Path;
+
+class StorageModeEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    // 重新打开的棋盘已经布好雷，不应再调用生成器
+    private static final MapGenerator NO_GENERATION = (board, firstRow, firstCol) -> {
+        throw new AssertionError("Generator called for a saved board");
+    };
+
+    private static GameEngine createEngine(Board.StorageMode storageMode) {
+        Board board = new Board(9, 9, 13, storageMode);
+        GameEngine engine = new GameEngine(board, new BasicMapUtil.DummyMapGenerator());
+        engine.reveal(8, 8);
+        return engine;
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        assertEquals(expected.getRevealedCount(), actual.getRevealedCount());
+        assertEquals(expected.getFlaggedCount(), actual.getFlaggedCount());
+        for (int row = 0; row < expected.getRows(); row++) {
+            for (int col = 0; col < expected.getCols(); col++) {
+                assertEquals(expected.isRevealed(row, col), actual.isRevealed(row, col),
+                        "Revealed mismatch at (" + row + ", " + col + ")");
+                assertEquals(expected.getMarkState(row, col), actual.getMarkState(row, col));
+                assertEquals(expected.getNeighborMineCount(row, col), actual.getNeighborMineCount(row, col));
+            }
+        }
+    }
+
+    @Test
+    void testPackedGameMatchesObjectGame() {
+        assertCompactGameMatchesObjectGame(Board.StorageMode.PACKED);
+    }
+
+    @Test
+    void testBitboardGameMatchesObjectGame() {
+        assertCompactGameMatchesObjectGame(Board.StorageMode.BITBOARD);
+    }
+
+    @Test
+    void testOffHeapGameMatchesObjectGame() {
+        assertCompactGameMatchesObjectGame(Board.StorageMode.OFF_HEAP);
+    }
+
+    private static void assertCompactGameMatchesObjectGame(Board.StorageMode storageMode) {
+        GameEngine object = createEngine(Board.StorageMode.OBJECT);
+        GameEngine packed = createEngine(storageMode);
+        assertSameBoard(object.getBoard(), packed.getBoard());
+
+        for (GameEngine engine : new GameEngine[]{object, packed}) {
+            engine.reveal(0, 8);
+            engine.reveal(3, 3);
+            engine.cycleMark(2, 2);
+            engine.cycleMark(3, 4);
+            engine.cycleMark(4, 3);
+            engine.cycleMark(4, 4);
+            assertTrue(engine.chord(3, 3));
+        }
+
+        assertSameBoard(object.getBoard(), packed.getBoard());
+        assertEquals(object.getState(), packed.getState());
+        assertEquals(object.getRemainingMines(), packed.getRemainingMines());
+    }
+
+    @Test
+    void testPackedGameLoss() {
+        GameEngine engine = createEngine(Board.StorageMode.PACKED);
+        engine.reveal(0, 0);
+        assertEquals(GameState.LOST, engine.getState());
+        assertTrue(engine.getBoard().isRevealed(0, 0));
+    }
+
+    @Test
+    void testReopenedMappedBoardResumesGame() throws IOException {
+        Path file = tempDir.resolve("game.bin");
+        GameEngine reference = new GameEngine(new Board(9, 9, 13, Board.StorageMode.PACKED),
+                new BasicMapUtil.DummyMapGenerator());
+        GameEngine engine = new GameEngine(Board.mapped(file, 9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        for (GameEngine game : new GameEngine[] {reference, engine}) {
+            game.reveal(8, 8);
+            game.cycleMark(0, 0);
+        }
+        assertFalse(engine.getBoard().hasSavedRevealedMine());
+
+        GameEngine resumed = new GameEngine(Board.openMapped(file), NO_GENERATION);
+        assertTrue(resumed.getBoard().hasSavedLayout());
+        assertEquals(GameState.PLAYING, resumed.getState());
+        assertEquals(reference.getRemainingMines(), resumed.getRemainingMines());
+        assertSameBoard(reference.getBoard(), resumed.getBoard());
+        assertThrows(IllegalStateException.class, () -> resumed.enableJournal(1L));
+
+        // 继续这一局，结果与一直没有中断的一局相同
+        for (GameEngine game : new GameEngine[] {reference, resumed}) {
+            game.reveal(0, 8);
+            game.reveal(3, 3);
+        }
+        assertSameBoard(reference.getBoard(), resumed.getBoard());
+        assertEquals(reference.getState(), resumed.getState());
+
+        resumed.reveal(2, 2);
+        assertEquals(GameState.LOST, resumed.getState());
+        GameEngine lost = new GameEngine(Board.openMapped(file), NO_GENERATION);
+        assertEquals(GameState.LOST, lost.getState());
+        assertFalse(lost.getBoard().isRevealed(6, 2));
+        assertThrows(IllegalStateException.class, () -> lost.reveal(6, 2));
+    }
+
+    @Test
+    void testUnstartedMappedBoardStillGenerates() throws IOException {
+        Path file = tempDir.resolve("fresh.bin");
+        Board.mapped(file, 9, 9, 13);
+        Board reopened = Board.openMapped(file);
+        assertFalse(reopened.hasSavedLayout());
+
+        GameEngine engine = new GameEngine(reopened, new BasicMapUtil.DummyMapGenerator());
+        assertEquals(GameState.READY, engine.getState());
+        engine.reveal(8, 8);
+        assertEquals(GameState.PLAYING, engine.getState());
+        assertTrue(engine.getBoard().isMine(0, 0));
+    }
+}
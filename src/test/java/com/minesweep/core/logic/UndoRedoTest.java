@@ -0,0 +1,205 @@
+package com.minesweep.core.logic;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import com.minesweep.core.model.Board;
+import com.minesweep.core.model.Cell;
+
+class UndoRedoTest {
+
+    private static byte[] encode(GameEngine engine) {
+        Board board = engine.getBoard();
+        byte[] squares = new byte[board.getRows() * board.getCols()];
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                int value = board.getMarkState(row, col).ordinal();
+                if (board.isRevealed(row, col)) {
+                    value |= 4;
+                }
+                squares[row * board.getCols() + col] = (byte) value;
+            }
+        }
+        return squares;
+    }
+
+    private static void assertSameState(byte[] expectedSquares, int revealed, int remaining, GameState state,
+                                        GameEngine engine) {
+        assertArrayEquals(expectedSquares, encode(engine));
+        assertEquals(revealed, engine.getBoard().getRevealedCount());
+        assertEquals(remaining, engine.getRemainingMines());
+        assertEquals(state, engine.getState());
+        assertEquals(engine.getBoard().countRevealedCells(), engine.getBoard().getRevealedCount());
+        assertEquals(engine.getBoard().countFlaggedCells(), engine.getBoard().getFlaggedCount());
+    }
+
+    @Test
+    void testUndoAndRedoFloodFillRestoresQuestionMarks() {
+        for (Board.StorageMode mode : new Board.StorageMode[] {Board.StorageMode.OBJECT, Board.StorageMode.PACKED}) {
+            GameEngine engine = new GameEngine(new Board(9, 9, 13, mode), new BasicMapUtil.DummyMapGenerator());
+            engine.enableUndo();
+            engine.reveal(8, 8);
+            // 开局一步不能撤销
+            assertFalse(engine.canUndo());
+
+            engine.cycleMark(0, 3);
+            engine.cycleMark(0, 3);
+            engine.cycleMark(0, 1);
+            assertEquals(Cell.MarkState.QUESTIONED, engine.getBoard().getMarkState(0, 3));
+            byte[] before = encode(engine);
+            int revealedBefore = engine.getBoard().getRevealedCount();
+            int remainingBefore = engine.getRemainingMines();
+
+            engine.reveal(0, 2);
+            byte[] after = encode(engine);
+            int revealedAfter = engine.getBoard().getRevealedCount();
+            assertTrue(engine.getBoard().isRevealed(0, 3));
+
+            engine.undo();
+            assertSameState(before, revealedBefore, remainingBefore, GameState.PLAYING, engine);
+            assertEquals(Cell.MarkState.QUESTIONED, engine.getBoard().getMarkState(0, 3));
+            assertTrue(engine.canRedo());
+
+            engine.redo();
+            assertSameState(after, revealedAfter, remainingBefore, GameState.PLAYING, engine);
+            assertFalse(engine.canRedo());
+
+            // 撤销到开局之后为止
+            engine.undo();
+            engine.undo();
+            engine.undo();
+            engine.undo();
+            assertFalse(engine.canUndo());
+            assertEquals(4, engine.getBoard().getRevealedCount());
+            assertEquals(13, engine.getRemainingMines());
+            assertThrows(IllegalStateException.class, engine::undo);
+        }
+    }
+
+    @Test
+    void testUndoLostGame() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        engine.enableUndo();
+        engine.reveal(8, 8);
+        byte[] before = encode(engine);
+
+        engine.reveal(4, 4);
+        assertEquals(GameState.LOST, engine.getState());
+
+        engine.undo();
+        assertSameState(before, 4, 13, GameState.PLAYING, engine);
+        assertThrows(IllegalStateException.class, () -> engine.getGameResult());
+        engine.redo();
+        assertEquals(GameState.LOST, engine.getState());
+        assertTrue(engine.getBoard().isRevealed(4, 4));
+    }
+
+    @Test
+    void testNewMoveDiscardsRedo() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        engine.enableUndo();
+        engine.reveal(8, 8);
+        engine.cycleMark(0, 0);
+        engine.cycleMark(1, 1);
+        engine.undo();
+        engine.undo();
+        assertTrue(engine.canRedo());
+
+        engine.reveal(0, 1);
+        assertFalse(engine.canRedo());
+        assertThrows(IllegalStateException.class, engine::redo);
+        assertFalse(engine.getBoard().isFlagged(0, 0));
+
+        engine.undo();
+        assertFalse(engine.getBoard().isRevealed(0, 1));
+        assertFalse(engine.canUndo());
+        assertEquals(7, engine.getMoveCount());
+    }
+
+    @Test
+    void testUndoLargeFloodFill() {
+        // 第 5 列全是雷，开局只打开左侧，随后一次揭示右侧约 10 万格
+        int size = 320;
+        Board board = new Board(size, size, size, Board.StorageMode.PACKED);
+        GameEngine engine = new GameEngine(board, (b, r, c) -> {
+            for (int row = 0; row < size; row++) {
+                b.placeMine(row, 5);
+            }
+        });
+        engine.enableUndo();
+        engine.reveal(0, 0);
+        int opening = board.getRevealedCount();
+
+        engine.reveal(0, 200);
+        assertTrue(board.getRevealedCount() - opening > 100_000);
+        assertEquals(GameState.WON, engine.getState());
+
+        engine.undo();
+        assertEquals(opening, board.getRevealedCount());
+        assertEquals(opening, board.countRevealedCells());
+        assertEquals(GameState.PLAYING, engine.getState());
+        assertFalse(board.isRevealed(0, 200));
+        engine.redo();
+        assertEquals(GameState.WON, engine.getState());
+        assertEquals(board.getRevealedCount(), board.countRevealedCells());
+    }
+
+    @Test
+    void testJournalReplaysUndoAndRedo() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        GameJournal journal = engine.enableJournal(0L);
+        engine.reveal(8, 8);
+        engine.enableUndo();
+        engine.cycleMark(0, 0);
+        engine.reveal(0, 1);
+        engine.undo();
+        engine.undo();
+        engine.redo();
+        engine.reveal(0, 2);
+
+        GameEngine replayed = GameJournal.replay(journal.toByteArray(), seed -> new BasicMapUtil.DummyMapGenerator());
+
+        assertArrayEquals(encode(engine), encode(replayed));
+        assertEquals(engine.getMoveCount(), replayed.getMoveCount());
+        assertEquals(engine.getRemainingMines(), replayed.getRemainingMines());
+        assertEquals(engine.canUndo(), replayed.canUndo());
+    }
+
+    @Test
+    void testNoOpMovesLeaveNoUndoEntry() {
+        GameEngine engine = new GameEngine(new Board(9, 9, 13), new BasicMapUtil.DummyMapGenerator());
+        engine.enableUndo();
+        engine.reveal(8, 8);
+        engine.cycleMark(0, 3);
+        byte[] marked = encode(engine);
+
+        // 揭示已揭示的格子、数字不满足的 Chord 和批量命令中的无效命令都不改变棋盘
+        assertFalse(engine.reveal(8, 8));
+        engine.reveal(1, 1);
+        byte[] revealed = encode(engine);
+        engine.undo();
+        assertArrayEquals(marked, encode(engine));
+        assertTrue(engine.canRedo());
+        assertFalse(engine.chord(8, 7));
+        assertFalse(engine.reveal(8, 8));
+        byte[] outcomes = new byte[2];
+        engine.executeBatch(new int[] {GameEngine.OP_REVEAL, 8, 8, GameEngine.OP_CHORD, 8, 7}, outcomes);
+        assertArrayEquals(new byte[] {GameEngine.OUTCOME_UNCHANGED, GameEngine.OUTCOME_UNCHANGED}, outcomes);
+
+        // 无效的操作没有丢弃可重做的步，也没有占用撤销记录
+        assertTrue(engine.canRedo());
+        engine.redo();
+        assertArrayEquals(revealed, encode(engine));
+        engine.undo();
+        engine.undo();
+        assertEquals(Cell.MarkState.NONE, engine.getBoard().getMarkState(0, 3));
+        assertFalse(engine.canUndo());
+    }
+
+    @Test
+    void testUndoRequiresEnable() {
+        GameEngine engine = BasicMapUtil.createAndSetupEngine();
+        assertFalse(engine.canUndo());
+        assertThrows(IllegalStateException.class, engine::undo);
+        assertThrows(IllegalStateException.class, engine::redo);
+    }
+}
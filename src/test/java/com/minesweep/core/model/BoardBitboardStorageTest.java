@@ -0,0 +1,92 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+class BoardBitboardStorageTest {
+
+    /**
+     * 在两个棋盘的相同位置随机放置雷。
+     */
+    private static void placeSameMines(Board first, Board second, long seed) {
+        Random random = new Random(seed);
+        int placed = 0;
+        while (placed < first.getTotalMines()) {
+            int row = random.nextInt(first.getRows());
+            int col = random.nextInt(first.getCols());
+            if (!first.isMine(row, col)) {
+                first.getCell(row, col).setMine(true);
+                second.getCell(row, col).setMine(true);
+                placed++;
+            }
+        }
+    }
+
+    private static void assertSameNumbers(int rows, int cols, int mines, long seed) {
+        Board object = new Board(rows, cols, mines);
+        Board bitboard = new Board(rows, cols, mines, Board.StorageMode.BITBOARD);
+        placeSameMines(object, bitboard, seed);
+
+        object.calculateNumbers();
+        bitboard.calculateNumbers();
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                assertEquals(object.isMine(row, col), bitboard.isMine(row, col));
+                assertEquals(object.getNeighborMineCount(row, col), bitboard.getNeighborMineCount(row, col),
+                        rows + "x" + cols + " count mismatch at (" + row + ", " + col + ")");
+            }
+        }
+    }
+
+    @Test
+    void testCalculateNumbersAcrossWordBoundaries() {
+        assertSameNumbers(5, 130, 200, 1L);
+        assertSameNumbers(4, 64, 100, 2L);
+        assertSameNumbers(7, 65, 150, 3L);
+        assertSameNumbers(16, 30, 99, 4L);
+        assertSameNumbers(1, 3, 1, 5L);
+    }
+
+    @Test
+    void testDenseBoardReachesEight() {
+        assertSameNumbers(10, 70, 650, 6L);
+
+        Board board = new Board(3, 3, 8, Board.StorageMode.BITBOARD);
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                if (row != 1 || col != 1) {
+                    board.getCell(row, col).setMine(true);
+                }
+            }
+        }
+        board.calculateNumbers();
+        assertEquals(8, board.getNeighborMineCount(1, 1));
+    }
+
+    @Test
+    void testPopCountMatchesCellState() {
+        Board board = new Board(3, 100, 0, Board.StorageMode.BITBOARD);
+        board.revealCell(0, 0);
+        board.revealCell(1, 63);
+        board.revealCell(2, 64);
+        board.cycleMark(0, 99, false);
+        board.cycleMark(2, 0, true);
+        board.cycleMark(2, 1, true);
+        board.cycleMark(2, 1, true);
+
+        assertEquals(3, board.countRevealedCells());
+        assertEquals(2, board.countFlaggedCells());
+        assertEquals(Cell.MarkState.QUESTIONED, board.getMarkState(2, 1));
+    }
+
+    @Test
+    void testObjectBoardCountsCells() {
+        Board board = new Board(2, 2, 0);
+        board.getCell(0, 0).reveal();
+        board.getCell(1, 1).cycleMark(false);
+        assertEquals(1, board.countRevealedCells());
+        assertEquals(1, board.countFlaggedCells());
+    }
+}
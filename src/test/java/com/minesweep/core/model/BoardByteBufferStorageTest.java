@@ -0,0 +1,141 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class BoardByteBufferStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void placeMines(Board board) {
+        board.getCell(0, 0).setMine(true);
+        board.getCell(1, 3).setMine(true);
+        board.getCell(2, 2).setMine(true);
+        board.getCell(3, 4).setMine(true);
+    }
+
+    @Test
+    void testOffHeapNumbersMatchObjectStorage() {
+        Board object = new Board(4, 5, 4);
+        Board offHeap = new Board(4, 5, 4, Board.StorageMode.OFF_HEAP);
+        placeMines(object);
+        placeMines(offHeap);
+
+        object.calculateNumbers();
+        offHeap.calculateNumbers();
+
+        assertEquals(Board.StorageMode.OFF_HEAP, offHeap.getStorageMode());
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 5; col++) {
+                assertEquals(object.isMine(row, col), offHeap.isMine(row, col));
+                assertEquals(object.getNeighborMineCount(row, col), offHeap.getNeighborMineCount(row, col),
+                        "Count mismatch at (" + row + ", " + col + ")");
+            }
+        }
+    }
+
+    @Test
+    void testMappedBoardSurvivesReopen() throws IOException {
+        Path file = tempDir.resolve("board.bin");
+        Board board = Board.mapped(file, 4, 5, 4);
+        placeMines(board);
+        board.calculateNumbers();
+        board.revealCell(3, 0);
+        board.incrementRevealedCount();
+        board.cycleMark(0, 0, false);
+        board.incrementFlaggedCount();
+
+        Board reopened = Board.openMapped(file);
+
+        assertEquals(Board.StorageMode.MAPPED, reopened.getStorageMode());
+        assertEquals(4, reopened.getRows());
+        assertEquals(5, reopened.getCols());
+        assertEquals(4, reopened.getTotalMines());
+        assertEquals(1, reopened.getRevealedCount());
+        assertEquals(1, reopened.getFlaggedCount());
+        assertTrue(reopened.isRevealed(3, 0));
+        assertTrue(reopened.isFlagged(0, 0));
+        assertTrue(reopened.isMine(2, 2));
+        assertEquals(board.getNeighborMineCount(1, 1), reopened.getNeighborMineCount(1, 1));
+        assertEquals(2, reopened.getNeighborMineCount(1, 2));
+    }
+
+    @Test
+    void testMappedStatusSurvivesReopen() throws IOException {
+        Path file = tempDir.resolve("status.bin");
+        Board board = Board.mapped(file, 4, 5, 4);
+        assertFalse(board.hasSavedLayout());
+        placeMines(board);
+        board.calculateNumbers();
+        assertTrue(board.hasSavedLayout());
+        assertFalse(Board.openMapped(file).hasSavedRevealedMine());
+
+        board.revealCell(2, 2);
+        assertTrue(board.hasSavedRevealedMine());
+        Board reopened = Board.openMapped(file);
+        assertTrue(reopened.hasSavedLayout());
+        assertTrue(reopened.hasSavedRevealedMine());
+
+        // 撤销揭示雷后状态位随之清除
+        reopened.restoreSquare(2, 2, false, Cell.MarkState.NONE);
+        assertFalse(Board.openMapped(file).hasSavedRevealedMine());
+        assertFalse(new Board(4, 5, 4, Board.StorageMode.OFF_HEAP).hasSavedLayout());
+    }
+
+    @Test
+    void testOffHeapFloodMatchesObjectStorage() {
+        // 大片空白区域，中间有几个雷形成的岛和一条缺口的隔墙
+        Board object = new Board(300, 400, 8);
+        Board offHeap = new Board(300, 400, 8, Board.StorageMode.OFF_HEAP);
+        int[] mines = {150 * 400 + 200, 10 * 400 + 10, 299 * 400 + 399, 100 * 400 + 50,
+                100 * 400 + 51, 100 * 400 + 52, 200 * 400 + 300, 0 * 400 + 399};
+        for (Board board : new Board[] {object, offHeap}) {
+            board.placeMines(mines);
+            board.calculateNumbers();
+            board.cycleMark(250, 20, false);
+        }
+
+        assertEquals(object.floodReveal(0, 0), offHeap.floodReveal(0, 0));
+        for (int row = 0; row < 300; row++) {
+            for (int col = 0; col < 400; col++) {
+                assertEquals(object.isRevealed(row, col), offHeap.isRevealed(row, col), row + "," + col);
+            }
+        }
+        assertEquals(object.getRevealedCount(), offHeap.getRevealedCount());
+    }
+
+    @Test
+    void testOpenMappedRejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("garbage.bin");
+        Files.write(file, new byte[128]);
+        IOException exception = assertThrows(IOException.class, () -> Board.openMapped(file));
+        assertTrue(exception.getMessage().contains("Not a board file"));
+    }
+
+    @Test
+    void testMappedModeRequiresFile() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            new Board(3, 3, 1, Board.StorageMode.MAPPED);
+        });
+        assertEquals("MAPPED storage requires a file, use Board.mapped", exception.getMessage());
+    }
+
+    @Test
+    void testSizeValidationDoesNotOverflow() {
+        // 65536 * 65536 溢出 int 后为 0，旧的检查会给出错误的异常
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            new Board(65536, 65536, 10, Board.StorageMode.OFF_HEAP);
+        });
+        assertTrue(exception.getMessage().contains("Too many safe cells"));
+
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            new Board(50000, 50000, 500_000_000, Board.StorageMode.PACKED);
+        });
+        assertEquals("Board is too large for PACKED storage", exception.getMessage());
+    }
+}
@@ -0,0 +1,227 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class BoardChunkedStorageTest {
+
+    private static int countMines(Board board, int firstRow, int firstCol, int size) {
+        int mines = 0;
+        for (int row = firstRow; row < firstRow + size; row++) {
+            for (int col = firstCol; col < firstCol + size; col++) {
+                if (board.isMine(row, col)) {
+                    mines++;
+                }
+            }
+        }
+        return mines;
+    }
+
+    @Test
+    void testChunkedBoardSizeAndTotalMines() {
+        Board board = Board.chunked(128, 192, 500);
+        assertEquals(Board.StorageMode.CHUNKED, board.getStorageMode());
+        assertEquals(6 * 500, board.getTotalMines());
+
+        Board huge = Board.chunked(64 * 30000, 64 * 30000, 800);
+        assertEquals(Integer.MAX_VALUE, huge.getTotalMines());
+    }
+
+    @Test
+    void testChunkedValidation() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            Board.chunked(100, 64, 10);
+        });
+        assertEquals("Rows and columns must be multiples of 64", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            Board.chunked(64, 64, 4088);
+        });
+        assertEquals("Mines per chunk must be between 0 and 4087", exception.getMessage());
+
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            new Board(64, 64, 10, Board.StorageMode.CHUNKED);
+        });
+        assertEquals("CHUNKED storage requires mines per chunk, use Board.chunked", exception.getMessage());
+
+        IllegalStateException stateException = assertThrows(IllegalStateException.class, () -> {
+            new Board(3, 3, 1).seedChunks(1L, 0, 0);
+        });
+        assertEquals("Board does not use CHUNKED storage", stateException.getMessage());
+    }
+
+    @Test
+    void testEachChunkHasExactMineCountAndSafeZone() {
+        Board board = Board.chunked(128, 128, 1000);
+        board.seedChunks(42L, 64, 64);
+
+        for (int row = 63; row <= 65; row++) {
+            for (int col = 63; col <= 65; col++) {
+                assertFalse(board.isMine(row, col), "Safe zone must not contain mines");
+            }
+        }
+        for (int chunkRow = 0; chunkRow < 2; chunkRow++) {
+            for (int chunkCol = 0; chunkCol < 2; chunkCol++) {
+                assertEquals(1000, countMines(board, chunkRow * 64, chunkCol * 64, 64));
+            }
+        }
+    }
+
+    @Test
+    void testSameSeedGivesSameLayout() {
+        Board first = Board.chunked(64 * 1000, 64 * 1000, 700);
+        Board second = Board.chunked(64 * 1000, 64 * 1000, 700);
+        first.seedChunks(7L, 10, 10);
+        second.seedChunks(7L, 10, 10);
+        Board other = Board.chunked(64 * 1000, 64 * 1000, 700);
+        other.seedChunks(8L, 10, 10);
+
+        boolean differs = false;
+        for (int row = 31_990; row < 32_070; row++) {
+            for (int col = 500; col < 580; col++) {
+                assertEquals(first.isMine(row, col), second.isMine(row, col));
+                differs |= first.isMine(row, col) != other.isMine(row, col);
+            }
+        }
+        assertTrue(differs, "Different seeds should give different layouts");
+    }
+
+    @Test
+    void testReadsDoNotMaterializeChunks() {
+        Board board = Board.chunked(64 * 100, 64 * 100, 400);
+        board.seedChunks(3L, 0, 0);
+
+        assertFalse(board.isRevealed(5000, 5000));
+        assertEquals(Cell.MarkState.NONE, board.getMarkState(5000, 5000));
+        board.getNeighborMineCount(5000, 5000);
+        assertEquals(0, board.getMaterializedChunkCount());
+
+        board.cycleMark(5000, 5000, false);
+        assertEquals(1, board.getMaterializedChunkCount());
+        assertTrue(board.isFlagged(5000, 5000));
+        assertEquals(1, board.countFlaggedCells());
+    }
+
+    @Test
+    void testReadsDoNotCacheMineLayouts() {
+        ChunkedCellStore store = new ChunkedCellStore(64 * 100, 64 * 100, 400);
+        store.seed(3L, 0, 0);
+        boolean mine = store.isMine(5000, 5000);
+        store.get(5000, 5000);
+        store.get(5000, 5056);
+        assertEquals(0, store.cachedMineChunkCount());
+        // 即时生成的雷位与缓存后的相同
+        assertEquals(mine, store.isMine(5000, 5000));
+
+        // 写入时缓存该区块和相邻 8 个区块
+        store.set(5000, 5000, store.get(5000, 5000) | CellStore.REVEALED_BIT);
+        assertEquals(9, store.cachedMineChunkCount());
+        assertEquals(mine, store.isMine(5000, 5000));
+    }
+
+    @Test
+    void testWindowReadsGenerateEachChunkOnce() {
+        ChunkedCellStore store = new ChunkedCellStore(64 * 100, 64 * 100, 400);
+        store.seed(3L, 0, 0);
+        store.set(4990, 4990, store.get(4990, 4990) | CellStore.REVEALED_BIT);
+        store.set(4991, 4991, store.get(4991, 4991) | CellStore.FLAGGED_MARK);
+        int before = store.transientGenerationCount();
+
+        // 只查询揭示和标记状态时不生成雷位
+        int revealed = 0;
+        int flagged = 0;
+        for (int row = 4968; row < 5032; row++) {
+            for (int col = 4968; col < 5096; col++) {
+                revealed += store.isRevealed(row, col) ? 1 : 0;
+                flagged += store.getMarkState(row, col) == Cell.MarkState.FLAGGED ? 1 : 0;
+            }
+        }
+        assertEquals(1, revealed);
+        assertEquals(1, flagged);
+        assertEquals(1, store.countFlaggedAround(4992, 4992));
+        assertEquals(before, store.transientGenerationCount());
+
+        // 写入只缓存了窗口左侧 2x2 个区块，右侧 2 个区块在读取数字时各生成一次
+        for (int row = 4968; row < 5032; row++) {
+            for (int col = 4968; col < 5096; col++) {
+                store.getNeighborMineCount(row, col);
+            }
+        }
+        assertEquals(before + 2, store.transientGenerationCount());
+    }
+
+    @Test
+    void testConcurrentReadsSeeSameLayout() throws Exception {
+        Board reference = Board.chunked(64 * 20, 64 * 20, 900);
+        reference.seedChunks(5L, 0, 0);
+        Board shared = Board.chunked(64 * 20, 64 * 20, 900);
+        shared.seedChunks(5L, 0, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    int[] counts = new int[64 * 20];
+                    for (int row = 0; row < 64 * 20; row++) {
+                        for (int col = 0; col < 64 * 20; col += 7) {
+                            counts[row] += shared.getNeighborMineCount(row, col) + (shared.isMine(row, col) ? 16 : 0);
+                        }
+                    }
+                    return counts;
+                }));
+            }
+            int[] expected = new int[64 * 20];
+            for (int row = 0; row < 64 * 20; row++) {
+                for (int col = 0; col < 64 * 20; col += 7) {
+                    expected[row] += reference.getNeighborMineCount(row, col) + (reference.isMine(row, col) ? 16 : 0);
+                }
+            }
+            for (Future<int[]> result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, shared.getMaterializedChunkCount());
+    }
+
+    @Test
+    void testCountsAcrossChunkBorderMatchMines() {
+        Board board = Board.chunked(128, 128, 1500);
+        board.seedChunks(11L, 0, 0);
+        // 先读取未创建区块的数字，再创建区块后比较
+        int before = board.getNeighborMineCount(64, 63);
+        board.revealCell(64, 63);
+        board.calculateNumbers();
+
+        for (int row = 60; row < 68; row++) {
+            for (int col = 60; col < 68; col++) {
+                if (board.isMine(row, col)) {
+                    continue;
+                }
+                int expected = 0;
+                for (int r = row - 1; r <= row + 1; r++) {
+                    for (int c = col - 1; c <= col + 1; c++) {
+                        if ((r != row || c != col) && board.isMine(r, c)) {
+                            expected++;
+                        }
+                    }
+                }
+                assertEquals(expected, board.getNeighborMineCount(row, col), "Count mismatch at (" + row + ", " + col + ")");
+            }
+        }
+        assertEquals(before, board.getNeighborMineCount(64, 63));
+    }
+
+    @Test
+    void testMinesCannotBeSetDirectly() {
+        Board board = Board.chunked(64, 64, 10);
+        assertThrows(UnsupportedOperationException.class, () -> board.getCell(1, 1).setMine(true));
+    }
+}
@@ -0,0 +1,67 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.lang.management.ManagementFactory;
+
+class BoardFloodRevealTest {
+    private static final Board.StorageMode[] STORAGE_MODES = {
+            Board.StorageMode.OBJECT,
+            Board.StorageMode.PACKED,
+            Board.StorageMode.BITBOARD
+    };
+
+    /**
+     * 用第 wallCol 列的一整列雷把棋盘分成左右两个空白区域。
+     */
+    private static Board walledBoard(int rows, int cols, int wallCol, Board.StorageMode storageMode) {
+        Board board = new Board(rows, cols, rows, storageMode);
+        for (int row = 0; row < rows; row++) {
+            board.getCell(row, wallCol).setMine(true);
+        }
+        board.calculateNumbers();
+        return board;
+    }
+
+    @Test
+    void testLargeOpeningRevealsEverySafeSquare() {
+        for (Board.StorageMode storageMode : STORAGE_MODES) {
+            Board board = new Board(1500, 1500, 0, storageMode);
+            assertEquals(1500 * 1500, board.floodReveal(750, 750));
+            assertEquals(1500 * 1500, board.getRevealedCount());
+            assertEquals(1500 * 1500, board.countRevealedCells());
+        }
+    }
+
+    @Test
+    void testFloodStopsAtNumbers() {
+        for (Board.StorageMode storageMode : STORAGE_MODES) {
+            Board board = walledBoard(40, 30, 10, storageMode);
+            assertEquals(40 * 10, board.floodReveal(0, 0), storageMode.name());
+            assertFalse(board.isRevealed(0, 10));
+            assertFalse(board.isRevealed(0, 11));
+            assertEquals(40 * 19, board.floodReveal(39, 29), storageMode.name());
+        }
+    }
+
+    @Test
+    void testRepeatedFloodDoesNotAllocatePerSquare() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+
+        for (Board.StorageMode storageMode : STORAGE_MODES) {
+            Board board = walledBoard(600, 1201, 600, storageMode);
+            // 左半边预热复用的栈，右半边大小相同
+            board.floodReveal(300, 0);
+            long before = threads.getThreadAllocatedBytes(threadId);
+            int revealed = board.floodReveal(300, 1200);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+            assertEquals(600 * 600, revealed);
+            assertTrue(allocated < 64 * 1024, storageMode + " flood fill allocated " + allocated + " bytes");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.ForkJoinPool;
+
+class BoardForkTest {
+
+    private static Board createBoard(Board.StorageMode mode) {
+        Board board = new Board(100, 130, 6, mode);
+        board.placeMines(new int[] {0, 5 * 130 + 5, 70 * 130 + 70, 70 * 130 + 71, 99 * 130 + 129, 40 * 130 + 128});
+        board.calculateNumbers();
+        return board;
+    }
+
+    private static void assertSameSquares(Board expected, Board actual) {
+        for (int row = 0; row < expected.getRows(); row++) {
+            for (int col = 0; col < expected.getCols(); col++) {
+                assertEquals(expected.encodedValue(row, col), actual.encodedValue(row, col), row + "," + col);
+            }
+        }
+        assertEquals(expected.getRevealedCount(), actual.getRevealedCount());
+        assertEquals(expected.getFlaggedCount(), actual.getFlaggedCount());
+    }
+
+    @Test
+    void testForkIsIndependentOfParent() {
+        for (Board.StorageMode mode : new Board.StorageMode[] {Board.StorageMode.OBJECT, Board.StorageMode.PACKED}) {
+            Board parent = createBoard(mode);
+            parent.cycleMark(0, 0, false);
+            parent.incrementFlaggedCount();
+            Board reference = createBoard(mode);
+            reference.cycleMark(0, 0, false);
+            reference.incrementFlaggedCount();
+
+            Board fork = parent.fork();
+            assertEquals(Board.StorageMode.COPY_ON_WRITE, fork.getStorageMode());
+            assertSameSquares(parent, fork);
+
+            // 在派生棋盘上展开大片区域，父棋盘不受影响
+            assertTrue(fork.floodReveal(50, 20) > 1000);
+            fork.cycleMark(99, 129, true);
+            assertSameSquares(reference, parent);
+
+            // 父棋盘的修改也不会影响派生棋盘
+            parent.cycleMark(99, 128, false);
+            assertFalse(fork.isFlagged(99, 128));
+            parent.floodReveal(90, 10);
+            Board forkCopy = fork.fork();
+            assertSameSquares(fork, forkCopy);
+            assertEquals(fork.countRevealedCells(), fork.getRevealedCount());
+            assertEquals(parent.countRevealedCells(), parent.getRevealedCount());
+        }
+    }
+
+    @Test
+    void testForkOfForkSharesUntilWrite() {
+        Board root = createBoard(Board.StorageMode.PACKED).fork();
+        Board left = root.fork();
+        Board right = left.fork();
+
+        left.revealCell(0, 1);
+        right.cycleMark(0, 1, false);
+        root.revealCell(99, 0);
+
+        assertTrue(left.isRevealed(0, 1));
+        assertFalse(right.isRevealed(0, 1));
+        assertTrue(right.isFlagged(0, 1));
+        assertFalse(root.isRevealed(0, 1));
+        assertFalse(root.isFlagged(0, 1));
+        assertFalse(left.isRevealed(99, 0));
+        assertFalse(right.isRevealed(99, 0));
+    }
+
+    @Test
+    void testForkAfterParentSnapshotTracksLaterChanges() {
+        Board parent = createBoard(Board.StorageMode.BITBOARD);
+        Board first = parent.fork();
+        parent.revealCell(2, 2);
+        Board second = parent.fork();
+
+        assertFalse(first.isRevealed(2, 2));
+        assertTrue(second.isRevealed(2, 2));
+        assertEquals(parent.getNeighborMineCount(4, 4), second.getNeighborMineCount(4, 4));
+    }
+
+    @Test
+    void testRepeatedForksReencodeOnlyChangedTiles() {
+        Board parent = createBoard(Board.StorageMode.PACKED);
+        Board first = parent.fork();
+        assertTrue(parent.isTrackingSnapshotTiles());
+        assertFalse(first.isTrackingSnapshotTiles());
+
+        // 第一次派生之后只有修改过的瓦片被重新编码，其余瓦片在两次派生之间共享
+        BoardSnapshot before = parent.snapshot(0);
+        parent.revealCell(0, 1);
+        parent.cycleMark(99, 129, false);
+        Board second = parent.fork();
+        assertSameSquares(parent, second);
+        assertFalse(first.isRevealed(0, 1));
+        BoardSnapshot after = parent.snapshot(1);
+        int shared = 0;
+        for (int tile = 0; tile < after.tiles().length; tile++) {
+            if (after.tiles()[tile] == before.tiles()[tile]) {
+                shared++;
+            }
+        }
+        assertEquals(after.tiles().length - 2, shared);
+    }
+
+    @Test
+    void testParallelFloodMarksTilesForFork() {
+        Board parent = new Board(300, 300, 1, Board.StorageMode.PACKED);
+        parent.placeMines(new int[] {299 * 300 + 299});
+        parent.calculateNumbers();
+        Board first = parent.fork();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(300 * 300 - 1, parent.floodRevealParallel(0, 0, pool));
+        } finally {
+            pool.shutdown();
+        }
+        assertSameSquares(parent, parent.fork());
+        assertEquals(0, first.getRevealedCount());
+    }
+
+    @Test
+    void testUnsupportedModes() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(3, 3, 0, Board.StorageMode.COPY_ON_WRITE));
+        assertThrows(IllegalStateException.class, () -> Board.chunked(64, 64, 10).fork());
+    }
+}
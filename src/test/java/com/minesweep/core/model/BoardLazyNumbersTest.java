@@ -0,0 +1,68 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardLazyNumbersTest {
+
+    private static void placeMines(Board board) {
+        board.getCell(0, 0).setMine(true);
+        board.getCell(1, 2).setMine(true);
+        board.getCell(3, 3).setMine(true);
+    }
+
+    @Test
+    void testLazyNumbersMatchEagerNumbers() {
+        for (Board.StorageMode storageMode : new Board.StorageMode[]{Board.StorageMode.OBJECT, Board.StorageMode.PACKED}) {
+            Board eager = new Board(4, 5, 3, storageMode);
+            Board lazy = new Board(4, 5, 3, storageMode);
+            lazy.setLazyNumbers(true);
+            placeMines(eager);
+            placeMines(lazy);
+
+            eager.calculateNumbers();
+            lazy.calculateNumbers();
+
+            for (int row = 0; row < 4; row++) {
+                for (int col = 0; col < 5; col++) {
+                    assertEquals(eager.getNeighborMineCount(row, col), lazy.getNeighborMineCount(row, col),
+                            storageMode + " mismatch at (" + row + ", " + col + ")");
+                    assertEquals(eager.getCell(row, col).getNeighborMineCount(), lazy.getCell(row, col).getNeighborMineCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCalculateNumbersDoesNotScanInLazyMode() {
+        Board board = new Board(1000, 1000, 1, Board.StorageMode.PACKED);
+        board.setLazyNumbers(true);
+        assertTrue(board.isLazyNumbers());
+
+        board.calculateNumbers();
+        assertEquals(0, board.knownNeighborMineCounts());
+
+        board.getNeighborMineCount(500, 500);
+        board.getNeighbors(10, 10);
+        assertEquals(1 + 8, board.knownNeighborMineCounts());
+    }
+
+    @Test
+    void testCalculateNumbersInvalidatesEarlyReads() {
+        Board board = new Board(3, 3, 1);
+        board.setLazyNumbers(true);
+        // 布雷前读取的数字会在 calculateNumbers 后失效
+        assertEquals(0, board.getNeighborMineCount(1, 1));
+        board.getCell(0, 0).setMine(true);
+        board.calculateNumbers();
+        assertEquals(0, board.knownNeighborMineCounts());
+        assertEquals(1, board.getNeighborMineCount(1, 1));
+    }
+
+    @Test
+    void testLazyModeIsIgnoredForChunkedBoards() {
+        Board board = Board.chunked(64, 64, 10);
+        board.setLazyNumbers(true);
+        assertFalse(board.isLazyNumbers());
+    }
+}
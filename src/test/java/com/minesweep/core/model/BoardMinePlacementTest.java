@@ -0,0 +1,79 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardMinePlacementTest {
+
+    private static final Board.StorageMode[] MODES = {
+            Board.StorageMode.OBJECT, Board.StorageMode.PACKED, Board.StorageMode.BITBOARD, Board.StorageMode.OFF_HEAP
+    };
+
+    @Test
+    void testPlaceMinesMatchesPlaceMine() {
+        for (Board.StorageMode mode : MODES) {
+            Board bulk = new Board(4, 5, 3, mode);
+            Board single = new Board(4, 5, 3, mode);
+
+            // 重复的下标只放一次雷
+            bulk.placeMines(new int[] {0, 7, 19, 7});
+            single.placeMine(0, 0);
+            single.placeMine(1, 2);
+            single.placeMine(3, 4);
+            bulk.calculateNumbers();
+            single.calculateNumbers();
+
+            for (int row = 0; row < 4; row++) {
+                for (int col = 0; col < 5; col++) {
+                    assertEquals(single.isMine(row, col), bulk.isMine(row, col), mode + " " + row + "," + col);
+                    assertEquals(single.getNeighborMineCount(row, col), bulk.getNeighborMineCount(row, col));
+                }
+            }
+            assertEquals(2, bulk.countAdjacentMines(1, 1));
+        }
+    }
+
+    @Test
+    void testInvalidIndexLeavesBoardUnchanged() {
+        Board board = new Board(3, 3, 1, Board.StorageMode.PACKED);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> board.placeMines(new int[] {4, 9}));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.placeMines(new int[] {-1}));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.placeMine(3, 0));
+        assertThrows(NullPointerException.class, () -> board.placeMines(null));
+        assertFalse(board.isMine(1, 1));
+    }
+
+    @Test
+    void testChunkedBoardRejectsPlacement() {
+        Board board = Board.chunked(64, 64, 10);
+        assertThrows(IllegalStateException.class, () -> board.placeMine(0, 0));
+        assertThrows(IllegalStateException.class, () -> board.placeMines(new int[] {0}));
+    }
+
+    @Test
+    void testMineLayoutHashIgnoresModeAndState() {
+        long expected = 0;
+        for (Board.StorageMode mode : MODES) {
+            Board board = new Board(4, 5, 3, mode);
+            board.placeMines(new int[] {0, 7, 19});
+            board.calculateNumbers();
+            long hash = board.mineLayoutHash();
+            board.revealCell(3, 0);
+            board.cycleMark(0, 0, false);
+            assertEquals(hash, board.mineLayoutHash());
+            if (mode == MODES[0]) {
+                expected = hash;
+            }
+            assertEquals(expected, hash, mode.toString());
+        }
+
+        Board other = new Board(4, 5, 3);
+        other.placeMines(new int[] {0, 7, 18});
+        assertNotEquals(expected, other.mineLayoutHash());
+        // 同样的下标放在不同形状的棋盘上，哈希也不同
+        Board reshaped = new Board(5, 4, 3);
+        reshaped.placeMines(new int[] {0, 7, 19});
+        assertNotEquals(expected, reshaped.mineLayoutHash());
+    }
+}
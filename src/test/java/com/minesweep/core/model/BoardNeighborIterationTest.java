@@ -0,0 +1,74 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+
+class BoardNeighborIterationTest {
+
+    private static List<Cell> visitedCells(Board board, int row, int col) {
+        List<Cell> visited = new ArrayList<>();
+        board.forEachNeighbor(row, col, (r, c) -> visited.add(board.getCell(r, c)));
+        return visited;
+    }
+
+    @Test
+    void testForEachNeighborMatchesGetNeighbors() {
+        Board board = new Board(4, 5, 0);
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 5; col++) {
+                List<Cell> expected = board.getNeighbors(row, col);
+                List<Cell> actual = visitedCells(board, row, col);
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertSame(expected.get(i), actual.get(i), "Visit order should match getNeighbors");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testForEachNeighborOnSingleRowBoard() {
+        Board board = new Board(1, 3, 0);
+        int[] visits = new int[1];
+        board.forEachNeighbor(0, 1, (r, c) -> visits[0]++);
+        assertEquals(2, visits[0]);
+    }
+
+    @Test
+    void testCountAdjacentMines() {
+        Board board = new Board(3, 3, 3);
+        board.getCell(0, 0).setMine(true);
+        board.getCell(0, 2).setMine(true);
+        board.getCell(1, 1).setMine(true);
+
+        assertEquals(3, board.countAdjacentMines(0, 1));
+        assertEquals(2, board.countAdjacentMines(1, 1), "Mine cells count their neighbors too");
+        assertEquals(1, board.countAdjacentMines(2, 0));
+    }
+
+    @Test
+    void testCountAdjacentMinesOnCompactStorage() {
+        Board board = new Board(3, 3, 1, Board.StorageMode.BITBOARD);
+        board.getCell(1, 1).setMine(true);
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                assertEquals(row == 1 && col == 1 ? 0 : 1, board.countAdjacentMines(row, col));
+            }
+        }
+    }
+
+    @Test
+    void testNeighborIterationBoundsChecks() {
+        Board board = new Board(3, 3, 0);
+        IndexOutOfBoundsException exception = assertThrows(IndexOutOfBoundsException.class, () -> {
+            board.forEachNeighbor(3, 0, (r, c) -> { });
+        });
+        assertTrue(exception.getMessage().contains("Row index out of bounds"));
+        exception = assertThrows(IndexOutOfBoundsException.class, () -> {
+            board.countAdjacentMines(0, -1);
+        });
+        assertTrue(exception.getMessage().contains("Column index out of bounds"));
+    }
+}
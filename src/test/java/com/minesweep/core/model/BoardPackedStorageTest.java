@@ -0,0 +1,114 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardPackedStorageTest {
+
+    @Test
+    void testPackedBoardStartsEmpty() {
+        Board board = new Board(4, 5, 3, Board.StorageMode.PACKED);
+        assertEquals(Board.StorageMode.PACKED, board.getStorageMode());
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 5; col++) {
+                assertFalse(board.isMine(row, col));
+                assertFalse(board.isRevealed(row, col));
+                assertEquals(Cell.MarkState.NONE, board.getMarkState(row, col));
+                assertEquals(0, board.getNeighborMineCount(row, col));
+            }
+        }
+    }
+
+    @Test
+    void testDefaultConstructorUsesObjectStorage() {
+        assertEquals(Board.StorageMode.OBJECT, new Board(2, 2, 0).getStorageMode());
+    }
+
+    @Test
+    void testCalculateNumbersMatchesObjectStorage() {
+        Board packed = new Board(6, 7, 8, Board.StorageMode.PACKED);
+        Board object = new Board(6, 7, 8);
+        int[][] mines = {{0, 0}, {0, 6}, {1, 3}, {2, 2}, {2, 3}, {3, 4}, {5, 0}, {5, 6}};
+        for (int[] mine : mines) {
+            packed.getCell(mine[0], mine[1]).setMine(true);
+            object.getCell(mine[0], mine[1]).setMine(true);
+        }
+
+        packed.calculateNumbers();
+        object.calculateNumbers();
+
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 7; col++) {
+                assertEquals(object.isMine(row, col), packed.isMine(row, col));
+                assertEquals(object.getNeighborMineCount(row, col), packed.getNeighborMineCount(row, col),
+                        "Count mismatch at (" + row + ", " + col + ")");
+            }
+        }
+    }
+
+    @Test
+    void testEightNeighborMinesFitInPackedCount() {
+        Board board = new Board(3, 3, 8, Board.StorageMode.PACKED);
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                if (row != 1 || col != 1) {
+                    board.getCell(row, col).setMine(true);
+                }
+            }
+        }
+        board.calculateNumbers();
+        assertEquals(8, board.getNeighborMineCount(1, 1));
+        assertFalse(board.isMine(1, 1));
+    }
+
+    @Test
+    void testRevealAndCycleMarkFollowCellSemantics() {
+        Board board = new Board(2, 2, 0, Board.StorageMode.PACKED);
+
+        board.cycleMark(0, 0, true);
+        assertTrue(board.isFlagged(0, 0));
+        assertFalse(board.revealCell(0, 0), "Flagged cell should not be revealed");
+
+        board.cycleMark(0, 0, true);
+        assertEquals(Cell.MarkState.QUESTIONED, board.getMarkState(0, 0));
+        assertTrue(board.revealCell(0, 0));
+        assertEquals(Cell.MarkState.NONE, board.getMarkState(0, 0), "Reveal should clear question mark");
+        assertFalse(board.revealCell(0, 0));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            board.cycleMark(0, 0, true);
+        });
+        assertEquals("Cannot cycle mark on revealed cell", exception.getMessage());
+
+        board.cycleMark(1, 1, false);
+        assertTrue(board.isFlagged(1, 1));
+        board.cycleMark(1, 1, false);
+        assertEquals(Cell.MarkState.NONE, board.getMarkState(1, 1));
+    }
+
+    @Test
+    void testCellViewIsReadOnly() {
+        Board board = new Board(2, 2, 0, Board.StorageMode.PACKED);
+        Cell view = board.getCell(0, 1);
+
+        assertThrows(UnsupportedOperationException.class, view::reveal);
+        assertThrows(UnsupportedOperationException.class, () -> view.cycleMark(false));
+
+        board.revealCell(0, 1);
+        assertTrue(view.isRevealed(), "View should observe the latest board state");
+    }
+
+    @Test
+    void testPackedBoundsChecks() {
+        Board board = new Board(3, 3, 0, Board.StorageMode.PACKED);
+        IndexOutOfBoundsException rowException = assertThrows(IndexOutOfBoundsException.class, () -> {
+            board.isMine(3, 0);
+        });
+        assertTrue(rowException.getMessage().contains("Row index out of bounds"));
+        IndexOutOfBoundsException colException = assertThrows(IndexOutOfBoundsException.class, () -> {
+            board.getCell(0, -1);
+        });
+        assertTrue(colException.getMessage().contains("Column index out of bounds"));
+        assertEquals(3, board.getNeighbors(0, 0).size());
+    }
+}
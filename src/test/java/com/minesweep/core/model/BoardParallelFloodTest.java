@@ -0,0 +1,84 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class BoardParallelFloodTest {
+
+    private static Board randomBoard(int rows, int cols, int mines, long seed) {
+        Board board = new Board(rows, cols, mines, Board.StorageMode.PACKED);
+        Random random = new Random(seed);
+        int placed = 0;
+        while (placed < mines) {
+            int row = random.nextInt(rows);
+            int col = random.nextInt(cols);
+            if (!board.isMine(row, col)) {
+                board.getCell(row, col).setMine(true);
+                placed++;
+            }
+        }
+        board.calculateNumbers();
+        // 在部分安全格上插旗或打问号
+        for (int i = 0; i < 500; i++) {
+            int row = random.nextInt(rows);
+            int col = random.nextInt(cols);
+            board.cycleMark(row, col, true);
+        }
+        return board;
+    }
+
+    @Test
+    void testParallelMatchesSequentialFlood() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long seed = 1; seed <= 5; seed++) {
+                Board sequential = randomBoard(400, 500, 1500, seed);
+                Board parallel = randomBoard(400, 500, 1500, seed);
+                int row = 200;
+                int col = 250;
+                while (sequential.isMine(row, col) || sequential.getNeighborMineCount(row, col) != 0
+                        || sequential.isFlagged(row, col)) {
+                    col++;
+                }
+
+                assertEquals(sequential.floodReveal(row, col), parallel.floodRevealParallel(row, col, pool));
+                assertEquals(sequential.getRevealedCount(), parallel.getRevealedCount());
+                assertEquals(parallel.getRevealedCount(), parallel.countRevealedCells());
+                for (int r = 0; r < 400; r++) {
+                    for (int c = 0; c < 500; c++) {
+                        assertEquals(sequential.isRevealed(r, c), parallel.isRevealed(r, c),
+                                "Reveal mismatch at (" + r + ", " + c + ")");
+                        assertEquals(sequential.getMarkState(r, c), parallel.getMarkState(r, c));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testOpenBoardRevealsEverything() {
+        Board board = new Board(600, 600, 0, Board.StorageMode.PACKED);
+        board.setFloodFillStrategy(Board.FloodFillStrategy.PARALLEL);
+        assertEquals(600 * 600, board.floodReveal(0, 0));
+        assertEquals(600 * 600, board.countRevealedCells());
+        assertEquals(0, board.floodReveal(0, 0));
+    }
+
+    @Test
+    void testFallsBackBelowThresholdAndForOtherModes() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        Board small = new Board(10, 10, 0, Board.StorageMode.PACKED);
+        assertEquals(100, small.floodRevealParallel(5, 5, pool));
+
+        Board object = new Board(300, 300, 0);
+        object.enableRegionSummaries();
+        assertEquals(90000, object.floodRevealParallel(0, 0, pool));
+        assertEquals(90000, object.countRevealedIn(0, 0, 300, 300));
+
+        assertThrows(NullPointerException.class, () -> small.floodRevealParallel(0, 0, null));
+    }
+}
@@ -0,0 +1,80 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class BoardParallelNumbersTest {
+
+    /**
+     * 在两个棋盘的相同位置随机放置雷。
+     */
+    private static void placeSameMines(Board first, Board second, long seed) {
+        Random random = new Random(seed);
+        int placed = 0;
+        while (placed < first.getTotalMines()) {
+            int row = random.nextInt(first.getRows());
+            int col = random.nextInt(first.getCols());
+            if (!first.isMine(row, col)) {
+                first.getCell(row, col).setMine(true);
+                second.getCell(row, col).setMine(true);
+                placed++;
+            }
+        }
+    }
+
+    private static void assertParallelMatchesSequential(int rows, int cols, int mines, Board.StorageMode storageMode) {
+        Board sequential = new Board(rows, cols, mines, storageMode);
+        Board parallel = new Board(rows, cols, mines, storageMode);
+        placeSameMines(sequential, parallel, rows * 31L + cols);
+
+        sequential.calculateNumbers();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parallel.calculateNumbersParallel(pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                assertEquals(sequential.getNeighborMineCount(row, col), parallel.getNeighborMineCount(row, col),
+                        storageMode + " count mismatch at (" + row + ", " + col + ")");
+            }
+        }
+    }
+
+    @Test
+    void testParallelMatchesSequentialForEveryStorage() {
+        Board.StorageMode[] storageModes = {
+                Board.StorageMode.OBJECT,
+                Board.StorageMode.PACKED,
+                Board.StorageMode.BITBOARD,
+                Board.StorageMode.OFF_HEAP
+        };
+        for (Board.StorageMode storageMode : storageModes) {
+            assertParallelMatchesSequential(300, 301, 18000, storageMode);
+        }
+    }
+
+    @Test
+    void testTallNarrowBoard() {
+        assertParallelMatchesSequential(70000, 3, 40000, Board.StorageMode.PACKED);
+    }
+
+    @Test
+    void testSmallBoardUsesCommonPool() {
+        Board board = new Board(3, 3, 1, Board.StorageMode.PACKED);
+        board.getCell(1, 1).setMine(true);
+        board.calculateNumbersParallel();
+        assertEquals(1, board.getNeighborMineCount(0, 0));
+        assertEquals(1, board.getNeighborMineCount(2, 2));
+    }
+
+    @Test
+    void testNullPoolThrows() {
+        Board board = new Board(3, 3, 1);
+        assertThrows(NullPointerException.class, () -> board.calculateNumbersParallel(null));
+    }
+}
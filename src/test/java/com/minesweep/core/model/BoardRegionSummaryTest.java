@@ -0,0 +1,96 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+class BoardRegionSummaryTest {
+
+    private static void assertRegionsMatchScan(Board board, Random random) {
+        for (int i = 0; i < 200; i++) {
+            int fromRow = random.nextInt(board.getRows() + 1);
+            int toRow = fromRow + random.nextInt(board.getRows() - fromRow + 1);
+            int fromCol = random.nextInt(board.getCols() + 1);
+            int toCol = fromCol + random.nextInt(board.getCols() - fromCol + 1);
+            int revealed = 0;
+            int flagged = 0;
+            for (int row = fromRow; row < toRow; row++) {
+                for (int col = fromCol; col < toCol; col++) {
+                    if (board.isRevealed(row, col)) {
+                        revealed++;
+                    }
+                    if (board.isFlagged(row, col)) {
+                        flagged++;
+                    }
+                }
+            }
+            assertEquals(revealed, board.countRevealedIn(fromRow, fromCol, toRow, toCol));
+            assertEquals(flagged, board.countFlaggedIn(fromRow, fromCol, toRow, toCol));
+            assertEquals((toRow - fromRow) * (toCol - fromCol) - revealed,
+                    board.countUnrevealedIn(fromRow, fromCol, toRow, toCol));
+        }
+    }
+
+    @Test
+    void testRegionCountsFollowRevealsAndMarks() {
+        for (Board.StorageMode storageMode : new Board.StorageMode[]{
+                Board.StorageMode.OBJECT, Board.StorageMode.PACKED, Board.StorageMode.BITBOARD}) {
+            Board board = new Board(37, 53, 60, storageMode);
+            Random random = new Random(11L);
+            int placed = 0;
+            while (placed < 60) {
+                int row = random.nextInt(37);
+                int col = random.nextInt(53);
+                if (!board.isMine(row, col)) {
+                    board.getCell(row, col).setMine(true);
+                    placed++;
+                }
+            }
+            board.calculateNumbers();
+            board.enableRegionSummaries();
+
+            for (int i = 0; i < 300; i++) {
+                int row = random.nextInt(37);
+                int col = random.nextInt(53);
+                if (board.isRevealed(row, col)) {
+                    continue;
+                }
+                if (board.isMine(row, col) || random.nextInt(4) == 0) {
+                    board.cycleMark(row, col, true);
+                } else if (!board.isFlagged(row, col)) {
+                    board.floodReveal(row, col);
+                }
+            }
+            assertRegionsMatchScan(board, random);
+        }
+    }
+
+    @Test
+    void testEnableBuildsFromCurrentState() {
+        Board board = new Board(10, 10, 0, Board.StorageMode.PACKED);
+        board.cycleMark(9, 9, false);
+        board.revealCell(0, 0);
+        board.revealCell(5, 7);
+        board.enableRegionSummaries();
+        assertTrue(board.hasRegionSummaries());
+        assertEquals(2, board.countRevealedIn(0, 0, 10, 10));
+        assertEquals(1, board.countRevealedIn(5, 7, 6, 8));
+        assertEquals(1, board.countFlaggedIn(9, 9, 10, 10));
+        assertEquals(0, board.countFlaggedIn(0, 0, 9, 10));
+        assertEquals(0, board.countRevealedIn(3, 3, 3, 3));
+
+        board.cycleMark(9, 9, false);
+        assertEquals(0, board.countFlaggedIn(0, 0, 10, 10));
+    }
+
+    @Test
+    void testInvalidQueries() {
+        Board board = new Board(4, 4, 0);
+        assertThrows(IllegalStateException.class, () -> board.countRevealedIn(0, 0, 1, 1));
+        board.enableRegionSummaries();
+        assertThrows(IndexOutOfBoundsException.class, () -> board.countRevealedIn(0, 0, 5, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.countFlaggedIn(2, 0, 1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.countUnrevealedIn(0, -1, 1, 1));
+        assertThrows(IllegalStateException.class, () -> Board.chunked(64, 64, 1).enableRegionSummaries());
+    }
+}
@@ -0,0 +1,101 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+class BoardScanlineFloodTest {
+
+    /**
+     * 按相同的种子创建雷位、标记和已揭示格子都相同的棋盘。
+     */
+    private static Board randomBoard(int rows, int cols, int mines, long seed, Board.StorageMode storageMode,
+                                     boolean lazyNumbers) {
+        Board board = new Board(rows, cols, mines, storageMode);
+        board.setLazyNumbers(lazyNumbers);
+        Random random = new Random(seed);
+        int placed = 0;
+        while (placed < mines) {
+            int row = random.nextInt(rows);
+            int col = random.nextInt(cols);
+            if (!board.isMine(row, col)) {
+                board.getCell(row, col).setMine(true);
+                placed++;
+            }
+        }
+        board.calculateNumbers();
+        for (int i = 0; i < rows * cols / 40; i++) {
+            int row = random.nextInt(rows);
+            int col = random.nextInt(cols);
+            if (board.isRevealed(row, col)) {
+                continue;
+            }
+            if (random.nextBoolean()) {
+                board.cycleMark(row, col, true);
+                if (random.nextBoolean()) {
+                    board.cycleMark(row, col, true);
+                }
+            } else if (!board.isMine(row, col) && !board.isFlagged(row, col)) {
+                board.revealCell(row, col);
+            }
+        }
+        return board;
+    }
+
+    private static void assertSameFlood(int rows, int cols, int mines, long seed, Board.StorageMode storageMode,
+                                        boolean lazyNumbers) {
+        Board neighbor = randomBoard(rows, cols, mines, seed, storageMode, lazyNumbers);
+        Board scanline = randomBoard(rows, cols, mines, seed, storageMode, lazyNumbers);
+        scanline.setFloodFillStrategy(Board.FloodFillStrategy.SCANLINE);
+
+        Random random = new Random(seed + 1);
+        for (int i = 0; i < 20; i++) {
+            int row = random.nextInt(rows);
+            int col = random.nextInt(cols);
+            if (neighbor.isMine(row, col)) {
+                continue;
+            }
+            assertEquals(neighbor.floodReveal(row, col), scanline.floodReveal(row, col),
+                    storageMode + " flood size mismatch at (" + row + ", " + col + ")");
+        }
+        assertEquals(neighbor.getRevealedCount(), scanline.getRevealedCount());
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                assertEquals(neighbor.isRevealed(row, col), scanline.isRevealed(row, col),
+                        storageMode + " reveal mismatch at (" + row + ", " + col + ")");
+                assertEquals(neighbor.getMarkState(row, col), scanline.getMarkState(row, col));
+            }
+        }
+    }
+
+    @Test
+    void testScanlineMatchesNeighborFlood() {
+        Board.StorageMode[] storageModes = {
+                Board.StorageMode.OBJECT,
+                Board.StorageMode.PACKED,
+                Board.StorageMode.BITBOARD,
+                Board.StorageMode.OFF_HEAP
+        };
+        long seed = 1;
+        for (Board.StorageMode storageMode : storageModes) {
+            for (int mines : new int[]{0, 30, 150, 400}) {
+                assertSameFlood(40, 57, mines, seed++, storageMode, false);
+            }
+            assertSameFlood(1, 30, 2, seed++, storageMode, false);
+            assertSameFlood(30, 1, 2, seed++, storageMode, false);
+        }
+    }
+
+    @Test
+    void testScanlineMatchesNeighborFloodWithLazyNumbers() {
+        assertSameFlood(40, 57, 100, 99L, Board.StorageMode.OBJECT, true);
+        assertSameFlood(40, 57, 100, 98L, Board.StorageMode.PACKED, true);
+    }
+
+    @Test
+    void testStrategyDefaultsAndNull() {
+        Board board = new Board(2, 2, 0);
+        assertEquals(Board.FloodFillStrategy.NEIGHBOR, board.getFloodFillStrategy());
+        assertThrows(NullPointerException.class, () -> board.setFloodFillStrategy(null));
+    }
+}
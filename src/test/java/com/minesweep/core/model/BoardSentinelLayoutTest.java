@@ -0,0 +1,97 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+class BoardSentinelLayoutTest {
+
+    private static Board[] boardsWithSameMines(int rows, int cols, int mines, long seed) {
+        Board object = new Board(rows, cols, mines);
+        Board packed = new Board(rows, cols, mines, Board.StorageMode.PACKED);
+        Random random = new Random(seed);
+        int placed = 0;
+        while (placed < mines) {
+            int row = random.nextInt(rows);
+            int col = random.nextInt(cols);
+            if (!object.isMine(row, col)) {
+                object.getCell(row, col).setMine(true);
+                packed.getCell(row, col).setMine(true);
+                placed++;
+            }
+        }
+        object.calculateNumbers();
+        packed.calculateNumbers();
+        return new Board[] {object, packed};
+    }
+
+    @Test
+    void testSentinelsAreNotCounted() {
+        Board board = new Board(3, 4, 0, Board.StorageMode.PACKED);
+        assertEquals(0, board.countRevealedCells());
+        assertEquals(0, board.countFlaggedCells());
+        assertEquals(0, board.countAdjacentMines(0, 0));
+        assertEquals(0, board.countFlaggedNeighbors(2, 3));
+    }
+
+    @Test
+    void testFloodRevealMatchesObjectStorage() {
+        Board[] boards = boardsWithSameMines(20, 23, 40, 7L);
+        Board object = boards[0];
+        Board packed = boards[1];
+        int[][] starts = {{0, 0}, {19, 22}, {0, 22}, {19, 0}, {10, 11}};
+        for (int[] start : starts) {
+            if (object.isMine(start[0], start[1])) {
+                continue;
+            }
+            assertEquals(object.floodReveal(start[0], start[1]), packed.floodReveal(start[0], start[1]));
+        }
+        assertEquals(object.getRevealedCount(), packed.getRevealedCount());
+        assertEquals(packed.getRevealedCount(), packed.countRevealedCells());
+        for (int row = 0; row < 20; row++) {
+            for (int col = 0; col < 23; col++) {
+                assertEquals(object.isRevealed(row, col), packed.isRevealed(row, col),
+                        "Reveal mismatch at (" + row + ", " + col + ")");
+            }
+        }
+    }
+
+    @Test
+    void testFloodRevealSkipsFlagsAndClearsQuestionMarks() {
+        Board board = new Board(3, 3, 0, Board.StorageMode.PACKED);
+        board.cycleMark(0, 0, true);
+        board.cycleMark(2, 2, true);
+        board.cycleMark(2, 2, true);
+
+        assertEquals(8, board.floodReveal(1, 1));
+        assertFalse(board.isRevealed(0, 0));
+        assertTrue(board.isRevealed(2, 2));
+        assertEquals(Cell.MarkState.NONE, board.getMarkState(2, 2));
+        assertEquals(0, board.floodReveal(1, 1));
+        assertEquals(8, board.getRevealedCount());
+    }
+
+    @Test
+    void testNeighborCountsAtEdgesMatchObjectStorage() {
+        Board[] boards = boardsWithSameMines(5, 6, 12, 3L);
+        for (int row = 0; row < 5; row++) {
+            for (int col = 0; col < 6; col++) {
+                if (boards[0].isMine(row, col)) {
+                    boards[0].cycleMark(row, col, false);
+                    boards[1].cycleMark(row, col, false);
+                }
+            }
+        }
+        for (int row = 0; row < 5; row++) {
+            for (int col = 0; col < 6; col++) {
+                assertEquals(boards[0].countAdjacentMines(row, col), boards[1].countAdjacentMines(row, col));
+                assertEquals(boards[0].countFlaggedNeighbors(row, col), boards[1].countFlaggedNeighbors(row, col));
+            }
+        }
+    }
+
+    @Test
+    void testPackedSizeLimitIncludesSentinels() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(2, Integer.MAX_VALUE / 2, 0, Board.StorageMode.PACKED));
+    }
+}
@@ -0,0 +1,79 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardSnapshotTest {
+
+    private static void assertMatchesBoard(Board board, BoardSnapshot snapshot) {
+        assertEquals(board.getRevealedCount(), snapshot.getRevealedCount());
+        assertEquals(board.getFlaggedCount(), snapshot.getFlaggedCount());
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getCols(); col++) {
+                assertEquals(board.isMine(row, col), snapshot.isMine(row, col));
+                assertEquals(board.isRevealed(row, col), snapshot.isRevealed(row, col));
+                assertEquals(board.getMarkState(row, col), snapshot.getMarkState(row, col));
+                assertEquals(board.getNeighborMineCount(row, col), snapshot.getNeighborMineCount(row, col));
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotIsUnaffectedByLaterChanges() {
+        for (Board.StorageMode storageMode : new Board.StorageMode[]{
+                Board.StorageMode.OBJECT, Board.StorageMode.PACKED, Board.StorageMode.BITBOARD}) {
+            Board board = new Board(70, 130, 1, storageMode);
+            board.getCell(69, 129).setMine(true);
+            board.calculateNumbers();
+            BoardSnapshot before = board.snapshot(0);
+
+            board.cycleMark(0, 0, true);
+            board.incrementFlaggedCount();
+            board.floodReveal(35, 64);
+            BoardSnapshot after = board.snapshot(1);
+
+            assertEquals(0, before.getVersion());
+            assertEquals(1, after.getVersion());
+            assertFalse(before.isRevealed(35, 64));
+            assertFalse(before.isFlagged(0, 0));
+            assertEquals(0, before.getRevealedCount());
+            assertTrue(after.isFlagged(0, 0));
+            assertEquals(70 * 130 - 2, after.getRevealedCount());
+            assertMatchesBoard(board, after);
+        }
+    }
+
+    @Test
+    void testSnapshotTracksSingleSquareChanges() {
+        Board board = new Board(100, 100, 0, Board.StorageMode.PACKED);
+        BoardSnapshot first = board.snapshot(0);
+        board.revealCell(99, 99);
+        board.cycleMark(0, 65, false);
+        BoardSnapshot second = board.snapshot(1);
+
+        assertFalse(first.isRevealed(99, 99));
+        assertTrue(second.isRevealed(99, 99));
+        assertTrue(second.isFlagged(0, 65));
+        assertMatchesBoard(board, second);
+    }
+
+    @Test
+    void testSnapshotSeesRecalculatedNumbersOnLazyBoard() {
+        Board board = new Board(5, 5, 1);
+        board.setLazyNumbers(true);
+        board.snapshot(0);
+        board.getCell(2, 2).setMine(true);
+        board.calculateNumbers();
+        BoardSnapshot snapshot = board.snapshot(1);
+        assertEquals(1, snapshot.getNeighborMineCount(1, 1));
+        assertTrue(snapshot.isMine(2, 2));
+    }
+
+    @Test
+    void testSnapshotBoundsAndChunkedBoards() {
+        BoardSnapshot snapshot = new Board(2, 3, 0).snapshot(0);
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.isMine(2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.isMine(0, -1));
+        assertThrows(IllegalStateException.class, () -> Board.chunked(64, 64, 10).snapshot(0));
+    }
+}
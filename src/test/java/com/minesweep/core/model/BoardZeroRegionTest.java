@@ -0,0 +1,94 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+class BoardZeroRegionTest {
+
+    private static Board randomBoard(int rows, int cols, int mines, long seed, Board.StorageMode storageMode,
+                                     boolean labels) {
+        Board board = new Board(rows, cols, mines, storageMode);
+        board.setZeroRegionLabels(labels);
+        Random random = new Random(seed);
+        int placed = 0;
+        while (placed < mines) {
+            int row = random.nextInt(rows);
+            int col = random.nextInt(cols);
+            if (!board.isMine(row, col)) {
+                board.getCell(row, col).setMine(true);
+                placed++;
+            }
+        }
+        board.calculateNumbers();
+        for (int i = 0; i < 15; i++) {
+            board.cycleMark(random.nextInt(rows), random.nextInt(cols), true);
+        }
+        return board;
+    }
+
+    @Test
+    void testRegionOpeningMatchesFloodFill() {
+        for (Board.StorageMode storageMode : new Board.StorageMode[]{
+                Board.StorageMode.OBJECT, Board.StorageMode.PACKED, Board.StorageMode.BITBOARD}) {
+            for (long seed = 1; seed <= 6; seed++) {
+                Board flood = randomBoard(30, 41, 90, seed, storageMode, false);
+                Board labeled = randomBoard(30, 41, 90, seed, storageMode, true);
+                Random random = new Random(-seed);
+                for (int i = 0; i < 40; i++) {
+                    int row = random.nextInt(30);
+                    int col = random.nextInt(41);
+                    if (flood.isMine(row, col)) {
+                        continue;
+                    }
+                    assertEquals(flood.floodReveal(row, col), labeled.floodReveal(row, col),
+                            storageMode + " mismatch at (" + row + ", " + col + ")");
+                }
+                assertEquals(flood.getRevealedCount(), labeled.getRevealedCount());
+                for (int row = 0; row < 30; row++) {
+                    for (int col = 0; col < 41; col++) {
+                        assertEquals(flood.isRevealed(row, col), labeled.isRevealed(row, col));
+                        assertEquals(flood.getMarkState(row, col), labeled.getMarkState(row, col));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRegionSizeIncludesBorderNumbers() {
+        // 雷在第一行中间，9 个空白格经由最后一行连成一个区域，边缘有 5 个数字格
+        Board board = new Board(3, 5, 1);
+        board.getCell(0, 2).setMine(true);
+        board.setZeroRegionLabels(true);
+        board.calculateNumbers();
+
+        assertEquals(0, board.getZeroRegionSize(0, 2), "Mine is not in a region");
+        assertEquals(0, board.getZeroRegionSize(1, 2), "Number is not a zero square");
+        assertEquals(14, board.getZeroRegionSize(0, 0));
+        assertEquals(14, board.getZeroRegionSize(0, 4));
+        assertEquals(14, board.floodReveal(2, 2));
+        assertEquals(14, board.getRevealedCount());
+        assertFalse(board.isRevealed(0, 2));
+    }
+
+    @Test
+    void testLabelsFollowRecalculationAndLazyMode() {
+        Board board = new Board(4, 4, 1, Board.StorageMode.PACKED);
+        board.setZeroRegionLabels(true);
+        assertTrue(board.isZeroRegionLabels());
+        assertEquals(16, board.getZeroRegionSize(0, 0));
+
+        board.getCell(3, 3).setMine(true);
+        board.calculateNumbers();
+        assertEquals(15, board.getZeroRegionSize(0, 0));
+
+        board.setLazyNumbers(true);
+        board.calculateNumbers();
+        assertEquals(0, board.getZeroRegionSize(0, 0));
+        assertEquals(15, board.floodReveal(0, 0));
+
+        board.setZeroRegionLabels(false);
+        assertFalse(board.isZeroRegionLabels());
+    }
+}
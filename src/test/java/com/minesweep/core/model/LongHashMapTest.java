@@ -0,0 +1,50 @@
+package com.minesweep.core.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashMapTest {
+
+    @Test
+    void testPutGetAndResize() {
+        LongHashMap<String> map = new LongHashMap<>();
+        assertNull(map.get(0L));
+        for (long i = 0; i < 10_000; i++) {
+            // 区块键：行号在高 32 位，列号在低 32 位
+            map.put((i / 100) << 32 | (i % 100), "v" + i);
+        }
+        assertEquals(10_000, map.size());
+        for (long i = 0; i < 10_000; i++) {
+            assertEquals("v" + i, map.get((i / 100) << 32 | (i % 100)));
+        }
+        assertNull(map.get(100L << 32));
+        assertNull(map.get(-1L));
+
+        map.put(5L, "replaced");
+        assertEquals(10_000, map.size());
+        assertEquals("replaced", map.get(5L));
+    }
+
+    @Test
+    void testIterationVisitsEveryEntry() {
+        LongHashMap<Long> map = new LongHashMap<>();
+        long expected = 0;
+        for (long key = 1; key <= 1000; key++) {
+            map.put(key * 31, key);
+            expected += key;
+        }
+        long sum = 0;
+        int entries = 0;
+        for (int slot = 0; slot < map.capacity(); slot++) {
+            Long value = map.valueAt(slot);
+            if (value != null) {
+                assertEquals(value * 31, map.keyAt(slot));
+                sum += value;
+                entries++;
+            }
+        }
+        assertEquals(1000, entries);
+        assertEquals(expected, sum);
+        assertThrows(NullPointerException.class, () -> map.put(1L, null));
+    }
+}